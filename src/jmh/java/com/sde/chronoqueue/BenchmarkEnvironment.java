@@ -0,0 +1,92 @@
+package com.sde.chronoqueue;
+
+import com.github.fppt.jedismock.RedisServer;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The application wired against local stand-ins: an embedded Postgres and an in-process
+ * Redis-compatible server. Scheduling is off, so benchmarks drive sweeps and claims themselves.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkEnvironment {
+
+    private EmbeddedPostgres postgres;
+    private RedisServer redis;
+    private ConfigurableApplicationContext context;
+
+    @Setup
+    public void start() throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        redis = RedisServer.newRedisServer();
+        redis.start();
+
+        context = new SpringApplicationBuilder(ChronoqueueApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(Map.of(
+                        "spring.datasource.url", "jdbc:postgresql://localhost:" + postgres.getPort() +
+                                "/postgres?reWriteBatchedInserts=true",
+                        "spring.datasource.username", "postgres",
+                        "spring.datasource.password", "postgres",
+                        "spring.data.redis.port", redis.getBindPort(),
+                        "spring.jpa.show-sql", false,
+                        "spring.devtools.restart.enabled", false,
+                        "chronoqueue.scheduling.enabled", false,
+                        "chronoqueue.queue.backend", "list",
+                        "logging.level.root", "WARN"
+                ))
+                .run();
+    }
+
+    @TearDown
+    public void stop() throws IOException {
+        context.close();
+        redis.stop();
+        postgres.close();
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    /**
+     * Insert due PENDING jobs straight into the table; queued ones are treated as already in Redis
+     */
+    public List<UUID> insertDueJobs(int count, boolean queued) {
+        Timestamp now = Timestamp.from(Instant.now());
+        return bean(JdbcTemplate.class).queryForList("""
+                INSERT INTO jobs (id, queue_type, task_type, payload, metadata, scheduled_at, created_at, updated_at,
+                                  state, priority, attempts, max_attempts, queued_at, last_error_payload, archived)
+                SELECT gen_random_uuid(), 'EMAIL', 'noop', '{"to":"bench@example.com"}', '{}', ?, ?, ?,
+                       'PENDING', 100, 0, 5, ?, '{}', false
+                FROM generate_series(1, ?)
+                RETURNING id
+                """, UUID.class, now, now, now, queued ? now : null, count);
+    }
+
+    /**
+     * Empty the jobs table and every Redis key between iterations
+     */
+    public void reset() {
+        bean(JdbcTemplate.class).execute("TRUNCATE jobs CASCADE");
+        bean(StringRedisTemplate.class).execute(connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        }, true);
+    }
+}
@@ -0,0 +1,64 @@
+package com.sde.chronoqueue.queue;
+
+import com.sde.chronoqueue.enums.QueueType;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The worker's claimed-job buffer: ordered add/poll as dispatch does it, and the dedupe check
+ * that drops redeliveries of jobs already held.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LocalJobBufferBenchmark {
+
+    private static final int CAPACITY = 200;
+
+    private LocalJobBuffer buffer;
+    private JobDescriptor held;
+
+    @Setup(Level.Iteration)
+    public void fill() {
+        buffer = new LocalJobBuffer(CAPACITY);
+        // Half full, like a worker with a backlog of claimed jobs
+        for (int i = 0; i < CAPACITY / 2; i++) {
+            buffer.add(job());
+        }
+        held = job();
+        buffer.add(held);
+    }
+
+    private static JobDescriptor job() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Instant scheduledAt = Instant.now().minusMillis(random.nextInt(10_000));
+        return new JobDescriptor(UUID.randomUUID(), QueueType.EMAIL, "noop", "{}", scheduledAt,
+                random.nextInt(1, 1000), 0, 5, null);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public JobDescriptor addThenPollDue() {
+        buffer.add(job());
+        return buffer.pollDue(Instant.now());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean rejectDuplicate() {
+        return buffer.add(held);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean containsMiss() {
+        return buffer.contains(UUID.randomUUID());
+    }
+}
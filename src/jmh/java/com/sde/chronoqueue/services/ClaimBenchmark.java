@@ -0,0 +1,51 @@
+package com.sde.chronoqueue.services;
+
+import com.sde.chronoqueue.BenchmarkEnvironment;
+import com.sde.chronoqueue.entities.JobEntity;
+import com.sde.chronoqueue.repositories.JobEntityRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The worker claim path: one UPDATE ... RETURNING for a batch of IDs delivered by Redis.
+ * Runs with several threads so the SKIP LOCKED contention between workers is part of the score.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(4)
+@State(Scope.Thread)
+public class ClaimBenchmark {
+
+    private static final int BATCH_SIZE = 50;
+
+    private JobEntityRepository jobRepo;
+    private BenchmarkEnvironment env;
+    private String workerId;
+    private List<UUID> delivered;
+
+    @Setup
+    public void setup(BenchmarkEnvironment env) {
+        this.env = env;
+        jobRepo = env.bean(JobEntityRepository.class);
+        workerId = "bench-" + UUID.randomUUID();
+    }
+
+    @Setup(Level.Invocation)
+    public void deliver() {
+        delivered = env.insertDueJobs(BATCH_SIZE, true);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<JobEntity> claimByIds() {
+        Instant now = Instant.now();
+        return jobRepo.claimByIds(delivered, workerId, now.plusSeconds(30), now);
+    }
+}
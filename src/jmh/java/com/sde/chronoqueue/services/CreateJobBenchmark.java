@@ -0,0 +1,61 @@
+package com.sde.chronoqueue.services;
+
+import com.sde.chronoqueue.BenchmarkEnvironment;
+import com.sde.chronoqueue.dtos.JobBatchCreateResponse;
+import com.sde.chronoqueue.dtos.JobCreateRequest;
+import com.sde.chronoqueue.dtos.JobCreateResponse;
+import com.sde.chronoqueue.enums.QueueType;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Job creation end to end: validation, INSERT, and the after-commit ZADD to the delayed queue
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CreateJobBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+
+    private JobService jobService;
+
+    @Setup
+    public void setup(BenchmarkEnvironment env) {
+        jobService = env.bean(JobService.class);
+    }
+
+    @TearDown(Level.Iteration)
+    public void reset(BenchmarkEnvironment env) {
+        env.reset();
+    }
+
+    private static JobCreateRequest request() {
+        // An hour out, so jobs stay in the delayed queue instead of being promoted
+        return new JobCreateRequest(QueueType.EMAIL, "noop", Map.of("to", "bench@example.com"),
+                Instant.now().plusSeconds(3600), null, null, null, null, null, null);
+    }
+
+    @Benchmark
+    public JobCreateResponse createJob() {
+        return jobService.createJob(request());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public JobBatchCreateResponse createJobs() {
+        List<JobCreateRequest> requests = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            requests.add(request());
+        }
+        return jobService.createJobs(requests);
+    }
+}
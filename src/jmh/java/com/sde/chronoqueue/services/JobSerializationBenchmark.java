@@ -0,0 +1,78 @@
+package com.sde.chronoqueue.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sde.chronoqueue.dtos.JobCreateResponse;
+import com.sde.chronoqueue.entities.JobEntity;
+import com.sde.chronoqueue.enums.JobState;
+import com.sde.chronoqueue.enums.QueueType;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Payload JSON handling on the API paths: writing a request payload for storage, and
+ * turning a stored row into the response body.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JobSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private JobService jobService;
+    private Map<String, Object> payload;
+    private JobEntity job;
+
+    @Setup
+    public void setup() throws JsonProcessingException {
+        // Same Jackson defaults Spring Boot applies to the application's ObjectMapper
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        jobService = new JobService(null, objectMapper, null, null, null, null, null, null, null, null, null, null);
+
+        payload = Map.of(
+                "to", "user@example.com",
+                "subject", "Your weekly report",
+                "template", "weekly-report",
+                "variables", Map.of("name", "Ada", "items", List.of(1, 2, 3, 4, 5), "locale", "en-GB"),
+                "attachments", List.of("report.pdf", "summary.csv")
+        );
+
+        Instant now = Instant.now();
+        job = JobEntity.builder()
+                .id(UUID.randomUUID())
+                .queueType(QueueType.EMAIL)
+                .taskType("email.send")
+                .payload(objectMapper.writeValueAsString(payload))
+                .scheduledAt(now)
+                .createdAt(now)
+                .updatedAt(now)
+                .state(JobState.PENDING)
+                .priority(100)
+                .maxAttempts(5)
+                .build();
+    }
+
+    @Benchmark
+    public String writePayload() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(payload);
+    }
+
+    @Benchmark
+    public JobCreateResponse mapToResponse() {
+        return jobService.mapToResponse(job);
+    }
+
+    @Benchmark
+    public byte[] mapToResponseBody() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(jobService.mapToResponse(job));
+    }
+}
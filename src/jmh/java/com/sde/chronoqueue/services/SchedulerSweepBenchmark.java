@@ -0,0 +1,42 @@
+package com.sde.chronoqueue.services;
+
+import com.sde.chronoqueue.BenchmarkEnvironment;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One scheduler sweep moving a backlog of due jobs from Postgres to the Redis ready lists.
+ * Scores are per job, so results stay comparable when the backlog size changes.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SchedulerSweepBenchmark {
+
+    private static final int BACKLOG = 2_000;
+
+    private SchedulerService scheduler;
+    private BenchmarkEnvironment env;
+
+    @Setup
+    public void setup(BenchmarkEnvironment env) {
+        this.env = env;
+        scheduler = env.bean(SchedulerService.class);
+    }
+
+    @Setup(Level.Invocation)
+    public void insertBacklog() {
+        env.reset();
+        env.insertDueJobs(BACKLOG, false);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BACKLOG)
+    public void sweep() {
+        scheduler.moveDueJobsToRedis();
+    }
+}
@@ -0,0 +1,356 @@
+package com.sde.chronoqueue.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.fppt.jedismock.RedisServer;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * End-to-end load test: starts N ChronoQueue nodes as separate processes against Postgres and
+ * Redis stand-ins, submits a mixed workload over the REST API, optionally kills one node
+ * mid-run, waits for every job to finish and writes a JSON report.
+ * <p>
+ * Run with {@code mvn -Pload-test verify -Dloadtest.args="--nodes=3 --burst=10000"}.
+ */
+public class LoadTest {
+
+    private static final Path WORK_DIR = Path.of("target", "loadtest");
+    private static final int BATCH_SIZE = 1000;
+
+    private final LoadTestConfig config;
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().indentOutput(true).build();
+    private final HttpClient http = HttpClient.newHttpClient();
+    private final List<Process> nodes = new ArrayList<>();
+
+    // Planned due time and workload of every created job, for lag per workload
+    private final Map<UUID, Instant> dueAt = new HashMap<>();
+    private final Map<UUID, String> workloadOf = new HashMap<>();
+
+    private EmbeddedPostgres postgres;
+    private RedisServer redis;
+    private String jdbcUrl;
+    private String redisHost = "localhost";
+    private int redisPort;
+    private JdbcTemplate jdbc;
+    private int nextNode;
+
+    private LoadTest(LoadTestConfig config) {
+        this.config = config;
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTest loadTest = new LoadTest(LoadTestConfig.parse(args));
+        try {
+            loadTest.run();
+        } finally {
+            loadTest.shutdown();
+        }
+    }
+
+    private void run() throws Exception {
+        Files.createDirectories(WORK_DIR);
+        for (int i = 0; i < config.nodes(); i++) {
+            Files.deleteIfExists(nodeIdFile(i));
+        }
+        startStandIns();
+        startNodes();
+
+        Instant startedAt = Instant.now();
+        long createStart = System.nanoTime();
+        // REPORT jobs first, so they are running somewhere when a node gets killed
+        submit("report", LoadTestHandlers.REPORT, "REPORT", config.reports(), 0, Map.of("sleepMs", config.reportMs()));
+        submit("burst", LoadTestHandlers.FAST, "NOTIFICATION", config.burst(), 0, Map.of());
+        submit("retry", LoadTestHandlers.FLAKY, "EMAIL", config.retry(), 0, Map.of("failures", config.retryFailures()));
+        submit("delayed", LoadTestHandlers.FAST, "BACKGROUND_TASK", config.delayed(), config.delayWindowMs(), Map.of());
+        double createSeconds = (System.nanoTime() - createStart) / 1e9;
+        log("Created " + dueAt.size() + " jobs in " + String.format("%.1f", createSeconds) + "s");
+
+        KilledNode killed = null;
+        if (config.killAfterMs() > 0 && nodes.size() > 1) {
+            sleepUntil(startedAt.plusMillis(config.killAfterMs()));
+            killed = killFirstNode();
+        }
+
+        Long recoveryMs = awaitDrain(startedAt, killed);
+
+        LoadTestReport report = report(startedAt, createSeconds, killed, recoveryMs);
+        Path reportPath = Path.of(config.report());
+        objectMapper.writeValue(reportPath.toFile(), report);
+        log("Report written to " + reportPath.toAbsolutePath());
+        System.out.println(objectMapper.writeValueAsString(report));
+    }
+
+    // ---------------------------------------------------------------- environment
+
+    private void startStandIns() throws IOException {
+        if (config.jdbcUrl() == null) {
+            postgres = EmbeddedPostgres.builder().start();
+            jdbcUrl = "jdbc:postgresql://localhost:" + postgres.getPort() + "/postgres";
+        } else {
+            jdbcUrl = config.jdbcUrl();
+        }
+        if (config.redis() == null) {
+            redis = RedisServer.newRedisServer();
+            redis.start();
+            redisPort = redis.getBindPort();
+        } else {
+            String[] hostPort = config.redis().split(":");
+            redisHost = hostPort[0];
+            redisPort = Integer.parseInt(hostPort[1]);
+        }
+
+        jdbc = new JdbcTemplate(new DriverManagerDataSource(jdbcUrl, config.dbUser(), config.dbPassword()));
+        jdbc.execute("DROP TABLE IF EXISTS loadtest_executions");
+        jdbc.execute("""
+                CREATE TABLE loadtest_executions (
+                    job_id uuid NOT NULL,
+                    attempt int NOT NULL,
+                    node_id text NOT NULL,
+                    started_at timestamptz NOT NULL
+                )
+                """);
+        log("Postgres at " + jdbcUrl + ", Redis at " + redisHost + ":" + redisPort);
+    }
+
+    private void startNodes() throws Exception {
+        // The first node creates the schema; the others start once it is up
+        nodes.add(startNode(0));
+        awaitStarted(0);
+        for (int i = 1; i < config.nodes(); i++) {
+            nodes.add(startNode(i));
+        }
+        for (int i = 1; i < config.nodes(); i++) {
+            awaitStarted(i);
+        }
+        if (jdbc.queryForObject("SELECT count(*) FROM jobs", Long.class) > 0) {
+            throw new IllegalStateException("jobs table is not empty; point the load test at a scratch database");
+        }
+        log(config.nodes() + " node(s) up");
+    }
+
+    private Process startNode(int index) throws IOException {
+        List<String> command = new ArrayList<>(List.of(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("java.class.path"),
+                "-Dspring.devtools.restart.enabled=false",
+                LoadTestNode.class.getName(),
+                "--server.port=" + port(index),
+                "--spring.datasource.url=" + jdbcUrl,
+                "--spring.datasource.username=" + config.dbUser(),
+                "--spring.datasource.password=" + config.dbPassword(),
+                "--spring.data.redis.host=" + redisHost,
+                "--spring.data.redis.port=" + redisPort,
+                "--spring.jpa.show-sql=false",
+                "--loadtest.node-id-file=" + nodeIdFile(index)
+        ));
+        if (!config.nodeArgs().isBlank()) {
+            command.addAll(List.of(config.nodeArgs().split(",")));
+        }
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(WORK_DIR.resolve("node-" + index + ".log").toFile())
+                .start();
+    }
+
+    /**
+     * A node writes its ID file once the application has fully started
+     */
+    private void awaitStarted(int index) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 180_000;
+        while (System.currentTimeMillis() < deadline) {
+            if (!nodes.get(index).isAlive()) {
+                throw new IllegalStateException("Node " + index + " exited, see " + WORK_DIR.resolve("node-" + index + ".log"));
+            }
+            if (Files.exists(nodeIdFile(index))) return;
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException("Node " + index + " did not start in time");
+    }
+
+    private int port(int index) {
+        return config.basePort() + index;
+    }
+
+    private static Path nodeIdFile(int index) {
+        return WORK_DIR.resolve("node-" + index + ".id").toAbsolutePath();
+    }
+
+    private void shutdown() throws IOException {
+        for (Process node : nodes) {
+            node.destroy();
+        }
+        for (Process node : nodes) {
+            try {
+                node.waitFor();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (redis != null) redis.stop();
+        if (postgres != null) postgres.close();
+    }
+
+    // ---------------------------------------------------------------- workload
+
+    /**
+     * Create {@code count} jobs through the batch API, spread round-robin over the live nodes.
+     * With a window, due times are spread evenly across it instead of all being now.
+     */
+    private void submit(String workload, String taskType, String queueType, int count, long windowMs,
+                        Map<String, Object> payload) throws Exception {
+        for (int offset = 0; offset < count; offset += BATCH_SIZE) {
+            int size = Math.min(BATCH_SIZE, count - offset);
+            Instant now = Instant.now();
+            List<Map<String, Object>> requests = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                long delayMs = windowMs == 0 ? 0 : windowMs * (offset + i) / count;
+                requests.add(Map.of(
+                        "queueType", queueType,
+                        "taskType", taskType,
+                        "payload", payload,
+                        "scheduledAt", now.plusMillis(delayMs).toString(),
+                        "maxAttempts", config.retryFailures() + 2
+                ));
+            }
+
+            int node = nextNode++ % nodes.size();
+            HttpResponse<String> response = http.send(HttpRequest.newBuilder(
+                            URI.create("http://localhost:" + port(node) + "/api/jobs/batch"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(requests)))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Batch create failed: " + response.statusCode() + " " + response.body());
+            }
+
+            for (JsonNode result : objectMapper.readTree(response.body()).get("results")) {
+                if (!"CREATED".equals(result.get("status").asText())) continue;
+                UUID id = UUID.fromString(result.get("id").asText());
+                Instant scheduledAt = Instant.parse((String) requests.get(result.get("index").asInt()).get("scheduledAt"));
+                dueAt.put(id, scheduledAt);
+                workloadOf.put(id, workload);
+            }
+        }
+    }
+
+    private record KilledNode(String nodeId, Instant killedAt, List<UUID> runningJobs) {}
+
+    /**
+     * kill -9 the first node and remember which jobs it was running at the time
+     */
+    private KilledNode killFirstNode() throws Exception {
+        String nodeId = Files.readString(nodeIdFile(0)).trim();
+        List<UUID> running = jdbc.queryForList(
+                "SELECT id FROM jobs WHERE state = 'RUNNING' AND owner_worker_id = ?", UUID.class, nodeId);
+        nodes.get(0).destroyForcibly().waitFor();
+        Instant killedAt = Instant.now();
+        log("Killed node 0 (" + nodeId + ") with " + running.size() + " running jobs");
+        return new KilledNode(nodeId, killedAt, running);
+    }
+
+    /**
+     * Wait until every job is SUCCEEDED or DEAD. Returns how long after the kill the killed
+     * node's jobs had all finished elsewhere (null without a kill or if they never did).
+     */
+    private Long awaitDrain(Instant startedAt, KilledNode killed) throws InterruptedException {
+        Instant deadline = startedAt.plusMillis(config.timeoutMs());
+        Long recoveryMs = null;
+        String[] killedIds = killed == null ? new String[0]
+                : killed.runningJobs().stream().map(UUID::toString).toArray(String[]::new);
+
+        while (Instant.now().isBefore(deadline)) {
+            if (killed != null && recoveryMs == null) {
+                Long remaining = jdbc.queryForObject(
+                        "SELECT count(*) FROM jobs WHERE id::text = ANY (?) AND state NOT IN ('SUCCEEDED', 'DEAD')",
+                        Long.class, (Object) killedIds);
+                if (remaining == 0) {
+                    recoveryMs = Duration.between(killed.killedAt(), Instant.now()).toMillis();
+                    log("Jobs from the killed node recovered in " + recoveryMs + "ms");
+                }
+            }
+            Long unfinished = jdbc.queryForObject(
+                    "SELECT count(*) FROM jobs WHERE state NOT IN ('SUCCEEDED', 'DEAD')", Long.class);
+            if (unfinished == 0 && (killed == null || recoveryMs != null)) {
+                return recoveryMs;
+            }
+            Thread.sleep(250);
+        }
+        log("Timed out waiting for jobs to finish");
+        return recoveryMs;
+    }
+
+    // ---------------------------------------------------------------- report
+
+    private LoadTestReport report(Instant startedAt, double createSeconds, KilledNode killed, Long recoveryMs) {
+        Map<String, Long> byState = new TreeMap<>();
+        jdbc.query("SELECT state, count(*) FROM jobs GROUP BY state",
+                rs -> { byState.put(rs.getString(1), rs.getLong(2)); });
+
+        Timestamp lastFinished = jdbc.queryForObject(
+                "SELECT max(updated_at) FROM jobs WHERE state IN ('SUCCEEDED', 'DEAD')", Timestamp.class);
+        long drainMs = lastFinished == null ? 0 : Duration.between(startedAt, lastFinished.toInstant()).toMillis();
+        long finished = byState.getOrDefault("SUCCEEDED", 0L) + byState.getOrDefault("DEAD", 0L);
+
+        // Lag of each job's first attempt against the time it was scheduled for
+        Map<String, List<Long>> lags = new TreeMap<>();
+        jdbc.query("SELECT job_id, min(started_at) FROM loadtest_executions WHERE attempt = 1 GROUP BY job_id", rs -> {
+            UUID id = rs.getObject(1, UUID.class);
+            Instant planned = dueAt.get(id);
+            if (planned == null) return;
+            long lag = Math.max(0, Duration.between(planned, rs.getTimestamp(2).toInstant()).toMillis());
+            lags.computeIfAbsent("all", k -> new ArrayList<>()).add(lag);
+            lags.computeIfAbsent(workloadOf.get(id), k -> new ArrayList<>()).add(lag);
+        });
+        Map<String, LoadTestReport.LatencySummary> lagSummary = new TreeMap<>();
+        lags.forEach((workload, samples) -> lagSummary.put(workload, LoadTestReport.LatencySummary.of(samples)));
+
+        // The same attempt starting twice is a duplicate, unless it is the re-run of a job the killed node held
+        Set<UUID> recoverable = killed == null ? Set.of() : new HashSet<>(killed.runningJobs());
+        long[] duplicates = new long[2];
+        jdbc.query("""
+                SELECT job_id, count(*) FROM loadtest_executions
+                GROUP BY job_id, attempt HAVING count(*) > 1
+                """, rs -> {
+            int extra = rs.getInt(2) - 1;
+            duplicates[recoverable.contains(rs.getObject(1, UUID.class)) ? 1 : 0] += extra;
+        });
+
+        return new LoadTestReport(
+                startedAt,
+                config,
+                dueAt.size(),
+                dueAt.size() / Math.max(createSeconds, 0.001),
+                byState,
+                drainMs,
+                drainMs == 0 ? 0 : finished * 1000.0 / drainMs,
+                lagSummary,
+                duplicates[0],
+                duplicates[1],
+                killed == null ? null : new LoadTestReport.Recovery(killed.nodeId(), killed.runningJobs().size(), recoveryMs)
+        );
+    }
+
+    private static void sleepUntil(Instant until) throws InterruptedException {
+        long millis = Duration.between(Instant.now(), until).toMillis();
+        if (millis > 0) Thread.sleep(millis);
+    }
+
+    private static void log(String message) {
+        System.out.println("🏋️ [LoadTest] " + message);
+    }
+}
@@ -0,0 +1,94 @@
+package com.sde.chronoqueue.loadtest;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Workload and environment for one load-test run, from {@code --key=value} arguments.
+ *
+ * @param nodes         ChronoQueue processes to start
+ * @param burst         jobs due immediately (noop-style)
+ * @param delayed       jobs spread evenly over the next {@code delayWindowMs}
+ * @param retry         jobs that fail their first {@code retryFailures} attempts
+ * @param reports       long-running REPORT jobs taking {@code reportMs} each
+ * @param killAfterMs   kill -9 the first node this long after load starts (0 = never)
+ * @param timeoutMs     give up waiting for jobs to finish after this long
+ * @param jdbcUrl       use this Postgres instead of an embedded one
+ * @param redis         use this Redis (host:port) instead of the in-process stand-in
+ * @param nodeArgs      extra arguments for every node, comma separated,
+ *                      e.g. "--chronoqueue.worker.lease-duration-ms=10000,--chronoqueue.reaper.interval-ms=5000"
+ */
+public record LoadTestConfig(
+        int nodes,
+        int burst,
+        int delayed,
+        long delayWindowMs,
+        int retry,
+        int retryFailures,
+        int reports,
+        long reportMs,
+        long killAfterMs,
+        long timeoutMs,
+        int basePort,
+        String jdbcUrl,
+        String dbUser,
+        String dbPassword,
+        String redis,
+        String nodeArgs,
+        String report
+) {
+
+    public static LoadTestConfig parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --key=value, got: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+
+        LoadTestConfig config = new LoadTestConfig(
+                intOption(options, "nodes", 3),
+                intOption(options, "burst", 5000),
+                intOption(options, "delayed", 2000),
+                longOption(options, "delay-window-ms", 20_000),
+                intOption(options, "retry", 500),
+                intOption(options, "retry-failures", 1),
+                intOption(options, "reports", 20),
+                longOption(options, "report-ms", 15_000),
+                longOption(options, "kill-after-ms", 5_000),
+                longOption(options, "timeout-ms", 300_000),
+                intOption(options, "base-port", 18080),
+                stringOption(options, "jdbc-url", null),
+                stringOption(options, "db-user", "postgres"),
+                stringOption(options, "db-password", "postgres"),
+                stringOption(options, "redis", null),
+                stringOption(options, "node-args", ""),
+                stringOption(options, "report", "target/loadtest-report.json")
+        );
+        if (!options.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options: " + options.keySet());
+        }
+        return config;
+    }
+
+    private static String stringOption(Map<String, String> options, String key, String defaultValue) {
+        String value = options.remove(key);
+        return value == null ? defaultValue : value;
+    }
+
+    private static int intOption(Map<String, String> options, String key, int defaultValue) {
+        String value = options.remove(key);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    private static long longOption(Map<String, String> options, String key, long defaultValue) {
+        String value = options.remove(key);
+        return value == null ? defaultValue : Long.parseLong(value);
+    }
+
+    public int totalJobs() {
+        return burst + delayed + retry + reports;
+    }
+}
@@ -0,0 +1,78 @@
+package com.sde.chronoqueue.loadtest;
+
+import com.sde.chronoqueue.config.NodeIdentity;
+import com.sde.chronoqueue.handlers.JobContext;
+import com.sde.chronoqueue.handlers.TaskHandler;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Task handlers used by the load test. Every attempt is recorded in loadtest_executions
+ * before it does anything, so the harness can measure lag and spot duplicate executions.
+ * <p>
+ * Not a @Configuration on purpose: it is only added as a source by {@link LoadTestNode},
+ * never picked up by component scanning.
+ */
+public class LoadTestHandlers {
+
+    public static final String FAST = "load.fast";
+    public static final String FLAKY = "load.flaky";
+    public static final String REPORT = "load.report";
+
+    @Bean
+    public TaskHandler<Map<String, Object>> fastLoadHandler(JdbcTemplate jdbcTemplate, NodeIdentity node) {
+        return new RecordingHandler(FAST, jdbcTemplate, node);
+    }
+
+    @Bean
+    public TaskHandler<Map<String, Object>> flakyLoadHandler(JdbcTemplate jdbcTemplate, NodeIdentity node) {
+        return new RecordingHandler(FLAKY, jdbcTemplate, node);
+    }
+
+    @Bean
+    public TaskHandler<Map<String, Object>> reportLoadHandler(JdbcTemplate jdbcTemplate, NodeIdentity node) {
+        return new RecordingHandler(REPORT, jdbcTemplate, node);
+    }
+
+    /**
+     * Payload {@code failures}: fail attempts up to this number. Payload {@code sleepMs}: work this long.
+     */
+    record RecordingHandler(String taskType, JdbcTemplate jdbcTemplate, NodeIdentity node) implements TaskHandler<Map<String, Object>> {
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Class<Map<String, Object>> payloadType() {
+            return (Class<Map<String, Object>>) (Class<?>) Map.class;
+        }
+
+        @Override
+        public CompletionStage<Void> handle(Map<String, Object> payload, JobContext context) {
+            jdbcTemplate.update("INSERT INTO loadtest_executions (job_id, attempt, node_id, started_at) VALUES (?, ?, ?, ?)",
+                    context.getJobId(), context.getAttempt(), node.getId(), Timestamp.from(Instant.now()));
+
+            int failures = ((Number) payload.getOrDefault("failures", 0)).intValue();
+            if (context.getAttempt() <= failures) {
+                return CompletableFuture.failedFuture(new IllegalStateException("Planned failure " + context.getAttempt()));
+            }
+
+            long sleepMs = ((Number) payload.getOrDefault("sleepMs", 0)).longValue();
+            long deadline = System.currentTimeMillis() + sleepMs;
+            // Blocking is fine here: handlers run on virtual threads
+            while (!context.isCancelled() && System.currentTimeMillis() < deadline) {
+                try {
+                    Thread.sleep(Math.min(100, deadline - System.currentTimeMillis()));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+}
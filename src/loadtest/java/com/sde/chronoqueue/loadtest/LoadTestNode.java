@@ -0,0 +1,27 @@
+package com.sde.chronoqueue.loadtest;
+
+import com.sde.chronoqueue.ChronoqueueApplication;
+import com.sde.chronoqueue.config.NodeIdentity;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * One ChronoQueue node started by {@link LoadTest} as a separate process, so it can be killed -9.
+ * Writes its node ID (the lease owner in the jobs table) to the file named by {@code --loadtest.node-id-file}.
+ */
+public class LoadTestNode {
+
+    public static void main(String[] args) throws IOException {
+        ConfigurableApplicationContext context = SpringApplication.run(
+                new Class<?>[]{ChronoqueueApplication.class, LoadTestHandlers.class}, args);
+
+        String idFile = context.getEnvironment().getProperty("loadtest.node-id-file");
+        if (idFile != null) {
+            Files.writeString(Path.of(idFile), context.getBean(NodeIdentity.class).getId());
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.sde.chronoqueue.loadtest;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Machine-readable result of one load-test run, written as JSON so runs can be diffed across releases
+ */
+public record LoadTestReport(
+        Instant startedAt,
+        LoadTestConfig config,
+        long jobsCreated,
+        double createRatePerSec,
+        Map<String, Long> jobsByState,
+        long drainMs,
+        double throughputJobsPerSec,
+        Map<String, LatencySummary> scheduleLagMs,
+        long duplicateExecutions,
+        long recoveredReexecutions,
+        Recovery recovery
+) {
+
+    /**
+     * First attempt start minus the time the job was scheduled for, in milliseconds
+     */
+    public record LatencySummary(int count, long p50, long p90, long p99, long max) {
+
+        public static LatencySummary of(List<Long> samples) {
+            if (samples.isEmpty()) return new LatencySummary(0, 0, 0, 0, 0);
+            List<Long> sorted = new ArrayList<>(samples);
+            Collections.sort(sorted);
+            return new LatencySummary(sorted.size(), percentile(sorted, 50), percentile(sorted, 90),
+                    percentile(sorted, 99), sorted.getLast());
+        }
+
+        private static long percentile(List<Long> sorted, int percentile) {
+            int rank = (int) Math.ceil(percentile / 100.0 * sorted.size());
+            return sorted.get(Math.max(0, rank - 1));
+        }
+    }
+
+    /**
+     * What happened to the jobs that were running on the node we killed.
+     * recoveryMs is null when they had not all finished by the end of the run.
+     */
+    public record Recovery(String killedNode, int runningAtKill, Long recoveryMs) {}
+}
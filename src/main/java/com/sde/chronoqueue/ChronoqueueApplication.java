@@ -2,10 +2,10 @@ package com.sde.chronoqueue;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 @SpringBootApplication
-@EnableScheduling
+@ConfigurationPropertiesScan
 public class ChronoqueueApplication {
 
     public static void main(String[] args) {
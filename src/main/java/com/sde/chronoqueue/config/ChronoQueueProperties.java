@@ -0,0 +1,364 @@
+package com.sde.chronoqueue.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import com.sde.chronoqueue.enums.QueueType;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tunables for the scheduler and workers, bound from {@code chronoqueue.*}
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "chronoqueue")
+public class ChronoQueueProperties {
+
+    private final Scheduler scheduler = new Scheduler();
+
+    private final Delayed delayed = new Delayed();
+
+    private final Queue queue = new Queue();
+
+    private final Worker worker = new Worker();
+
+    private final Api api = new Api();
+
+    private final Reaper reaper = new Reaper();
+
+    private final Recovery recovery = new Recovery();
+
+    private final Cluster cluster = new Cluster();
+
+    private final Timer timer = new Timer();
+
+    private final Archive archive = new Archive();
+
+    private final Attempts attempts = new Attempts();
+
+    private final Idempotency idempotency = new Idempotency();
+
+    private final Retry retry = new Retry();
+
+    private final RateLimit rateLimit = new RateLimit();
+
+    private final Recurring recurring = new Recurring();
+
+    private final Notify notify = new Notify();
+
+    @Getter
+    @Setter
+    public static class Scheduler {
+        /**
+         * Due jobs loaded, pushed to Redis and marked queued per page
+         */
+        private int pageSize = 500;
+    }
+
+    @Getter
+    @Setter
+    public static class Delayed {
+        /**
+         * Max members moved from a delayed ZSET to its ready list per Lua call
+         */
+        private int promoteBatchSize = 1000;
+    }
+
+    @Getter
+    @Setter
+    public static class Queue {
+        /**
+         * Ready queue backend: "list" (LPUSH / RPOP) or "stream" (consumer groups)
+         */
+        private String backend = "list";
+
+        private final Stream stream = new Stream();
+    }
+
+    @Getter
+    @Setter
+    public static class Stream {
+        /**
+         * Consumer group shared by all workers
+         */
+        private String group = "chrono-workers";
+
+        /**
+         * How long one XREADGROUP call waits for new entries
+         */
+        private long blockTimeoutMs = 2000;
+
+        /**
+         * Deliveries unacknowledged for this long (read, but the claim never happened) are taken over
+         * from their consumer; consumers idle this long with nothing pending are removed
+         */
+        private long reclaimIdleMs = 60000;
+    }
+
+    @Getter
+    @Setter
+    public static class Worker {
+        /**
+         * Max jobs running at once per queue on this node, for queues without an override
+         */
+        private int defaultConcurrency = 100;
+
+        /**
+         * Per-queue overrides, e.g. chronoqueue.worker.concurrency.REPORT=10
+         */
+        private Map<QueueType, Integer> concurrency = new EnumMap<>(QueueType.class);
+
+        /**
+         * Max job IDs taken from Redis or the DB per queue per fetch
+         */
+        private int fetchBatchSize = 50;
+
+        /**
+         * Max claimed jobs held in memory per queue waiting for a permit
+         */
+        private int bufferCapacity = 200;
+
+        /**
+         * How long a claimed job stays leased to this worker without a heartbeat
+         */
+        private long leaseDurationMs = 30000;
+
+        /**
+         * How often leases are renewed; keep well below leaseDurationMs
+         */
+        private long heartbeatIntervalMs = 10000;
+
+        public int concurrencyFor(QueueType queue) {
+            return concurrency.getOrDefault(queue, defaultConcurrency);
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Api {
+        /**
+         * Max jobs accepted by one POST /api/jobs/batch call
+         */
+        private int maxBatchSize = 10000;
+
+        /**
+         * Max jobs per page of GET /api/jobs
+         */
+        private int maxPageSize = 1000;
+
+        /**
+         * Rows fetched per round trip by GET /api/jobs/stream
+         */
+        private int streamFetchSize = 1000;
+    }
+
+    @Getter
+    @Setter
+    public static class Reaper {
+        /**
+         * Time between reaper cycles; only one node in the cluster reaps per cycle
+         */
+        private long intervalMs = 15000;
+
+        /**
+         * Max expired leases reset per UPDATE (and per transaction)
+         */
+        private int chunkSize = 500;
+
+        /**
+         * Reaped jobs become due again after this delay
+         */
+        private long requeueDelayMs = 5000;
+    }
+
+    @Getter
+    @Setter
+    public static class Recovery {
+        /**
+         * How often each node checks whether Redis lost its queues
+         */
+        private long checkIntervalMs = 10000;
+
+        /**
+         * A rebuild that has not finished after this long is assumed dead and started again
+         */
+        private long rebuildTimeoutMs = 600000;
+    }
+
+    @Getter
+    @Setter
+    public static class Archive {
+        /**
+         * Time between archiver cycles; only one node in the cluster archives per cycle
+         */
+        private long intervalMs = 60000;
+
+        /**
+         * SUCCEEDED / DEAD jobs move to jobs_archive once they have been finished this long
+         */
+        private long retentionMs = 7L * 24 * 60 * 60 * 1000;
+
+        /**
+         * Max jobs moved per DELETE ... INSERT (and per transaction)
+         */
+        private int chunkSize = 1000;
+
+        /**
+         * Monthly archive partitions older than this many months are dropped; 0 keeps them forever
+         */
+        private int partitionRetentionMonths = 0;
+    }
+
+    @Getter
+    @Setter
+    public static class Attempts {
+        /**
+         * Finished attempts waiting to be written; when full, new records are dropped, not waited for
+         */
+        private int bufferCapacity = 10_000;
+
+        /**
+         * Max attempt rows per JDBC batch
+         */
+        private int batchSize = 500;
+
+        /**
+         * Longest a recorded attempt waits before the writer picks it up when the buffer is quiet
+         */
+        private long flushIntervalMs = 200;
+    }
+
+    @Getter
+    @Setter
+    public static class Retry {
+        /**
+         * Backoff policy per queue for jobs created without their own retryBackoff,
+         * with the same keys as the JSON field (type, initial_delay_seconds, ...)
+         */
+        private Map<QueueType, Map<String, String>> policies = new EnumMap<>(QueueType.class);
+    }
+
+    @Getter
+    @Setter
+    public static class RateLimit {
+        /**
+         * Max jobs claimed per second per queue, across the whole cluster (unset = unlimited)
+         */
+        private Map<QueueType, Double> queues = new EnumMap<>(QueueType.class);
+
+        /**
+         * Max jobs claimed per second per taskType, across the whole cluster; keys containing
+         * dots need brackets, e.g. task-types[email.send]=50
+         */
+        private Map<String, Double> taskTypes = new HashMap<>();
+
+        /**
+         * Bucket capacity in seconds of rate: the burst allowed after a quiet spell
+         */
+        private double burstSeconds = 1.0;
+
+        /**
+         * Most tokens a node takes from Redis at once (and never more than 100ms worth of the rate)
+         */
+        private int leaseSize = 50;
+
+        /**
+         * Leased tokens a node has not used within this long are dropped
+         */
+        private long leaseTtlMs = 1000;
+    }
+
+    @Getter
+    @Setter
+    public static class Notify {
+        /**
+         * Wake every node with Postgres NOTIFY when due jobs are created; off = periodic polling only
+         */
+        private boolean enabled = true;
+
+        /**
+         * Notifications arriving within this window are handled as one wake-up; also gives the
+         * committing node time to hand its jobs to Redis first
+         */
+        private long coalesceMs = 10;
+
+        /**
+         * Wait before reopening a lost LISTEN connection
+         */
+        private long reconnectDelayMs = 5000;
+    }
+
+    @Getter
+    @Setter
+    public static class Recurring {
+        /**
+         * Fire times up to this far ahead are turned into jobs, so they sit in the delayed queue on time
+         */
+        private long lookaheadMs = 60000;
+
+        /**
+         * Fire times older than this when reached count as missed and follow the definition's misfire policy
+         */
+        private long misfireThresholdMs = 60000;
+
+        /**
+         * Definitions locked and materialized per transaction
+         */
+        private int chunkSize = 500;
+
+        /**
+         * Max jobs one definition creates per pass; a FIRE_ALL backlog catches up over several passes
+         */
+        private int maxFiresPerPass = 1000;
+    }
+
+    @Getter
+    @Setter
+    public static class Idempotency {
+        /**
+         * How long a created job's ID stays cached in Redis under its idempotency key (0 = no cache)
+         */
+        private long cacheTtlMs = 600_000;
+    }
+
+    @Getter
+    @Setter
+    public static class Cluster {
+        /**
+         * Virtual partitions job IDs hash into; must be the same on every node
+         */
+        private int partitions = 64;
+
+        /**
+         * Nodes that have not heartbeated for this long are dropped from the registry
+         */
+        private long nodeTtlMs = 10000;
+    }
+
+    @Getter
+    @Setter
+    public static class Timer {
+        /**
+         * Resolution of the in-process timing wheel
+         */
+        private long tickMs = 1;
+
+        /**
+         * Buckets per wheel level; each higher level spans wheelSize times the one below
+         */
+        private int wheelSize = 64;
+
+        /**
+         * Jobs due within this window are held in memory and fired on time
+         */
+        private long horizonMs = 120000;
+
+        /**
+         * Upper bound on jobs held in the timing wheel per node
+         */
+        private int maxTracked = 100000;
+    }
+}
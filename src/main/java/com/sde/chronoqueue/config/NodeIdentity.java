@@ -0,0 +1,23 @@
+package com.sde.chronoqueue.config;
+
+import lombok.Getter;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Identity of this ChronoQueue instance: lease owner, Redis consumer name, etc.
+ */
+@Getter
+@Component
+public class NodeIdentity {
+
+    private final String id = UUID.randomUUID().toString();
+
+    /**
+     * Short form for log lines
+     */
+    public String shortId() {
+        return id.substring(0, 8);
+    }
+}
@@ -1,22 +1,30 @@
 package com.sde.chronoqueue.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 @Configuration
 public class RedisConfig {
 
     @Bean
-    public LettuceConnectionFactory lettuceConnectionFactory() {
-        return new LettuceConnectionFactory("localhost", 6379);
+    public LettuceConnectionFactory lettuceConnectionFactory(@Value("${spring.data.redis.host:localhost}") String host,
+                                                             @Value("${spring.data.redis.port:6379}") int port) {
+        return new LettuceConnectionFactory(host, port);
     }
 
     @Bean
     public RedisTemplate<String,String> redisTemplate(LettuceConnectionFactory lettuceConnectionFactory) {
         RedisTemplate<String, String> redisTemplate = new RedisTemplate<>();
         redisTemplate.setConnectionFactory(lettuceConnectionFactory);
+        // Plain strings so Lua scripts and redis-cli see the same keys and job IDs
+        redisTemplate.setKeySerializer(StringRedisSerializer.UTF_8);
+        redisTemplate.setValueSerializer(StringRedisSerializer.UTF_8);
+        redisTemplate.setHashKeySerializer(StringRedisSerializer.UTF_8);
+        redisTemplate.setHashValueSerializer(StringRedisSerializer.UTF_8);
         return redisTemplate;
     }
-}
\ No newline at end of file
+}
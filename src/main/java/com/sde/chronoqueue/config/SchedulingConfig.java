@@ -0,0 +1,15 @@
+package com.sde.chronoqueue.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Background loops (sweeps, polling, heartbeats, reaper). Benchmarks switch them off with
+ * {@code chronoqueue.scheduling.enabled=false} and drive the same code paths directly.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "chronoqueue.scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {
+}
@@ -1,13 +1,21 @@
 package com.sde.chronoqueue.controllers;
 
 
+import com.sde.chronoqueue.dtos.JobAttemptResponse;
+import com.sde.chronoqueue.dtos.JobBatchCreateResponse;
 import com.sde.chronoqueue.dtos.JobCreateRequest;
 import com.sde.chronoqueue.dtos.JobCreateResponse;
+import com.sde.chronoqueue.dtos.JobFilter;
+import com.sde.chronoqueue.dtos.JobListResponse;
 import com.sde.chronoqueue.entities.JobEntity;
 import com.sde.chronoqueue.services.JobService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
 import java.util.List;
 import java.util.UUID;
 
@@ -23,13 +31,34 @@ public class JobController {
         return jobService.createJob(request);
     }
 
+    @PostMapping("/batch")
+    public JobBatchCreateResponse createJobs(@RequestBody List<JobCreateRequest> requests) {
+        return jobService.createJobs(requests);
+    }
+
     @GetMapping("/{id}")
     public JobCreateResponse getJobStatus(@PathVariable UUID id) {
         return jobService.getJobStatus(id);
     }
 
+    @GetMapping("/{id}/attempts")
+    public List<JobAttemptResponse> getJobAttempts(@PathVariable UUID id) {
+        return jobService.getJobAttempts(id);
+    }
+
     @GetMapping
-    public List<JobCreateResponse> getAllJobs() {
-        return jobService.getAllJobs();
+    public JobListResponse getJobs(JobFilter filter,
+                                   @RequestParam(required = false) String cursor,
+                                   @RequestParam(defaultValue = "100") int limit,
+                                   @RequestParam(defaultValue = "false") boolean includePayload) {
+        return jobService.listJobs(filter, cursor, limit, includePayload);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamJobs(JobFilter filter,
+                                                            @RequestParam(defaultValue = "false") boolean includePayload) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> jobService.streamJobs(filter, includePayload, out));
     }
 }
@@ -0,0 +1,45 @@
+package com.sde.chronoqueue.controllers;
+
+import com.sde.chronoqueue.dtos.RecurringJobRequest;
+import com.sde.chronoqueue.dtos.RecurringJobResponse;
+import com.sde.chronoqueue.services.RecurringJobService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/recurring-jobs")
+@RequiredArgsConstructor
+public class RecurringJobController {
+    private final RecurringJobService recurringJobService;
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public RecurringJobResponse create(@RequestBody RecurringJobRequest request) {
+        return recurringJobService.create(request);
+    }
+
+    @GetMapping
+    public List<RecurringJobResponse> list() {
+        return recurringJobService.list();
+    }
+
+    @GetMapping("/{id}")
+    public RecurringJobResponse get(@PathVariable UUID id) {
+        return recurringJobService.get(id);
+    }
+
+    @PutMapping("/{id}")
+    public RecurringJobResponse update(@PathVariable UUID id, @RequestBody RecurringJobRequest request) {
+        return recurringJobService.update(id, request);
+    }
+
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void delete(@PathVariable UUID id) {
+        recurringJobService.delete(id);
+    }
+}
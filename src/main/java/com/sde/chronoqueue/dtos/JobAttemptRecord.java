@@ -0,0 +1,25 @@
+package com.sde.chronoqueue.dtos;
+
+import com.sde.chronoqueue.enums.AttemptOutcome;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One finished execution of a job, as handed to the attempt history writer
+ */
+public record JobAttemptRecord(
+        UUID jobId,
+        int attemptNumber,
+        String workerId,
+        AttemptOutcome outcome,
+        Instant startedAt,
+        Instant finishedAt,
+        String error,
+        String errorPayload
+) {
+    public long durationMs() {
+        return Duration.between(startedAt, finishedAt).toMillis();
+    }
+}
@@ -0,0 +1,17 @@
+package com.sde.chronoqueue.dtos;
+
+import com.sde.chronoqueue.enums.AttemptOutcome;
+
+import java.time.Instant;
+import java.util.Map;
+
+public record JobAttemptResponse(
+        int attemptNumber,
+        String workerId,
+        AttemptOutcome outcome,
+        Instant startedAt,
+        Instant finishedAt,
+        Long durationMs,
+        String error,
+        Map<String, Object> errorPayload
+) {}
@@ -0,0 +1,10 @@
+package com.sde.chronoqueue.dtos;
+
+import java.util.List;
+
+public record JobBatchCreateResponse(
+        int created,
+        int duplicates,
+        int rejected,
+        List<JobBatchItemResult> results
+) {}
@@ -0,0 +1,12 @@
+package com.sde.chronoqueue.dtos;
+
+import com.sde.chronoqueue.enums.BatchItemStatus;
+
+import java.util.UUID;
+
+public record JobBatchItemResult(
+        int index,
+        UUID id,
+        BatchItemStatus status,
+        String error
+) {}
@@ -3,7 +3,9 @@ package com.sde.chronoqueue.dtos;
 import com.sde.chronoqueue.enums.QueueType;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 public record JobCreateRequest(
         QueueType queueType,
@@ -12,5 +14,8 @@ public record JobCreateRequest(
         Instant scheduledAt,
         Integer priority,
         Integer maxAttempts,
-        String idempotencyKey
+        Map<String, Object> retryBackoff,
+        String idempotencyKey,
+        List<UUID> dependsOn,
+        UUID workflowId
 ) {}
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.sde.chronoqueue.dtos;
+
+import com.sde.chronoqueue.enums.JobState;
+import com.sde.chronoqueue.enums.QueueType;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Optional filters for job listing; null fields match everything.
+ * scheduledFrom is inclusive, scheduledTo exclusive.
+ */
+public record JobFilter(
+        JobState state,
+        QueueType queueType,
+        String taskType,
+        UUID workflowId,
+        Instant scheduledFrom,
+        Instant scheduledTo
+) {}
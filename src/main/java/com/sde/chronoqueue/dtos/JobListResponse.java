@@ -0,0 +1,11 @@
+package com.sde.chronoqueue.dtos;
+
+import java.util.List;
+
+/**
+ * One page of jobs; nextCursor is null on the last page
+ */
+public record JobListResponse(
+        List<JobCreateResponse> jobs,
+        String nextCursor
+) {}
@@ -0,0 +1,16 @@
+package com.sde.chronoqueue.dtos;
+
+import com.sde.chronoqueue.enums.QueueType;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Lightweight view of a job: just enough to route it to a queue
+ */
+public record JobRef(
+        UUID id,
+        QueueType queueType,
+        Instant scheduledAt,
+        Integer priority
+) {}
@@ -0,0 +1,12 @@
+package com.sde.chronoqueue.dtos;
+
+import java.util.UUID;
+
+/**
+ * A delivered job that has not been claimed yet: what the rate limiter needs to decide on it
+ */
+public record PendingJob(
+        UUID id,
+        String taskType,
+        int priority
+) {}
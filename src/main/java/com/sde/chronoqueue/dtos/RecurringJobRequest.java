@@ -0,0 +1,27 @@
+package com.sde.chronoqueue.dtos;
+
+import com.sde.chronoqueue.enums.MisfirePolicy;
+import com.sde.chronoqueue.enums.QueueType;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Recurring job definition; exactly one of cron and intervalSeconds.
+ * startAt (default: now) is the earliest fire time.
+ */
+public record RecurringJobRequest(
+        String name,
+        QueueType queueType,
+        String taskType,
+        Map<String, Object> payload,
+        String cron,
+        Long intervalSeconds,
+        String timezone,
+        MisfirePolicy misfirePolicy,
+        Instant startAt,
+        Integer priority,
+        Integer maxAttempts,
+        Map<String, Object> retryBackoff,
+        Boolean enabled
+) {}
@@ -0,0 +1,27 @@
+package com.sde.chronoqueue.dtos;
+
+import com.sde.chronoqueue.enums.MisfirePolicy;
+import com.sde.chronoqueue.enums.QueueType;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+public record RecurringJobResponse(
+        UUID id,
+        String name,
+        QueueType queueType,
+        String taskType,
+        Map<String, Object> payload,
+        String cron,
+        Long intervalSeconds,
+        String timezone,
+        MisfirePolicy misfirePolicy,
+        Integer priority,
+        Integer maxAttempts,
+        Map<String, Object> retryBackoff,
+        boolean enabled,
+        Instant nextFireAt,
+        Instant lastFiredAt,
+        Instant createdAt
+) {}
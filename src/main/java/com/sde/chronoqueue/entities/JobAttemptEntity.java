@@ -51,9 +51,11 @@ public class JobAttemptEntity {
     @Column(name = "error_payload", columnDefinition = "jsonb")
     private String errorPayload;
 
+    @Builder.Default
     @Column(name = "logs", columnDefinition = "jsonb")
     private String logs = "[]";
 
+    @Builder.Default
     @Column(name = "created_at", nullable = false)
     private Instant createdAt = Instant.now();
 }
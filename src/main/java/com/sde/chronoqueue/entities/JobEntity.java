@@ -10,10 +10,9 @@ import java.time.Instant;
 import java.util.UUID;
 
 @Entity
+// Hot-path indexes are partial (PENDING / RUNNING only) and live in schema.sql
 @Table(name = "jobs", indexes = {
-        @Index(name = "idx_job_processing", columnList = "state,scheduledAt,priority"),
-        @Index(name = "idx_lease_expiry", columnList = "state,leaseExpiresAt"),
-        @Index(name = "idx_queued_jobs", columnList = "state,queuedAt")
+        @Index(name = "idx_job_listing", columnList = "scheduledAt,id")
 })
 @Getter
 @Setter
@@ -37,6 +36,7 @@ public class JobEntity {
     @Column(columnDefinition = "text", nullable = false)
     private String payload;
 
+    @Builder.Default
     @Column(columnDefinition = "text")
     private String metadata = "{}";
 
@@ -49,16 +49,20 @@ public class JobEntity {
     @Column(name = "updated_at", nullable = false)
     private Instant updatedAt;
 
+    @Builder.Default
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private JobState state = JobState.PENDING;
 
+    @Builder.Default
     @Column(nullable = false)
     private Integer priority = 100;
 
+    @Builder.Default
     @Column(nullable = false)
     private Integer attempts = 0;
 
+    @Builder.Default
     @Column(name = "max_attempts")
     private Integer maxAttempts = 5;
 
@@ -68,6 +72,7 @@ public class JobEntity {
     @Column(name = "queued_at")
     private Instant queuedAt;
 
+    @Builder.Default
     @Column(name = "retry_backoff", columnDefinition = "text")
     private String retryBackoff = """
         {"type":"exponential","initial_delay_seconds":5,"max_delay_seconds":86400}
@@ -76,6 +81,7 @@ public class JobEntity {
     @Column(name = "last_error", columnDefinition = "text")
     private String lastError;
 
+    @Builder.Default
     @Column(name = "last_error_payload", columnDefinition = "text")
     private String lastErrorPayload = "{}";
 
@@ -88,9 +94,24 @@ public class JobEntity {
     @Column(name = "heartbeat_at")
     private Instant heartbeatAt;
 
+    @Builder.Default
     @Column(nullable = false)
     private Boolean archived = false;
 
+    // Groups the jobs of one workflow for listing; jobs are linked by job_dependencies
+    @Column(name = "workflow_id")
+    private UUID workflowId;
+
+    // Parents that have not succeeded yet; the job stays BLOCKED until this reaches zero
+    @Builder.Default
+    @Column(name = "remaining_parents", columnDefinition = "integer default 0", nullable = false)
+    private Integer remainingParents = 0;
+
+    // Set once another job depends on this one, so completion only looks for children when there are some
+    @Builder.Default
+    @Column(name = "has_children", columnDefinition = "boolean default false", nullable = false)
+    private Boolean hasChildren = false;
+
     @PrePersist
     protected void onCreate() {
         if (createdAt == null) {
@@ -0,0 +1,98 @@
+package com.sde.chronoqueue.entities;
+
+import com.sde.chronoqueue.enums.MisfirePolicy;
+import com.sde.chronoqueue.enums.QueueType;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.GenericGenerator;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A recurring job definition. Each fire time becomes an ordinary job in the jobs table.
+ */
+@Entity
+// The due-definition index is partial (enabled only) and lives in schema.sql
+@Table(name = "recurring_jobs")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class RecurringJobEntity {
+
+    @Id
+    @GeneratedValue(generator = "UUID")
+    @GenericGenerator(name = "UUID", strategy = "org.hibernate.id.UUIDGenerator")
+    private UUID id;
+
+    @Column(nullable = false, unique = true)
+    private String name;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "queue_type", nullable = false)
+    private QueueType queueType;
+
+    @Column(name = "task_type", nullable = false)
+    private String taskType;
+
+    @Column(columnDefinition = "text", nullable = false)
+    private String payload;
+
+    // Exactly one of cronExpression and intervalSeconds is set
+    @Column(name = "cron_expression")
+    private String cronExpression;
+
+    @Column(name = "interval_seconds")
+    private Long intervalSeconds;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private String timezone = "UTC";
+
+    @Builder.Default
+    @Enumerated(EnumType.STRING)
+    @Column(name = "misfire_policy", nullable = false)
+    private MisfirePolicy misfirePolicy = MisfirePolicy.FIRE_ONCE;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Integer priority = 100;
+
+    @Builder.Default
+    @Column(name = "max_attempts")
+    private Integer maxAttempts = 5;
+
+    // Copied onto every job; null uses the queue's default policy
+    @Column(name = "retry_backoff", columnDefinition = "text")
+    private String retryBackoff;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Boolean enabled = true;
+
+    // Earliest fire time that has no job yet; null once a cron schedule has no more fire times
+    @Column(name = "next_fire_at")
+    private Instant nextFireAt;
+
+    @Column(name = "last_fired_at")
+    private Instant lastFiredAt;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = Instant.now();
+        }
+        if (updatedAt == null) {
+            updatedAt = Instant.now();
+        }
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = Instant.now();
+    }
+}
@@ -0,0 +1,8 @@
+package com.sde.chronoqueue.enums;
+
+public enum BackoffStrategy {
+    FIXED,
+    LINEAR,
+    EXPONENTIAL,
+    DECORRELATED_JITTER
+}
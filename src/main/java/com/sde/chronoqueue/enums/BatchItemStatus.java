@@ -0,0 +1,7 @@
+package com.sde.chronoqueue.enums;
+
+public enum BatchItemStatus {
+    CREATED,    // New job inserted
+    DUPLICATE,  // Idempotency key already used, id points to the existing job
+    REJECTED    // Invalid request, nothing inserted
+}
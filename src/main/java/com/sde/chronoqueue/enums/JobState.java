@@ -1,6 +1,7 @@
 package com.sde.chronoqueue.enums;
 
 public enum JobState {
+    BLOCKED,    // Job waits for its parent jobs to succeed
     PENDING,    // Job created, waiting to be executed
     RUNNING,    // Job is currently being processed by a worker
     SUCCEEDED,  // Job completed successfully
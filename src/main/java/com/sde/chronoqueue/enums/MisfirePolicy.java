@@ -0,0 +1,7 @@
+package com.sde.chronoqueue.enums;
+
+public enum MisfirePolicy {
+    FIRE_ONCE,  // Missed fire times collapse into one job that runs right away
+    SKIP,       // Missed fire times are dropped; the schedule resumes at the next one
+    FIRE_ALL    // Every missed fire time gets its job, oldest first
+}
@@ -0,0 +1,64 @@
+package com.sde.chronoqueue.handlers;
+
+import com.sde.chronoqueue.enums.QueueType;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Per-attempt information handed to a TaskHandler, plus cooperative cancellation.
+ * A job is cancelled when it times out or when this worker loses its lease.
+ */
+@RequiredArgsConstructor
+public class JobContext {
+
+    @Getter
+    private final UUID jobId;
+
+    @Getter
+    private final QueueType queueType;
+
+    @Getter
+    private final String taskType;
+
+    @Getter
+    private final int attempt;
+
+    private final CompletableFuture<Void> cancellation = new CompletableFuture<>();
+
+    private final CompletableFuture<Void> returned = new CompletableFuture<>();
+
+    public boolean isCancelled() {
+        return cancellation.isDone();
+    }
+
+    /**
+     * Run an action when the attempt is cancelled (immediately if it already is)
+     */
+    public void onCancel(Runnable action) {
+        cancellation.thenRun(action);
+    }
+
+    public void cancel() {
+        cancellation.complete(null);
+    }
+
+    /**
+     * Completes once the handler's handle() call has returned. A blocking handler that ignores
+     * cancellation can still be running after its attempt timed out.
+     */
+    public CompletionStage<Void> handlerReturned() {
+        return returned;
+    }
+
+    boolean hasReturned() {
+        return returned.isDone();
+    }
+
+    void markReturned() {
+        returned.complete(null);
+    }
+}
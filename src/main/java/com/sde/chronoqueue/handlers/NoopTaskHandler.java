@@ -0,0 +1,30 @@
+package com.sde.chronoqueue.handlers;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Completes immediately. Handy for smoke tests and for measuring queue overhead.
+ */
+@Component
+public class NoopTaskHandler implements TaskHandler<Map<String, Object>> {
+
+    @Override
+    public String taskType() {
+        return "noop";
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Class<Map<String, Object>> payloadType() {
+        return (Class<Map<String, Object>>) (Class<?>) Map.class;
+    }
+
+    @Override
+    public CompletionStage<Void> handle(Map<String, Object> payload, JobContext context) {
+        return CompletableFuture.completedFuture(null);
+    }
+}
@@ -0,0 +1,41 @@
+package com.sde.chronoqueue.handlers;
+
+import java.time.Duration;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Business logic for one taskType. Register an implementation as a Spring bean.
+ * <p>
+ * The job payload is deserialized once into {@link #payloadType()} before
+ * {@link #handle} is called. Handlers doing non-blocking I/O should return an
+ * incomplete stage instead of waiting, so no thread is held for them. Blocking
+ * handlers may simply do their work and return a completed stage: they run on
+ * a virtual thread.
+ *
+ * @param <P> payload type
+ */
+public interface TaskHandler<P> {
+
+    /**
+     * The taskType this handler executes (matches JobEntity.taskType)
+     */
+    String taskType();
+
+    /**
+     * Type the JSON payload is bound to
+     */
+    Class<P> payloadType();
+
+    /**
+     * Execute the job. Completing exceptionally counts as a failed attempt.
+     * Long-running handlers should stop early once {@link JobContext#isCancelled()}.
+     */
+    CompletionStage<Void> handle(P payload, JobContext context);
+
+    /**
+     * Max execution time of one attempt before it is recorded as TIMEOUT
+     */
+    default Duration timeout() {
+        return Duration.ofMinutes(5);
+    }
+}
@@ -0,0 +1,112 @@
+package com.sde.chronoqueue.handlers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.sde.chronoqueue.services.JobExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * All TaskHandler beans keyed by taskType, resolved once at startup.
+ * Each entry keeps a payload reader bound to the handler's payload type,
+ * so a job's payload is parsed exactly once, straight into that type.
+ * Handlers are invoked on a virtual thread of their own, so a blocking handler
+ * is timed out and cancelled just like an async one.
+ */
+@Component
+public class TaskHandlerRegistry {
+
+    private record RegisteredHandler(TaskHandler<Object> handler, ObjectReader payloadReader, Duration timeout) {}
+
+    private final Map<String, RegisteredHandler> handlers = new HashMap<>();
+    private final Executor executor;
+
+    @SuppressWarnings("unchecked")
+    public TaskHandlerRegistry(List<TaskHandler<?>> taskHandlers, ObjectMapper objectMapper, JobExecutor jobExecutor) {
+        this.executor = jobExecutor.asyncExecutor();
+        for (TaskHandler<?> handler : taskHandlers) {
+            RegisteredHandler registered = new RegisteredHandler(
+                    (TaskHandler<Object>) handler,
+                    objectMapper.readerFor(handler.payloadType()),
+                    handler.timeout()
+            );
+            if (handlers.putIfAbsent(handler.taskType(), registered) != null) {
+                throw new IllegalStateException("Duplicate TaskHandler for taskType '" + handler.taskType() + "'");
+            }
+        }
+        System.out.println("🧩 Registered task handlers: " + handlers.keySet());
+    }
+
+    public boolean supports(String taskType) {
+        return handlers.containsKey(taskType);
+    }
+
+    /**
+     * Run one attempt. The returned future fails with a TimeoutException once the
+     * handler's timeout passes, and with a CancellationException if the context is cancelled;
+     * either way a handler still blocked in handle() is interrupted.
+     * {@link JobContext#handlerReturned()} completes once handle() has returned.
+     */
+    public CompletableFuture<Void> execute(JobContext context, String payloadJson) {
+        RegisteredHandler registered = handlers.get(context.getTaskType());
+        if (registered == null) {
+            context.markReturned();
+            return CompletableFuture.failedFuture(new UnknownTaskTypeException(context.getTaskType()));
+        }
+
+        // Our own future, so timeouts never complete the handler's stage; the caller
+        // gets it back right away even if handle() blocks
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        try {
+            Object payload = registered.payloadReader().readValue(payloadJson);
+            executor.execute(() -> invoke(registered.handler(), payload, context, result));
+        } catch (Exception e) {
+            context.markReturned();
+            return CompletableFuture.failedFuture(e);
+        }
+
+        context.onCancel(() -> result.completeExceptionally(
+                new CancellationException("Job " + context.getJobId() + " was cancelled")));
+        return result.orTimeout(registered.timeout().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private static void invoke(TaskHandler<Object> handler, Object payload, JobContext context,
+                               CompletableFuture<Void> result) {
+        Thread thread = Thread.currentThread();
+        result.whenComplete((ignored, error) -> {
+            boolean abandoned = error instanceof TimeoutException || error instanceof CancellationException;
+            if (abandoned && !context.hasReturned() && Thread.currentThread() != thread) {
+                thread.interrupt();
+            }
+        });
+
+        try {
+            CompletionStage<Void> stage = handler.handle(payload, context);
+            if (stage == null) {
+                throw new IllegalStateException("Handler for taskType '" + context.getTaskType() +
+                        "' returned null instead of a CompletionStage");
+            }
+            stage.whenComplete((value, error) -> {
+                if (error == null) {
+                    result.complete(null);
+                } else {
+                    result.completeExceptionally(error);
+                }
+            });
+        } catch (Exception e) {
+            result.completeExceptionally(e);
+        } finally {
+            context.markReturned();
+        }
+    }
+}
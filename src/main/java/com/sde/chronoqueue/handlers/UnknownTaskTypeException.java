@@ -0,0 +1,12 @@
+package com.sde.chronoqueue.handlers;
+
+/**
+ * No TaskHandler is registered for a job's taskType. Retrying can't help, so the job goes DEAD
+ * on its first attempt.
+ */
+public class UnknownTaskTypeException extends IllegalStateException {
+
+    public UnknownTaskTypeException(String taskType) {
+        super("No handler registered for taskType '" + taskType + "'");
+    }
+}
@@ -0,0 +1,206 @@
+package com.sde.chronoqueue.metrics;
+
+import com.sde.chronoqueue.enums.AttemptOutcome;
+import com.sde.chronoqueue.enums.QueueType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer meters for the job lifecycle, exposed on /actuator/prometheus.
+ * Every meter is created up front (per QueueType) or once per taskType and cached, so recording
+ * on the hot path is a map lookup plus an increment: no tag building or string concatenation.
+ */
+@Component
+public class ChronoQueueMetrics {
+
+    // Caps tag cardinality if producers send arbitrary taskTypes
+    private static final int MAX_TASK_TYPES_PER_QUEUE = 100;
+    private static final String OTHER_TASK_TYPE = "other";
+
+    private final MeterRegistry registry;
+
+    private final Timer createSingle;
+    private final Timer createBatch;
+    private final Timer sweepDuration;
+    private final DistributionSummary sweepJobs;
+    private final Counter reaped;
+    private final Counter archived;
+    private final Counter recurringFired;
+    private final Counter attemptsDropped;
+    private final Counter duplicatesFromCache;
+    private final Counter duplicatesFromDatabase;
+
+    private final Map<QueueType, Counter> created = new EnumMap<>(QueueType.class);
+    private final Map<QueueType, Counter> claimed = new EnumMap<>(QueueType.class);
+    private final Map<QueueType, Counter> claimConflicts = new EnumMap<>(QueueType.class);
+    private final Map<QueueType, Counter> deferred = new EnumMap<>(QueueType.class);
+    private final Map<QueueType, Timer> scheduleLag = new EnumMap<>(QueueType.class);
+    private final Map<QueueType, Map<String, TaskMeters>> taskMeters = new EnumMap<>(QueueType.class);
+
+    public ChronoQueueMetrics(MeterRegistry registry) {
+        this.registry = registry;
+
+        createSingle = createTimer("single");
+        createBatch = createTimer("batch");
+        sweepDuration = Timer.builder("chronoqueue.scheduler.sweep")
+                .description("Duration of one scheduler sweep over due, unqueued jobs")
+                .publishPercentileHistogram()
+                .register(registry);
+        sweepJobs = DistributionSummary.builder("chronoqueue.scheduler.sweep.jobs")
+                .description("Jobs pushed to Redis per scheduler sweep")
+                .register(registry);
+        attemptsDropped = Counter.builder("chronoqueue.attempts.dropped")
+                .description("Attempt history records lost because the write-behind buffer was full or a write failed")
+                .register(registry);
+        duplicatesFromCache = duplicateCounter("cache");
+        duplicatesFromDatabase = duplicateCounter("database");
+        archived = Counter.builder("chronoqueue.archiver.archived")
+                .description("Finished jobs moved from jobs to jobs_archive")
+                .register(registry);
+        recurringFired = Counter.builder("chronoqueue.recurring.fired")
+                .description("Jobs created from recurring definitions, one per fire time")
+                .register(registry);
+        reaped = Counter.builder("chronoqueue.reaper.recovered")
+                .description("Jobs whose lease expired and were handed back to PENDING")
+                .register(registry);
+
+        for (QueueType queue : QueueType.values()) {
+            String tag = queue.name();
+            created.put(queue, Counter.builder("chronoqueue.jobs.submitted")
+                    .tag("queue", tag).register(registry));
+            claimed.put(queue, Counter.builder("chronoqueue.claims")
+                    .description("Claim attempts by result; conflicts were taken by another worker first")
+                    .tag("queue", tag).tag("result", "claimed").register(registry));
+            claimConflicts.put(queue, Counter.builder("chronoqueue.claims")
+                    .description("Claim attempts by result; conflicts were taken by another worker first")
+                    .tag("queue", tag).tag("result", "conflict").register(registry));
+            deferred.put(queue, Counter.builder("chronoqueue.ratelimit.deferred")
+                    .description("Delivered jobs sent back to the delayed queue unclaimed because their taskType was over its rate limit")
+                    .tag("queue", tag).register(registry));
+            scheduleLag.put(queue, Timer.builder("chronoqueue.schedule.lag")
+                    .description("Time between a job's scheduledAt and the start of its attempt")
+                    .tag("queue", tag)
+                    .publishPercentileHistogram()
+                    .register(registry));
+            taskMeters.put(queue, new ConcurrentHashMap<>());
+        }
+    }
+
+    private Timer createTimer(String mode) {
+        return Timer.builder("chronoqueue.jobs.create")
+                .description("Latency of job creation requests")
+                .tag("mode", mode)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private Counter duplicateCounter(String source) {
+        return Counter.builder("chronoqueue.jobs.duplicates")
+                .description("Single creates answered with an existing job, by where the idempotency key was found")
+                .tag("source", source)
+                .register(registry);
+    }
+
+    public void recordCreate(boolean batch, long nanos) {
+        (batch ? createBatch : createSingle).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void created(QueueType queue) {
+        created.get(queue).increment();
+    }
+
+    public void duplicate(boolean fromCache) {
+        (fromCache ? duplicatesFromCache : duplicatesFromDatabase).increment();
+    }
+
+    public void recordSweep(long nanos, int queued) {
+        sweepDuration.record(nanos, TimeUnit.NANOSECONDS);
+        sweepJobs.record(queued);
+    }
+
+    public void claimed(QueueType queue, int count) {
+        if (count > 0) claimed.get(queue).increment(count);
+    }
+
+    public void claimConflicts(QueueType queue, int count) {
+        if (count > 0) claimConflicts.get(queue).increment(count);
+    }
+
+    public void deferred(QueueType queue, int count) {
+        if (count > 0) deferred.get(queue).increment(count);
+    }
+
+    public void recordScheduleLag(QueueType queue, long lagMillis) {
+        scheduleLag.get(queue).record(Math.max(0, lagMillis), TimeUnit.MILLISECONDS);
+    }
+
+    public void recordExecution(QueueType queue, String taskType, AttemptOutcome outcome, long nanos) {
+        task(queue, taskType).execution.get(outcome).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void retried(QueueType queue, String taskType) {
+        task(queue, taskType).retries.increment();
+    }
+
+    public void dead(QueueType queue, String taskType) {
+        task(queue, taskType).dead.increment();
+    }
+
+    public void reaped(int count) {
+        if (count > 0) reaped.increment(count);
+    }
+
+    public void attemptsDropped(int count) {
+        if (count > 0) attemptsDropped.increment(count);
+    }
+
+    public void archived(int count) {
+        if (count > 0) archived.increment(count);
+    }
+
+    public void recurringFired(int count) {
+        if (count > 0) recurringFired.increment(count);
+    }
+
+    private TaskMeters task(QueueType queue, String taskType) {
+        Map<String, TaskMeters> byTask = taskMeters.get(queue);
+        TaskMeters meters = byTask.get(taskType);
+        if (meters != null) return meters;
+
+        String key = byTask.size() < MAX_TASK_TYPES_PER_QUEUE ? taskType : OTHER_TASK_TYPE;
+        return byTask.computeIfAbsent(key, t -> new TaskMeters(queue, t));
+    }
+
+    /**
+     * Meters for one (queue, taskType) pair
+     */
+    private final class TaskMeters {
+        final Map<AttemptOutcome, Timer> execution = new EnumMap<>(AttemptOutcome.class);
+        final Counter retries;
+        final Counter dead;
+
+        TaskMeters(QueueType queue, String taskType) {
+            for (AttemptOutcome outcome : AttemptOutcome.values()) {
+                execution.put(outcome, Timer.builder("chronoqueue.job.execution")
+                        .description("Handler execution time per attempt")
+                        .tag("queue", queue.name())
+                        .tag("task", taskType)
+                        .tag("outcome", outcome.name())
+                        .publishPercentileHistogram()
+                        .register(registry));
+            }
+            retries = Counter.builder("chronoqueue.job.retries")
+                    .tag("queue", queue.name()).tag("task", taskType).register(registry);
+            dead = Counter.builder("chronoqueue.job.dead")
+                    .tag("queue", queue.name()).tag("task", taskType).register(registry);
+        }
+    }
+}
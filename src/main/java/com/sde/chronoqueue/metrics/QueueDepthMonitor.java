@@ -0,0 +1,82 @@
+package com.sde.chronoqueue.metrics;
+
+import com.sde.chronoqueue.enums.QueueType;
+import com.sde.chronoqueue.queue.ReadyQueue;
+import com.sde.chronoqueue.repositories.JobJdbcRepository;
+import com.sde.chronoqueue.services.DelayedQueueService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Queue depth gauges. Values are refreshed on a timer and cached, so a metrics scrape
+ * never waits on Redis or Postgres. The backlog is a count over the jobs table, so it is
+ * refreshed far less often than the Redis depths.
+ */
+@Component
+public class QueueDepthMonitor {
+
+    private final ReadyQueue readyQueue;
+    private final DelayedQueueService delayedQueue;
+    private final JobJdbcRepository jobJdbcRepo;
+
+    private final Map<QueueType, AtomicLong> ready = new EnumMap<>(QueueType.class);
+    private final Map<QueueType, AtomicLong> delayed = new EnumMap<>(QueueType.class);
+    private final Map<QueueType, AtomicLong> backlog = new EnumMap<>(QueueType.class);
+
+    public QueueDepthMonitor(ReadyQueue readyQueue, DelayedQueueService delayedQueue,
+                             JobJdbcRepository jobJdbcRepo, MeterRegistry registry) {
+        this.readyQueue = readyQueue;
+        this.delayedQueue = delayedQueue;
+        this.jobJdbcRepo = jobJdbcRepo;
+
+        for (QueueType queue : QueueType.values()) {
+            ready.put(queue, gauge(registry, "chronoqueue.queue.ready",
+                    "Job IDs waiting in the Redis ready queue", queue));
+            delayed.put(queue, gauge(registry, "chronoqueue.queue.delayed",
+                    "Job IDs waiting in the Redis delayed ZSET", queue));
+            backlog.put(queue, gauge(registry, "chronoqueue.queue.backlog",
+                    "Due PENDING jobs that have not reached Redis yet", queue));
+        }
+    }
+
+    private static AtomicLong gauge(MeterRegistry registry, String name, String description, QueueType queue) {
+        AtomicLong value = new AtomicLong();
+        Gauge.builder(name, value, AtomicLong::get)
+                .description(description)
+                .tag("queue", queue.name())
+                .register(registry);
+        return value;
+    }
+
+    @Scheduled(fixedDelayString = "${chronoqueue.metrics.depth-refresh-interval-ms:5000}")
+    public void refresh() {
+        try {
+            for (QueueType queue : QueueType.values()) {
+                ready.get(queue).set(readyQueue.depth(queue));
+                delayed.get(queue).set(delayedQueue.size(queue));
+            }
+        } catch (DataAccessException redisError) {
+            // Keep the last values; Redis errors are reported by the services that use it
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${chronoqueue.metrics.backlog-refresh-interval-ms:30000}")
+    public void refreshBacklog() {
+        try {
+            Map<QueueType, Long> due = jobJdbcRepo.countDueUnqueued(Instant.now());
+            for (QueueType queue : QueueType.values()) {
+                backlog.get(queue).set(due.getOrDefault(queue, 0L));
+            }
+        } catch (DataAccessException dbError) {
+            // Keep the last values; database errors are reported by the services that use it
+        }
+    }
+}
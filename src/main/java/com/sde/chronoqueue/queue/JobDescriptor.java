@@ -0,0 +1,38 @@
+package com.sde.chronoqueue.queue;
+
+import com.sde.chronoqueue.entities.JobEntity;
+import com.sde.chronoqueue.enums.QueueType;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Immutable snapshot of a claimed job: everything a worker needs to run it and record the outcome,
+ * without holding on to a JPA entity.
+ */
+public record JobDescriptor(
+        UUID id,
+        QueueType queueType,
+        String taskType,
+        String payload,
+        Instant scheduledAt,
+        int priority,
+        int attempts,
+        int maxAttempts,
+        String retryBackoff
+) {
+
+    public static JobDescriptor from(JobEntity job) {
+        return new JobDescriptor(
+                job.getId(),
+                job.getQueueType(),
+                job.getTaskType(),
+                job.getPayload(),
+                job.getScheduledAt(),
+                job.getPriority(),
+                job.getAttempts(),
+                job.getMaxAttempts(),
+                job.getRetryBackoff()
+        );
+    }
+}
@@ -0,0 +1,9 @@
+package com.sde.chronoqueue.queue;
+
+import com.sde.chronoqueue.enums.QueueType;
+
+/**
+ * Published when jobs of a queue have just been promoted to its ready queue,
+ * so local workers can fetch them right away instead of on their next poll
+ */
+public record JobsDueEvent(QueueType queueType) {}
@@ -0,0 +1,106 @@
+package com.sde.chronoqueue.queue;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded, thread-safe buffer of claimed jobs for one queue, ordered by due time, then priority.
+ * The bound is a capacity signal: fetchers ask {@link #remainingCapacity()} before claiming more.
+ * The head is always the job that should run next, so a job due later never holds back one due now.
+ * Duplicate IDs are rejected through a concurrent set instead of a lock.
+ */
+public class LocalJobBuffer {
+
+    private static final Comparator<JobDescriptor> ORDER = Comparator
+            .comparing(JobDescriptor::scheduledAt)
+            .thenComparing(JobDescriptor::priority, Comparator.reverseOrder())
+            .thenComparing(JobDescriptor::id);
+
+    private final int capacity;
+    private final PriorityBlockingQueue<JobDescriptor> jobs;
+    private final Set<UUID> ids = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger size = new AtomicInteger();
+
+    public LocalJobBuffer(int capacity) {
+        this.capacity = capacity;
+        this.jobs = new PriorityBlockingQueue<>(Math.max(1, Math.min(capacity, 1024)), ORDER);
+    }
+
+    /**
+     * Add a claimed job. Claimed jobs are never turned away; callers keep the buffer bounded by
+     * fetching no more than {@link #remainingCapacity()}.
+     *
+     * @return false if the job is already buffered
+     */
+    public boolean add(JobDescriptor job) {
+        if (!ids.add(job.id())) return false;
+        size.incrementAndGet();
+        jobs.offer(job);
+        return true;
+    }
+
+    /**
+     * Take the head if it is due at {@code now}, otherwise null
+     */
+    public JobDescriptor pollDue(Instant now) {
+        JobDescriptor head = jobs.peek();
+        if (head == null || head.scheduledAt().isAfter(now)) return null;
+
+        JobDescriptor taken = jobs.poll();
+        if (taken == null) return null;
+        if (taken.scheduledAt().isAfter(now)) {
+            // Head changed under us (a removal raced the peek); keep it for later
+            jobs.offer(taken);
+            return null;
+        }
+        release(taken.id());
+        return taken;
+    }
+
+    /**
+     * @return the removed job, or null if it was not buffered
+     */
+    public JobDescriptor remove(UUID jobId) {
+        if (!ids.contains(jobId)) return null;
+        for (JobDescriptor job : jobs) {
+            if (job.id().equals(jobId) && jobs.remove(job)) {
+                release(jobId);
+                return job;
+            }
+        }
+        return null;
+    }
+
+    public boolean contains(UUID jobId) {
+        return ids.contains(jobId);
+    }
+
+    /**
+     * When the earliest buffered job becomes due, or null if empty
+     */
+    public Instant nextDueAt() {
+        JobDescriptor head = jobs.peek();
+        return head == null ? null : head.scheduledAt();
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Capacity signal for fetchers: how many more jobs fit
+     */
+    public int remainingCapacity() {
+        return Math.max(0, capacity - size.get());
+    }
+
+    private void release(UUID jobId) {
+        ids.remove(jobId);
+        size.decrementAndGet();
+    }
+}
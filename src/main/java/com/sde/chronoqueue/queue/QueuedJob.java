@@ -0,0 +1,12 @@
+package com.sde.chronoqueue.queue;
+
+import java.util.UUID;
+
+/**
+ * A job ID handed out by a ready queue.
+ * The receipt identifies the delivery for acknowledgement (null when the backend has no acks).
+ */
+public record QueuedJob(
+        UUID jobId,
+        String receipt
+) {}
@@ -0,0 +1,52 @@
+package com.sde.chronoqueue.queue;
+
+import com.sde.chronoqueue.enums.QueueType;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Redis structure holding IDs of jobs that are due and waiting for a worker.
+ * Selected with {@code chronoqueue.queue.backend} ({@code list} or {@code stream}).
+ */
+public interface ReadyQueue {
+
+    /**
+     * Push job IDs, grouped by queue, in a single round trip
+     */
+    void push(Map<QueueType, List<String>> jobIds);
+
+    /**
+     * Atomically move due members of a delayed ZSET into this queue
+     *
+     * @return number of job IDs moved
+     */
+    long promote(QueueType queue, String delayedKey, long maxScore, int limit);
+
+    /**
+     * Take up to {@code max} job IDs. Backends that support it wait up to {@code block} for work.
+     */
+    List<QueuedJob> poll(QueueType queue, int max, Duration block);
+
+    /**
+     * Take over deliveries that another worker received but never acknowledged
+     */
+    List<QueuedJob> reclaim(QueueType queue, int max);
+
+    /**
+     * Confirm deliveries are finished with (job claimed here or elsewhere, or deferred)
+     */
+    void ack(QueueType queue, Collection<String> receipts);
+
+    /**
+     * Job IDs currently held for this queue (waiting or delivered but not yet acknowledged)
+     */
+    long depth(QueueType queue);
+
+    /**
+     * True when {@link #poll} blocks, so workers should read in a loop instead of on a timer
+     */
+    boolean isBlocking();
+}
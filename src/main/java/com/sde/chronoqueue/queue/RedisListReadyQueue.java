@@ -0,0 +1,91 @@
+package com.sde.chronoqueue.queue;
+
+import com.sde.chronoqueue.enums.QueueType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Ready queue on plain Redis lists (LPUSH / RPOP). A popped ID is gone from Redis,
+ * so a worker crash between pop and claim is covered by the Postgres side
+ * (startup recovery and the lease reaper).
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "chronoqueue.queue.backend", havingValue = "list", matchIfMissing = true)
+public class RedisListReadyQueue implements ReadyQueue {
+
+    private static final RedisScript<Long> PROMOTE_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/promote-due-jobs.lua"), Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+
+    private String queueKey(String queueType) {
+        return "chrono:queue:" + queueType.toLowerCase() + ":ready";
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void push(Map<QueueType, List<String>> jobIds) {
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                jobIds.forEach((queue, ids) -> ops.opsForList().leftPushAll(queueKey(queue.name()), ids));
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public long promote(QueueType queue, String delayedKey, long maxScore, int limit) {
+        Long moved = redisTemplate.execute(PROMOTE_SCRIPT, List.of(delayedKey, queueKey(queue.name())),
+                String.valueOf(maxScore), String.valueOf(limit));
+        return moved == null ? 0 : moved;
+    }
+
+    @Override
+    public List<QueuedJob> poll(QueueType queue, int max, Duration block) {
+        List<String> jobIds = redisTemplate.opsForList().rightPop(queueKey(queue.name()), max);
+        if (jobIds == null || jobIds.isEmpty()) return List.of();
+
+        List<QueuedJob> jobs = new ArrayList<>(jobIds.size());
+        for (String jobId : jobIds) {
+            try {
+                jobs.add(new QueuedJob(UUID.fromString(jobId), null));
+            } catch (IllegalArgumentException e) {
+                System.err.println("⚠️ Invalid job ID from Redis: " + jobId);
+            }
+        }
+        return jobs;
+    }
+
+    @Override
+    public List<QueuedJob> reclaim(QueueType queue, int max) {
+        return List.of(); // nothing is held between pop and claim
+    }
+
+    @Override
+    public void ack(QueueType queue, Collection<String> receipts) {
+        // LPUSH / RPOP has no delivery tracking
+    }
+
+    @Override
+    public long depth(QueueType queue) {
+        Long size = redisTemplate.opsForList().size(queueKey(queue.name()));
+        return size == null ? 0 : size;
+    }
+
+    @Override
+    public boolean isBlocking() {
+        return false;
+    }
+}
@@ -0,0 +1,261 @@
+package com.sde.chronoqueue.queue;
+
+import com.sde.chronoqueue.config.ChronoQueueProperties;
+import com.sde.chronoqueue.config.NodeIdentity;
+import com.sde.chronoqueue.enums.QueueType;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.StreamInfo.XInfoConsumer;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Predicate;
+
+/**
+ * Ready queue on Redis Streams with one consumer group shared by all workers.
+ * A delivered entry stays in the group's pending list until it is acknowledged,
+ * so an ID is never lost between XREADGROUP and the Postgres claim: entries
+ * left behind by a dead consumer are taken over with XAUTOCLAIM. Workers acknowledge
+ * right after the claim, so a long-running job is never reclaimed by another node.
+ * Acks are buffered and flushed as one XACK + XDEL per queue.
+ * Every process reads as its own consumer (the node ID); consumers of nodes that are gone
+ * are removed once nothing is pending for them.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "chronoqueue.queue.backend", havingValue = "stream")
+public class RedisStreamReadyQueue implements ReadyQueue {
+
+    private static final RedisScript<Long> PROMOTE_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/promote-due-jobs-to-stream.lua"), Long.class);
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> RECLAIM_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/reclaim-stream-entries.lua"), List.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ChronoQueueProperties properties;
+    private final NodeIdentity node;
+
+    private final Map<QueueType, Queue<String>> pendingAcks = new EnumMap<>(QueueType.class);
+
+    private String streamKey(String queueType) {
+        return "chrono:queue:" + queueType.toLowerCase() + ":stream";
+    }
+
+    private String group() {
+        return properties.getQueue().getStream().getGroup();
+    }
+
+    @PostConstruct
+    public void createConsumerGroups() {
+        for (QueueType queue : QueueType.values()) {
+            pendingAcks.put(queue, new ConcurrentLinkedQueue<>());
+            createConsumerGroup(queue);
+        }
+    }
+
+    private void createConsumerGroup(QueueType queue) {
+        try {
+            redisTemplate.opsForStream().createGroup(streamKey(queue.name()), ReadOffset.from("0-0"), group());
+        } catch (DataAccessException e) {
+            // BUSYGROUP: another node (or an earlier run) already created it
+            if (!String.valueOf(e.getMessage()).contains("BUSYGROUP")) {
+                System.err.println("⚠️ Could not create consumer group for " + queue + ": " + e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void push(Map<QueueType, List<String>> jobIds) {
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                jobIds.forEach((queue, ids) -> {
+                    String key = streamKey(queue.name());
+                    for (String id : ids) {
+                        ops.opsForStream().add(StreamRecords.newRecord().in(key).ofMap(Map.of("job", id)));
+                    }
+                });
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public long promote(QueueType queue, String delayedKey, long maxScore, int limit) {
+        Long moved = redisTemplate.execute(PROMOTE_SCRIPT, List.of(delayedKey, streamKey(queue.name())),
+                String.valueOf(maxScore), String.valueOf(limit));
+        return moved == null ? 0 : moved;
+    }
+
+    @Override
+    public List<QueuedJob> poll(QueueType queue, int max, Duration block) {
+        StreamReadOptions options = StreamReadOptions.empty().count(max);
+        if (block != null && !block.isZero()) {
+            options = options.block(block); // BLOCK 0 would wait forever
+        }
+
+        List<MapRecord<String, Object, Object>> records;
+        try {
+            records = redisTemplate.opsForStream().read(
+                    Consumer.from(group(), node.getId()),
+                    options,
+                    StreamOffset.create(streamKey(queue.name()), ReadOffset.lastConsumed())
+            );
+        } catch (DataAccessException e) {
+            if (String.valueOf(e.getMessage()).contains("NOGROUP")) {
+                createConsumerGroup(queue); // stream or group was deleted (e.g. FLUSHALL)
+                return List.of();
+            }
+            throw e;
+        }
+        if (records == null || records.isEmpty()) return List.of();
+
+        List<QueuedJob> jobs = new ArrayList<>(records.size());
+        for (MapRecord<String, Object, Object> record : records) {
+            String entryId = record.getId().getValue();
+            Object jobId = record.getValue().get("job");
+            try {
+                jobs.add(new QueuedJob(UUID.fromString(String.valueOf(jobId)), entryId));
+            } catch (IllegalArgumentException e) {
+                System.err.println("⚠️ Invalid job ID from Redis: " + jobId);
+                ack(queue, List.of(entryId));
+            }
+        }
+        return jobs;
+    }
+
+    @Override
+    public List<QueuedJob> reclaim(QueueType queue, int max) {
+        long minIdleMs = properties.getQueue().getStream().getReclaimIdleMs();
+        List<?> flat = redisTemplate.execute(RECLAIM_SCRIPT, List.of(streamKey(queue.name())),
+                group(), node.getId(), String.valueOf(minIdleMs), String.valueOf(max));
+        if (flat == null || flat.isEmpty()) return List.of();
+
+        List<QueuedJob> jobs = new ArrayList<>(flat.size() / 2);
+        for (int i = 0; i + 1 < flat.size(); i += 2) {
+            String entryId = String.valueOf(flat.get(i));
+            String jobId = String.valueOf(flat.get(i + 1));
+            try {
+                jobs.add(new QueuedJob(UUID.fromString(jobId), entryId));
+            } catch (IllegalArgumentException e) {
+                ack(queue, List.of(entryId));
+            }
+        }
+        if (!jobs.isEmpty()) {
+            System.out.println("♻️ Reclaimed " + jobs.size() + " unacknowledged " + queue + " deliveries");
+        }
+        return jobs;
+    }
+
+    @Override
+    public void ack(QueueType queue, Collection<String> receipts) {
+        pendingAcks.get(queue).addAll(receipts);
+    }
+
+    /**
+     * Flush buffered acks: one XACK and one XDEL per queue, in a single pipeline
+     */
+    @Scheduled(fixedDelayString = "${chronoqueue.queue.stream.ack-flush-interval-ms:200}")
+    @SuppressWarnings("unchecked")
+    public void flushAcks() {
+        Map<QueueType, String[]> batch = new EnumMap<>(QueueType.class);
+        pendingAcks.forEach((queue, acks) -> {
+            List<String> drained = new ArrayList<>();
+            String receipt;
+            while ((receipt = acks.poll()) != null) {
+                drained.add(receipt);
+            }
+            if (!drained.isEmpty()) {
+                batch.put(queue, drained.toArray(String[]::new));
+            }
+        });
+        if (batch.isEmpty()) return;
+
+        try {
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                    batch.forEach((queue, receipts) -> {
+                        String key = streamKey(queue.name());
+                        ops.opsForStream().acknowledge(key, group(), receipts);
+                        ops.opsForStream().delete(key, receipts);
+                    });
+                    return null;
+                }
+            });
+        } catch (DataAccessException e) {
+            // Entries stay pending; whoever reclaims them finds the job already handled
+            System.err.println("⚠️ Could not acknowledge stream entries: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Remove other nodes' consumers that have been idle for the reclaim window with nothing pending.
+     * A live node that merely had nothing to read loses nothing: its next delivery re-creates it.
+     * A consumer with pending entries stays until reclaim has taken them over.
+     */
+    @Scheduled(fixedDelayString = "${chronoqueue.queue.stream.reclaim-idle-ms:60000}")
+    public void removeIdleConsumers() {
+        long minIdleMs = properties.getQueue().getStream().getReclaimIdleMs();
+        removeConsumers(consumer -> !consumer.consumerName().equals(node.getId())
+                && consumer.idleTimeMs() >= minIdleMs);
+    }
+
+    /**
+     * On shutdown, flush our acks and leave the group if nothing is pending for us
+     */
+    @PreDestroy
+    public void leaveGroup() {
+        flushAcks();
+        removeConsumers(consumer -> consumer.consumerName().equals(node.getId()));
+    }
+
+    private void removeConsumers(Predicate<XInfoConsumer> candidate) {
+        for (QueueType queue : QueueType.values()) {
+            String key = streamKey(queue.name());
+            try {
+                for (XInfoConsumer consumer : redisTemplate.opsForStream().consumers(key, group())) {
+                    if (consumer.pendingCount() == 0 && candidate.test(consumer)) {
+                        redisTemplate.opsForStream().deleteConsumer(key, Consumer.from(group(), consumer.consumerName()));
+                    }
+                }
+            } catch (DataAccessException e) {
+                // No stream or group yet, or Redis is unavailable: the next run cleans up
+            }
+        }
+    }
+
+    @Override
+    public long depth(QueueType queue) {
+        // Acknowledged entries are deleted, so the stream length is waiting + in-flight
+        Long size = redisTemplate.opsForStream().size(streamKey(queue.name()));
+        return size == null ? 0 : size;
+    }
+
+    @Override
+    public boolean isBlocking() {
+        return true;
+    }
+}
@@ -0,0 +1,124 @@
+package com.sde.chronoqueue.recurring;
+
+import com.sde.chronoqueue.enums.MisfirePolicy;
+import org.springframework.scheduling.support.CronExpression;
+
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * When a recurring job fires: a cron expression evaluated in a timezone, or a fixed interval.
+ * Cron takes the usual five fields, Spring's six (leading seconds) or macros like @daily.
+ * Fire times are computed one step at a time from the last one; nothing is precomputed per definition.
+ */
+public final class RecurrenceSchedule {
+
+    private final CronExpression cron;
+    private final ZoneId zone;
+    private final long intervalMs;
+
+    /**
+     * One job to create: fireTime identifies the occurrence, runAt is when the job is scheduled
+     */
+    public record Fire(Instant fireTime, Instant runAt) {}
+
+    /**
+     * Jobs to create now and the first fire time not yet covered (null if the cron never fires again)
+     */
+    public record Fires(List<Fire> fires, Instant next) {}
+
+    private RecurrenceSchedule(CronExpression cron, ZoneId zone, long intervalMs) {
+        this.cron = cron;
+        this.zone = zone;
+        this.intervalMs = intervalMs;
+    }
+
+    /**
+     * Exactly one of cron and intervalSeconds must be given; timezone defaults to UTC
+     */
+    public static RecurrenceSchedule of(String cron, Long intervalSeconds, String timezone) {
+        if ((cron == null || cron.isBlank()) == (intervalSeconds == null)) {
+            throw new IllegalArgumentException("exactly one of cron and intervalSeconds is required");
+        }
+
+        ZoneId zone;
+        try {
+            zone = timezone == null || timezone.isBlank() ? ZoneId.of("UTC") : ZoneId.of(timezone.trim());
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("unknown timezone " + timezone);
+        }
+
+        if (intervalSeconds != null) {
+            if (intervalSeconds < 1) throw new IllegalArgumentException("intervalSeconds must be at least 1");
+            return new RecurrenceSchedule(null, zone, intervalSeconds * 1000);
+        }
+
+        String expression = cron.trim();
+        if (expression.split("\\s+").length == 5) {
+            expression = "0 " + expression;
+        }
+        try {
+            return new RecurrenceSchedule(CronExpression.parse(expression), zone, 0);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("invalid cron " + cron + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * First fire time at or after {@code from}; intervals start exactly at {@code from}
+     */
+    public Instant first(Instant from) {
+        return cron == null ? from : firstAtOrAfter(null, from);
+    }
+
+    /**
+     * Fire time following {@code fireTime}, or null if there is none
+     */
+    public Instant next(Instant fireTime) {
+        if (cron == null) return fireTime.plusMillis(intervalMs);
+        ZonedDateTime next = cron.next(fireTime.atZone(zone));
+        return next == null ? null : next.toInstant();
+    }
+
+    /**
+     * First fire time at or after {@code cutoff} in the series that contains {@code fireTime}.
+     * Intervals jump there arithmetically, so a long outage costs no iteration.
+     */
+    private Instant firstAtOrAfter(Instant fireTime, Instant cutoff) {
+        if (fireTime != null && !fireTime.isBefore(cutoff)) return fireTime;
+        if (cron == null) {
+            long behind = cutoff.toEpochMilli() - fireTime.toEpochMilli();
+            return fireTime.plusMillis(Math.ceilDiv(behind, intervalMs) * intervalMs);
+        }
+        return next(cutoff.minusNanos(1));
+    }
+
+    /**
+     * Every fire from {@code nextFireAt} up to {@code until}, at most maxFires of them.
+     * Fire times older than {@code now - misfireThreshold} were missed (the cluster was down or
+     * behind) and are handled by the misfire policy; the others are created ahead of time.
+     */
+    public Fires fires(Instant nextFireAt, Instant now, Instant until, MisfirePolicy policy,
+                       Duration misfireThreshold, int maxFires) {
+        List<Fire> fires = new ArrayList<>();
+        Instant fire = nextFireAt;
+        Instant cutoff = now.minus(misfireThreshold);
+
+        if (fire != null && fire.isBefore(cutoff) && policy != MisfirePolicy.FIRE_ALL) {
+            if (policy == MisfirePolicy.FIRE_ONCE) {
+                fires.add(new Fire(fire, now));
+            }
+            fire = firstAtOrAfter(fire, cutoff);
+        }
+        while (fire != null && !fire.isAfter(until) && fires.size() < maxFires) {
+            fires.add(new Fire(fire, fire));
+            fire = next(fire);
+        }
+        return new Fires(fires, fire);
+    }
+}
@@ -0,0 +1,126 @@
+package com.sde.chronoqueue.repositories;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * jobs_archive: finished jobs, range-partitioned by month of created_at (see schema.sql)
+ */
+@Repository
+@RequiredArgsConstructor
+public class JobArchiveRepository {
+
+    private static final String PARTITION_PREFIX = "jobs_archive_";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private static final String COLUMNS = """
+            id, queue_type, task_type, payload, metadata, scheduled_at, created_at, updated_at, state,
+            priority, attempts, max_attempts, idempotency_key, retry_backoff, last_error, last_error_payload,
+            workflow_id""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * created_at of the oldest job the archiver would move, or null when there is none
+     */
+    public Instant findOldestArchivableCreatedAt(Instant finishedBefore) {
+        Timestamp oldest = jdbcTemplate.queryForObject("""
+                SELECT min(created_at) FROM jobs
+                WHERE state IN ('SUCCEEDED', 'DEAD') AND updated_at < ?
+                """, Timestamp.class, utc(finishedBefore));
+        return oldest == null ? null : oldest.toInstant();
+    }
+
+    public void createPartitionIfMissing(YearMonth month) {
+        OffsetDateTime from = month.atDay(1).atStartOfDay().atOffset(ZoneOffset.UTC);
+        OffsetDateTime to = from.plusMonths(1);
+        // DDL cannot take bind parameters; the bounds are formatted from a YearMonth, not user input
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(month) +
+                " PARTITION OF jobs_archive FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+    }
+
+    /**
+     * Months that currently have an archive partition
+     */
+    public List<YearMonth> findPartitions() {
+        List<YearMonth> months = new ArrayList<>();
+        jdbcTemplate.query("""
+                SELECT child.relname FROM pg_inherits i
+                JOIN pg_class child ON child.oid = i.inhrelid
+                JOIN pg_class parent ON parent.oid = i.inhparent
+                WHERE parent.relname = 'jobs_archive'
+                """, rs -> {
+            String name = rs.getString(1);
+            if (!name.startsWith(PARTITION_PREFIX)) return;
+            try {
+                months.add(YearMonth.parse(name.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX));
+            } catch (DateTimeParseException notOurs) {
+                // a partition someone added by hand
+            }
+        });
+        return months;
+    }
+
+    /**
+     * Drops a whole month of archived jobs without touching any rows one by one
+     */
+    public void dropPartition(YearMonth month) {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + partitionName(month));
+    }
+
+    /**
+     * Move up to {@code limit} jobs that finished before the cutoff from jobs to jobs_archive in
+     * one statement, oldest first. Their job_attempts and job_dependencies rows are deleted with them:
+     * attempt history is not archived, only the job's final state, attempts count and last error.
+     * The archive partitions for their created_at months must already exist.
+     */
+    public int archiveFinished(Instant finishedBefore, Instant now, int limit) {
+        return jdbcTemplate.update("""
+                WITH moved AS (
+                    DELETE FROM jobs
+                    WHERE id IN (
+                        SELECT id FROM jobs
+                        WHERE state IN ('SUCCEEDED', 'DEAD') AND updated_at < ?
+                        ORDER BY updated_at
+                        LIMIT ?
+                        FOR UPDATE SKIP LOCKED
+                    )
+                    RETURNING *
+                ), attempts AS (
+                    DELETE FROM job_attempts a USING moved WHERE a.job_id = moved.id
+                ), edges AS (
+                    DELETE FROM job_dependencies d USING moved
+                    WHERE d.parent_id = moved.id OR d.child_id = moved.id
+                )
+                INSERT INTO jobs_archive (%s, archived_at)
+                SELECT %s, ? FROM moved
+                """.formatted(COLUMNS, COLUMNS), utc(finishedBefore), limit, utc(now));
+    }
+
+    public <T> Optional<T> findById(UUID id, RowMapper<T> mapper) {
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM jobs_archive WHERE id = ?", mapper, id)
+                .stream().findFirst();
+    }
+
+    private static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(PARTITION_SUFFIX);
+    }
+
+    private static OffsetDateTime utc(Instant instant) {
+        return instant.atOffset(ZoneOffset.UTC);
+    }
+}
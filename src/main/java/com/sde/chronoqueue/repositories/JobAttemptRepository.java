@@ -4,8 +4,14 @@ import com.sde.chronoqueue.entities.JobAttemptEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface JobAttemptRepository extends JpaRepository<JobAttemptEntity, UUID> {
+
+    /**
+     * For API: Attempt history of one job, first attempt first
+     */
+    List<JobAttemptEntity> findByJobIdOrderByAttemptNumberAscStartedAtAsc(UUID jobId);
 }
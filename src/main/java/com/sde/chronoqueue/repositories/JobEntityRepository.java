@@ -3,9 +3,15 @@ package com.sde.chronoqueue.repositories;
 import com.sde.chronoqueue.entities.JobEntity;
 import com.sde.chronoqueue.enums.JobState;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -14,36 +20,194 @@ import java.util.UUID;
 public interface JobEntityRepository extends JpaRepository<JobEntity, UUID> {
 
     /**
-     * For scheduler: Find jobs that are due and not yet queued to Redis
+     * For scheduler: Mark a page of jobs as pushed to Redis in one UPDATE
      */
-    List<JobEntity> findByStateAndScheduledAtBeforeAndQueuedAtIsNull(
-            JobState state, Instant before
-    );
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE JobEntity j SET j.queuedAt = :queuedAt, j.updatedAt = :queuedAt
+            WHERE j.id IN :ids AND j.queuedAt IS NULL
+            """)
+    int markQueued(@Param("ids") Collection<UUID> ids, @Param("queuedAt") Instant queuedAt);
 
     /**
-     * For recovery service: Find jobs that were queued but system crashed
+     * For delayed queue: Hand jobs back to the scheduler sweep when Redis could not take them.
+     * Runs in its own transaction because it is called from after-commit callbacks.
      */
-    List<JobEntity> findByStateAndQueuedAtIsNotNull(JobState state);
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query("UPDATE JobEntity j SET j.queuedAt = NULL WHERE j.id IN :ids")
+    int markUnqueued(@Param("ids") Collection<UUID> ids);
 
     /**
-     * For lease reaper: Find jobs with expired leases
+     * For lease reaper: Hand up to {@code limit} jobs with expired leases back to PENDING in one
+     * statement. queuedAt is set because the caller re-enqueues them to Redis after commit.
      */
-    List<JobEntity> findByStateAndLeaseExpiresAtBefore(JobState state, Instant before);
+    @Query(value = """
+            WITH reaped AS (
+                UPDATE jobs j
+                SET state = 'PENDING',
+                    scheduled_at = :retryAt,
+                    owner_worker_id = NULL,
+                    lease_expires_at = NULL,
+                    queued_at = :now,
+                    updated_at = :now
+                FROM (
+                    SELECT id FROM jobs
+                    WHERE state = 'RUNNING' AND lease_expires_at < :now
+                    ORDER BY lease_expires_at ASC
+                    LIMIT :limit
+                    FOR UPDATE SKIP LOCKED
+                ) c
+                WHERE j.id = c.id
+                RETURNING j.*
+            )
+            SELECT * FROM reaped
+            """, nativeQuery = true)
+    List<JobEntity> reapExpiredLeases(@Param("now") Instant now,
+                                      @Param("retryAt") Instant retryAt,
+                                      @Param("limit") int limit);
 
     /**
-     * For worker fallback: Fetch jobs that missed Redis queuing
+     * Transaction-scoped advisory lock; false if another session holds it. Released on commit.
      */
-    List<JobEntity> findTop10ByStateAndQueuedAtIsNullAndScheduledAtBeforeOrderByPriorityDescScheduledAtAsc(
-            JobState state, Instant before
-    );
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean tryAdvisoryXactLock(@Param("key") long key);
 
     /**
-     * For heartbeat: Find all jobs owned by a specific worker
+     * For worker: Atomically claim the given jobs (IDs delivered via Redis).
+     * Only PENDING rows are claimed; rows locked by another worker are skipped
+     * instead of waited on, so two workers can never both win the same job.
      */
-    List<JobEntity> findByStateAndOwnerWorkerId(JobState state, String workerId);
+    @Transactional
+    @Query(value = """
+            WITH claimed AS (
+                UPDATE jobs j
+                SET state = 'RUNNING',
+                    owner_worker_id = :workerId,
+                    lease_expires_at = :leaseExpiresAt,
+                    updated_at = :now
+                FROM (
+                    SELECT id FROM jobs
+                    WHERE id IN (:ids) AND state = 'PENDING'
+                    FOR UPDATE SKIP LOCKED
+                ) c
+                WHERE j.id = c.id
+                RETURNING j.*
+            )
+            SELECT * FROM claimed ORDER BY priority DESC, scheduled_at ASC
+            """, nativeQuery = true)
+    List<JobEntity> claimByIds(@Param("ids") Collection<UUID> ids,
+                               @Param("workerId") String workerId,
+                               @Param("leaseExpiresAt") Instant leaseExpiresAt,
+                               @Param("now") Instant now);
+
+    /**
+     * For worker fallback: Up to {@code limit} due jobs of one queue that missed Redis queuing,
+     * in claim order. Not locked; claimByIds claims whichever are still PENDING.
+     */
+    @Query(value = """
+            SELECT id FROM jobs
+            WHERE state = 'PENDING' AND queued_at IS NULL AND scheduled_at <= :now
+              AND queue_type = :queueType
+            ORDER BY priority DESC, scheduled_at ASC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<UUID> findDueUnqueuedIds(@Param("queueType") String queueType,
+                                  @Param("now") Instant now,
+                                  @Param("limit") int limit);
+
+    /**
+     * For worker: Which of the given jobs are still in the given state
+     */
+    @Query("SELECT j.id FROM JobEntity j WHERE j.id IN :ids AND j.state = :state")
+    List<UUID> findIdsByIdInAndState(@Param("ids") Collection<UUID> ids, @Param("state") JobState state);
+
+    /**
+     * For worker: Record a successful attempt, only while this worker still owns the job.
+     * Returns the job's hasChildren flag, or nothing if the lease was lost in the meantime.
+     */
+    @Transactional
+    @Query(value = """
+            WITH done AS (
+                UPDATE jobs SET state = 'SUCCEEDED', updated_at = :now
+                WHERE id = :id AND owner_worker_id = :workerId AND state = 'RUNNING'
+                RETURNING has_children
+            )
+            SELECT has_children FROM done
+            """, nativeQuery = true)
+    List<Boolean> markSucceeded(@Param("id") UUID id, @Param("workerId") String workerId, @Param("now") Instant now);
+
+    /**
+     * For worker: Release a failed attempt back to PENDING for a retry at {@code retryAt}.
+     * queuedAt is set because the caller adds the job to the delayed queue right away.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE JobEntity j
+            SET j.state = com.sde.chronoqueue.enums.JobState.PENDING,
+                j.attempts = :attempts, j.scheduledAt = :retryAt,
+                j.lastError = :lastError, j.lastErrorPayload = :lastErrorPayload,
+                j.ownerWorkerId = NULL, j.leaseExpiresAt = NULL, j.queuedAt = :now, j.updatedAt = :now
+            WHERE j.id = :id AND j.ownerWorkerId = :workerId
+              AND j.state = com.sde.chronoqueue.enums.JobState.RUNNING
+            """)
+    int scheduleRetry(@Param("id") UUID id,
+                      @Param("workerId") String workerId,
+                      @Param("attempts") int attempts,
+                      @Param("retryAt") Instant retryAt,
+                      @Param("lastError") String lastError,
+                      @Param("lastErrorPayload") String lastErrorPayload,
+                      @Param("now") Instant now);
+
+    /**
+     * For worker: Mark a job DEAD after its last failed attempt.
+     * Returns the job's hasChildren flag, or nothing if the lease was lost in the meantime.
+     */
+    @Transactional
+    @Query(value = """
+            WITH dead AS (
+                UPDATE jobs
+                SET state = 'DEAD', attempts = :attempts,
+                    last_error = :lastError, last_error_payload = :lastErrorPayload, updated_at = :now
+                WHERE id = :id AND owner_worker_id = :workerId AND state = 'RUNNING'
+                RETURNING has_children
+            )
+            SELECT has_children FROM dead
+            """, nativeQuery = true)
+    List<Boolean> markDead(@Param("id") UUID id,
+                           @Param("workerId") String workerId,
+                           @Param("attempts") int attempts,
+                           @Param("lastError") String lastError,
+                           @Param("lastErrorPayload") String lastErrorPayload,
+                           @Param("now") Instant now);
+
+    /**
+     * For heartbeat: Extend the lease of every job this worker still owns in one UPDATE.
+     * Returns how many leases were renewed.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE JobEntity j SET j.leaseExpiresAt = :leaseExpiresAt, j.heartbeatAt = :now
+            WHERE j.ownerWorkerId = :workerId AND j.state = :state
+            """)
+    int renewLeases(@Param("workerId") String workerId,
+                    @Param("state") JobState state,
+                    @Param("leaseExpiresAt") Instant leaseExpiresAt,
+                    @Param("now") Instant now);
+
+    /**
+     * For heartbeat: Which of the given jobs this worker still owns in the given state
+     */
+    @Query("SELECT j.id FROM JobEntity j WHERE j.id IN :ids AND j.ownerWorkerId = :workerId AND j.state = :state")
+    List<UUID> findIdsOwnedBy(@Param("ids") Collection<UUID> ids,
+                              @Param("workerId") String workerId,
+                              @Param("state") JobState state);
 
     /**
      * For idempotency check
      */
     Optional<JobEntity> findByIdempotencyKey(String idempotencyKey);
-}
\ No newline at end of file
+}
@@ -0,0 +1,391 @@
+package com.sde.chronoqueue.repositories;
+
+import com.sde.chronoqueue.dtos.JobCursor;
+import com.sde.chronoqueue.dtos.JobAttemptRecord;
+import com.sde.chronoqueue.dtos.JobFilter;
+import com.sde.chronoqueue.dtos.JobRef;
+import com.sde.chronoqueue.dtos.PendingJob;
+import com.sde.chronoqueue.entities.JobEntity;
+import com.sde.chronoqueue.enums.JobState;
+import com.sde.chronoqueue.enums.QueueType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Set-based job writes that JPA cannot express efficiently.
+ * Batches rely on reWriteBatchedInserts=true in the JDBC URL, which turns a
+ * batch into multi-row INSERT statements.
+ */
+@Repository
+@RequiredArgsConstructor
+public class JobJdbcRepository {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_IGNORING_DUPLICATES = """
+            INSERT INTO jobs (id, queue_type, task_type, payload, metadata, scheduled_at, created_at, updated_at,
+                              state, priority, attempts, max_attempts, idempotency_key, queued_at,
+                              retry_backoff, last_error_payload, archived, workflow_id, remaining_parents,
+                              has_children)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (idempotency_key) DO NOTHING
+            """;
+
+    private static final String INSERT_IF_ABSENT = INSERT_IGNORING_DUPLICATES + "RETURNING id";
+
+    private static final RowMapper<JobRef> JOB_REF = (rs, rowNum) -> new JobRef(
+            rs.getObject("id", UUID.class),
+            QueueType.valueOf(rs.getString("queue_type")),
+            rs.getTimestamp("scheduled_at").toInstant(),
+            rs.getInt("priority")
+    );
+
+    private static final String INSERT_ATTEMPT = """
+            INSERT INTO job_attempts (id, job_id, attempt_number, worker_id, outcome, started_at, finished_at,
+                                      duration_ms, error, error_payload, logs, created_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?::jsonb, '[]'::jsonb, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Batch insert jobs; rows whose idempotency key already exists are skipped.
+     * Every job must already have its id assigned.
+     */
+    public void insertIgnoringDuplicates(List<JobEntity> jobs) {
+        jdbcTemplate.batchUpdate(INSERT_IGNORING_DUPLICATES, jobs, BATCH_SIZE, this::bindInsert);
+    }
+
+    /**
+     * Insert one job unless its idempotency key is taken. A concurrent insert of the same key
+     * is waited for, so a false return means the other row is committed and readable.
+     */
+    public boolean insertIfAbsent(JobEntity job) {
+        return !jdbcTemplate.query(INSERT_IF_ABSENT, ps -> bindInsert(ps, job),
+                (rs, rowNum) -> rs.getObject(1, UUID.class)).isEmpty();
+    }
+
+    /**
+     * Batch insert attempt history rows
+     */
+    public void insertAttempts(List<JobAttemptRecord> attempts) {
+        Instant now = Instant.now();
+        jdbcTemplate.batchUpdate(INSERT_ATTEMPT, attempts, BATCH_SIZE, (ps, attempt) -> {
+            ps.setObject(1, UUID.randomUUID());
+            ps.setObject(2, attempt.jobId());
+            ps.setInt(3, attempt.attemptNumber());
+            ps.setString(4, attempt.workerId());
+            ps.setString(5, attempt.outcome().name());
+            ps.setObject(6, utc(attempt.startedAt()));
+            ps.setObject(7, utc(attempt.finishedAt()));
+            ps.setLong(8, attempt.durationMs());
+            ps.setString(9, attempt.error());
+            ps.setString(10, attempt.errorPayload());
+            ps.setObject(11, utc(now));
+        });
+    }
+
+    /**
+     * Lock the given parent jobs and return the state of each one that exists. Locks are taken
+     * in id order, so concurrent creates can't deadlock, and a parent can't finish until the
+     * creating transaction commits its dependency rows.
+     */
+    public Map<UUID, JobState> lockParents(Collection<UUID> parentIds) {
+        Map<UUID, JobState> states = new HashMap<>();
+        if (parentIds.isEmpty()) return states;
+
+        Object[] ids = parentIds.toArray();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "SELECT id, state FROM jobs WHERE id = ANY (?) ORDER BY id FOR NO KEY UPDATE");
+            ps.setArray(1, con.createArrayOf("uuid", ids));
+            return ps;
+        }, rs -> {
+            states.put(rs.getObject(1, UUID.class), JobState.valueOf(rs.getString(2)));
+        });
+        return states;
+    }
+
+    /**
+     * Record the edges from each newly created child to its parents in one batch, then flag
+     * those parents as having children. Parents must already be locked by lockParents.
+     */
+    public void insertDependencies(Map<UUID, List<UUID>> parentsByChild) {
+        List<UUID[]> edges = new ArrayList<>();
+        Set<UUID> parents = new HashSet<>();
+        parentsByChild.forEach((childId, parentIds) -> parentIds.forEach(parentId -> {
+            edges.add(new UUID[]{parentId, childId});
+            parents.add(parentId);
+        }));
+        if (edges.isEmpty()) return;
+
+        jdbcTemplate.batchUpdate("INSERT INTO job_dependencies (parent_id, child_id) VALUES (?, ?)",
+                edges, BATCH_SIZE, (ps, edge) -> {
+                    ps.setObject(1, edge[0]);
+                    ps.setObject(2, edge[1]);
+                });
+        // Only parents that gained a child; a duplicate create leaves its parents' flags alone
+        Object[] ids = parents.toArray();
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "UPDATE jobs SET has_children = true WHERE id = ANY (?) AND NOT has_children");
+            ps.setArray(1, con.createArrayOf("uuid", ids));
+            return ps;
+        });
+    }
+
+    /**
+     * For worker: A parent succeeded. Count it off on every BLOCKED child; children with no
+     * parents left become PENDING with queuedAt set and are returned for the delayed queue.
+     * Concurrent parents of the same child serialize on its row lock, so the count stays exact.
+     */
+    public List<JobRef> releaseChildren(UUID parentId, Instant now) {
+        return jdbcTemplate.query("""
+                UPDATE jobs c
+                SET remaining_parents = c.remaining_parents - 1,
+                    state = CASE WHEN c.remaining_parents <= 1 THEN 'PENDING' ELSE 'BLOCKED' END,
+                    queued_at = CASE WHEN c.remaining_parents <= 1 THEN ? END,
+                    updated_at = ?
+                FROM job_dependencies d
+                WHERE d.parent_id = ? AND c.id = d.child_id AND c.state = 'BLOCKED'
+                RETURNING c.id, c.queue_type, c.scheduled_at, c.priority, c.state
+                """, (rs, rowNum) -> JobState.PENDING.name().equals(rs.getString("state"))
+                ? new JobRef(
+                        rs.getObject("id", UUID.class),
+                        QueueType.valueOf(rs.getString("queue_type")),
+                        rs.getTimestamp("scheduled_at").toInstant(),
+                        rs.getInt("priority"))
+                : null, utc(now), utc(now), parentId)
+                .stream().filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * For worker: A parent went DEAD, so none of its BLOCKED descendants can ever run.
+     * Marks them DEAD in one statement and returns how many there were.
+     */
+    public int failDescendants(UUID parentId, Instant now) {
+        return jdbcTemplate.update("""
+                WITH RECURSIVE descendants (id) AS (
+                    SELECT child_id FROM job_dependencies WHERE parent_id = ?
+                    UNION
+                    SELECT d.child_id FROM job_dependencies d JOIN descendants ON d.parent_id = descendants.id
+                )
+                UPDATE jobs j SET state = 'DEAD', last_error = ?, updated_at = ?
+                FROM descendants
+                WHERE j.id = descendants.id AND j.state = 'BLOCKED'
+                """, parentId, "Parent job " + parentId + " failed", utc(now));
+    }
+
+    /**
+     * Resolve idempotency keys to job IDs with a single query
+     */
+    public Map<String, UUID> findIdsByIdempotencyKeys(Collection<String> keys) {
+        Map<String, UUID> ids = new HashMap<>();
+        if (keys.isEmpty()) return ids;
+
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "SELECT idempotency_key, id FROM jobs WHERE idempotency_key = ANY (?)");
+            Array array = con.createArrayOf("text", keys.toArray());
+            ps.setArray(1, array);
+            return ps;
+        }, rs -> {
+            ids.put(rs.getString(1), rs.getObject(2, UUID.class));
+        });
+        return ids;
+    }
+
+    /**
+     * For worker: taskType and priority of the given jobs that are still PENDING, highest priority first
+     */
+    public List<PendingJob> findPending(Collection<UUID> ids) {
+        if (ids.isEmpty()) return List.of();
+
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement("""
+                    SELECT id, task_type, priority FROM jobs
+                    WHERE id = ANY (?) AND state = 'PENDING'
+                    ORDER BY priority DESC, scheduled_at ASC
+                    """);
+            ps.setArray(1, con.createArrayOf("uuid", ids.toArray()));
+            return ps;
+        }, (rs, rowNum) -> new PendingJob(rs.getObject(1, UUID.class), rs.getString(2), rs.getInt(3)));
+    }
+
+    /**
+     * For scheduler: One keyset page of jobs that are due and not yet queued to Redis, strictly
+     * after the (scheduledAt, id) cursor. With partitions given, only job IDs hashing into them
+     * are returned; null means all partitions.
+     */
+    public List<JobRef> findDuePage(Instant now, Instant afterScheduledAt, UUID afterId,
+                                    int[] partitions, int partitionCount, int limit) {
+        List<Object> args = new ArrayList<>(List.of(utc(now), utc(afterScheduledAt), afterId));
+        StringBuilder sql = new StringBuilder("""
+                SELECT id, queue_type, scheduled_at, priority FROM jobs
+                WHERE state = 'PENDING' AND queued_at IS NULL AND scheduled_at <= ?
+                  AND (scheduled_at, id) > (?, ?)
+                """);
+        if (partitions != null) {
+            sql.append(" AND mod(abs(hashtext(id::text)::bigint), ?) = ANY (?)");
+            args.add(partitionCount);
+            args.add(partitions);
+        }
+        sql.append(" ORDER BY scheduled_at, id LIMIT ?");
+        args.add(limit);
+
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql.toString());
+            for (int i = 0; i < args.size(); i++) {
+                Object arg = args.get(i);
+                if (arg instanceof int[] ints) {
+                    ps.setArray(i + 1, con.createArrayOf("integer", Arrays.stream(ints).boxed().toArray()));
+                } else {
+                    ps.setObject(i + 1, arg);
+                }
+            }
+            return ps;
+        }, JOB_REF);
+    }
+
+    /**
+     * For Redis recovery: One keyset page of PENDING jobs already handed to Redis, strictly after
+     * the (scheduledAt, id) cursor
+     */
+    public List<JobRef> findQueuedPage(Instant afterScheduledAt, UUID afterId, int limit) {
+        return jdbcTemplate.query("""
+                SELECT id, queue_type, scheduled_at, priority FROM jobs
+                WHERE state = 'PENDING' AND queued_at IS NOT NULL
+                  AND (scheduled_at, id) > (?, ?)
+                ORDER BY scheduled_at, id LIMIT ?
+                """, JOB_REF, utc(afterScheduledAt), afterId, limit);
+    }
+
+    /**
+     * For metrics: Due PENDING jobs per queue that have not been pushed to Redis
+     */
+    public Map<QueueType, Long> countDueUnqueued(Instant now) {
+        Map<QueueType, Long> counts = new EnumMap<>(QueueType.class);
+        jdbcTemplate.query("""
+                SELECT queue_type, count(*) FROM jobs
+                WHERE state = 'PENDING' AND queued_at IS NULL AND scheduled_at <= ?
+                GROUP BY queue_type
+                """, rs -> {
+            counts.put(QueueType.valueOf(rs.getString(1)), rs.getLong(2));
+        }, utc(now));
+        return counts;
+    }
+
+    /**
+     * One page of jobs in (scheduled_at, id) order, strictly after the cursor when given
+     */
+    public <T> List<T> findPage(JobFilter filter, JobCursor after, int limit, boolean includePayload,
+                                RowMapper<T> mapper) {
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(listingSelect(filter, includePayload, args));
+        if (after != null) {
+            sql.append(" AND (scheduled_at, id) > (?, ?)");
+            args.add(utc(after.scheduledAt()));
+            args.add(after.id());
+        }
+        sql.append(" ORDER BY scheduled_at, id LIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), mapper, args.toArray());
+    }
+
+    /**
+     * Walk every matching job through a server-side cursor, fetchSize rows at a time.
+     * Must run inside a transaction, otherwise the driver buffers the whole result.
+     */
+    public void streamAll(JobFilter filter, boolean includePayload, int fetchSize, RowCallbackHandler handler) {
+        List<Object> args = new ArrayList<>();
+        String sql = listingSelect(filter, includePayload, args) + " ORDER BY scheduled_at, id";
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            for (int i = 0; i < args.size(); i++) {
+                ps.setObject(i + 1, args.get(i));
+            }
+            return ps;
+        }, handler);
+    }
+
+    private String listingSelect(JobFilter filter, boolean includePayload, List<Object> args) {
+        StringBuilder sql = new StringBuilder("SELECT id, queue_type, task_type, ")
+                .append(includePayload ? "payload" : "NULL AS payload")
+                .append(", scheduled_at, state, priority, max_attempts, created_at FROM jobs WHERE TRUE");
+        if (filter.state() != null) {
+            sql.append(" AND state = ?");
+            args.add(filter.state().name());
+        }
+        if (filter.queueType() != null) {
+            sql.append(" AND queue_type = ?");
+            args.add(filter.queueType().name());
+        }
+        if (filter.taskType() != null) {
+            sql.append(" AND task_type = ?");
+            args.add(filter.taskType());
+        }
+        if (filter.workflowId() != null) {
+            sql.append(" AND workflow_id = ?");
+            args.add(filter.workflowId());
+        }
+        if (filter.scheduledFrom() != null) {
+            sql.append(" AND scheduled_at >= ?");
+            args.add(utc(filter.scheduledFrom()));
+        }
+        if (filter.scheduledTo() != null) {
+            sql.append(" AND scheduled_at < ?");
+            args.add(utc(filter.scheduledTo()));
+        }
+        return sql.toString();
+    }
+
+    private void bindInsert(PreparedStatement ps, JobEntity job) throws SQLException {
+        ps.setObject(1, job.getId());
+        ps.setString(2, job.getQueueType().name());
+        ps.setString(3, job.getTaskType());
+        ps.setString(4, job.getPayload());
+        ps.setString(5, job.getMetadata());
+        ps.setObject(6, utc(job.getScheduledAt()));
+        ps.setObject(7, utc(job.getCreatedAt()));
+        ps.setObject(8, utc(job.getUpdatedAt()));
+        ps.setString(9, job.getState().name());
+        ps.setInt(10, job.getPriority());
+        ps.setInt(11, job.getAttempts());
+        ps.setInt(12, job.getMaxAttempts());
+        ps.setString(13, job.getIdempotencyKey());
+        ps.setObject(14, utc(job.getQueuedAt()));
+        ps.setString(15, job.getRetryBackoff());
+        ps.setString(16, job.getLastErrorPayload());
+        ps.setBoolean(17, job.getArchived());
+        ps.setObject(18, job.getWorkflowId());
+        ps.setInt(19, job.getRemainingParents());
+        ps.setBoolean(20, job.getHasChildren());
+    }
+
+    private static OffsetDateTime utc(Instant instant) {
+        return instant == null ? null : instant.atOffset(ZoneOffset.UTC);
+    }
+}
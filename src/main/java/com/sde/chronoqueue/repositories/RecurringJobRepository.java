@@ -0,0 +1,35 @@
+package com.sde.chronoqueue.repositories;
+
+import com.sde.chronoqueue.entities.RecurringJobEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface RecurringJobRepository extends JpaRepository<RecurringJobEntity, UUID> {
+
+    /**
+     * For materializer: Lock enabled definitions whose next fire time is before :until, earliest
+     * first. Served by idx_recurring_jobs_due; rows locked by another node are skipped.
+     */
+    @Query(value = """
+            SELECT * FROM recurring_jobs
+            WHERE enabled AND next_fire_at <= :until
+            ORDER BY next_fire_at
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<RecurringJobEntity> lockDue(@Param("until") Instant until, @Param("limit") int limit);
+
+    /**
+     * For API: Every definition, by name
+     */
+    List<RecurringJobEntity> findAllByOrderByNameAsc();
+
+    boolean existsByName(String name);
+}
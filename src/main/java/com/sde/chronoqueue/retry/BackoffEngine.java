@@ -0,0 +1,91 @@
+package com.sde.chronoqueue.retry;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sde.chronoqueue.config.ChronoQueueProperties;
+import com.sde.chronoqueue.enums.QueueType;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Turns a job's retryBackoff JSON into the delay before its next attempt. Parsed policies are
+ * cached by their JSON text; almost every job shares its queue's policy, so the cache stays tiny.
+ */
+@Component
+@RequiredArgsConstructor
+public class BackoffEngine {
+
+    // Only reached if producers send many distinct per-job policies
+    private static final int MAX_CACHED_POLICIES = 1024;
+
+    private final ObjectMapper objectMapper;
+    private final ChronoQueueProperties properties;
+
+    private final Map<String, BackoffPolicy> policies = new ConcurrentHashMap<>();
+
+    // Serialized chronoqueue.retry.policies, stored on jobs created without their own policy
+    private final Map<QueueType, String> queuePolicies = new EnumMap<>(QueueType.class);
+
+    /**
+     * Validate the per-queue policies at startup rather than on a job's first failure
+     */
+    @PostConstruct
+    public void loadQueuePolicies() {
+        properties.getRetry().getPolicies().forEach((queue, fields) -> {
+            try {
+                BackoffPolicy.from(fields);
+                queuePolicies.put(queue, objectMapper.writeValueAsString(fields));
+            } catch (IllegalArgumentException | JsonProcessingException e) {
+                throw new IllegalStateException("Invalid chronoqueue.retry.policies." + queue + ": " + e.getMessage(), e);
+            }
+        });
+    }
+
+    /**
+     * JSON to store on a new job: its own policy if it has one, else its queue's configured
+     * policy, else null to keep the column default. The requested policy must be valid.
+     */
+    public String policyJson(QueueType queue, Map<String, Object> requested) {
+        if (requested == null) return queuePolicies.get(queue);
+        try {
+            return objectMapper.writeValueAsString(requested);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("retryBackoff is not serializable", e);
+        }
+    }
+
+    /**
+     * Delay before retry number {@code retry} of a job with this stored policy
+     */
+    public Duration nextDelay(String policyJson, int retry) {
+        return Duration.ofMillis(policy(policyJson).delayMs(retry, ThreadLocalRandom.current()));
+    }
+
+    public BackoffPolicy policy(String policyJson) {
+        if (policyJson == null || policyJson.isBlank()) return BackoffPolicy.DEFAULT;
+
+        BackoffPolicy cached = policies.get(policyJson);
+        if (cached != null) return cached;
+
+        BackoffPolicy parsed;
+        try {
+            parsed = BackoffPolicy.from(objectMapper.readValue(policyJson, new TypeReference<Map<String, Object>>() {}));
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            System.err.println("⚠️ Invalid retryBackoff " + policyJson.strip() + ", using the default: " + e.getMessage());
+            parsed = BackoffPolicy.DEFAULT;
+        }
+        if (policies.size() >= MAX_CACHED_POLICIES) {
+            policies.clear();
+        }
+        policies.put(policyJson, parsed);
+        return parsed;
+    }
+}
@@ -0,0 +1,93 @@
+package com.sde.chronoqueue.retry;
+
+import com.sde.chronoqueue.enums.BackoffStrategy;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.random.RandomGenerator;
+
+/**
+ * Parsed retryBackoff policy of a job. Stored as JSON, e.g.
+ * {"type":"exponential","initial_delay_seconds":5,"max_delay_seconds":86400,"multiplier":2,"jitter":0.2}.
+ * Every key is optional; the defaults give 5s, 10s, 20s, ... capped at a day.
+ */
+public record BackoffPolicy(
+        BackoffStrategy type,
+        long initialDelayMs,
+        long maxDelayMs,
+        double multiplier,
+        double jitter
+) {
+
+    public static final BackoffPolicy DEFAULT =
+            new BackoffPolicy(BackoffStrategy.EXPONENTIAL, 5_000, 86_400_000, 2, 0.2);
+
+    private static final Set<String> KEYS =
+            Set.of("type", "initial_delay_seconds", "max_delay_seconds", "multiplier", "jitter");
+
+    /**
+     * Build a policy from its JSON fields; numbers may also be given as strings (property binding)
+     */
+    public static BackoffPolicy from(Map<String, ?> fields) {
+        for (String key : fields.keySet()) {
+            if (!KEYS.contains(key)) throw new IllegalArgumentException("unknown key " + key);
+        }
+
+        BackoffStrategy type = DEFAULT.type();
+        Object rawType = fields.get("type");
+        if (rawType != null) {
+            try {
+                type = BackoffStrategy.valueOf(rawType.toString().trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("unknown type " + rawType +
+                        " (fixed, linear, exponential or decorrelated_jitter)");
+            }
+        }
+
+        long initialMs = Math.round(number(fields, "initial_delay_seconds", DEFAULT.initialDelayMs() / 1000.0) * 1000);
+        long maxMs = Math.round(number(fields, "max_delay_seconds", DEFAULT.maxDelayMs() / 1000.0) * 1000);
+        double multiplier = number(fields, "multiplier", DEFAULT.multiplier());
+        double jitter = number(fields, "jitter", DEFAULT.jitter());
+
+        if (initialMs <= 0) throw new IllegalArgumentException("initial_delay_seconds must be positive");
+        if (maxMs < initialMs) throw new IllegalArgumentException("max_delay_seconds is below initial_delay_seconds");
+        if (multiplier < 1) throw new IllegalArgumentException("multiplier must be at least 1");
+        if (jitter < 0 || jitter > 1) throw new IllegalArgumentException("jitter must be between 0 and 1");
+
+        return new BackoffPolicy(type, initialMs, maxMs, multiplier, jitter);
+    }
+
+    /**
+     * Delay before retry number {@code retry} (1 for the first retry), never above maxDelayMs.
+     * fixed, linear and exponential take up to {@code jitter} of the delay off at random so jobs
+     * that failed together don't retry together. decorrelated_jitter picks uniformly between the
+     * initial delay and three times the previous bound, the stateless form of the AWS scheme.
+     */
+    public long delayMs(int retry, RandomGenerator random) {
+        int n = Math.max(1, retry);
+        if (type == BackoffStrategy.DECORRELATED_JITTER) {
+            double upper = Math.min(maxDelayMs, initialDelayMs * Math.pow(3, n - 1));
+            return Math.round(initialDelayMs + random.nextDouble() * (upper - initialDelayMs));
+        }
+
+        double delay = switch (type) {
+            case FIXED -> initialDelayMs;
+            case LINEAR -> (double) initialDelayMs * n;
+            default -> initialDelayMs * Math.pow(multiplier, n - 1);
+        };
+        delay = Math.min(maxDelayMs, delay);
+        return Math.round(delay - delay * jitter * random.nextDouble());
+    }
+
+    private static double number(Map<String, ?> fields, String key, double fallback) {
+        Object value = fields.get(key);
+        if (value == null) return fallback;
+        if (value instanceof Number number) return number.doubleValue();
+        try {
+            return Double.parseDouble(value.toString().trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(key + " must be a number");
+        }
+    }
+}
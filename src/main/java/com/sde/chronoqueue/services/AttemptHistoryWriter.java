@@ -0,0 +1,100 @@
+package com.sde.chronoqueue.services;
+
+import com.sde.chronoqueue.config.ChronoQueueProperties;
+import com.sde.chronoqueue.dtos.JobAttemptRecord;
+import com.sde.chronoqueue.metrics.ChronoQueueMetrics;
+import com.sde.chronoqueue.repositories.JobJdbcRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind job_attempts history. Workers hand finished attempts to a bounded buffer and
+ * move on; one writer thread drains it into JDBC batches. History is best effort: when the
+ * buffer is full the record is dropped (and counted) instead of slowing the worker down.
+ */
+@Service
+@RequiredArgsConstructor
+public class AttemptHistoryWriter {
+
+    private static final int MAX_ERROR_LENGTH = 255;
+
+    private final JobJdbcRepository jobJdbcRepo;
+    private final ChronoQueueProperties properties;
+    private final ChronoQueueMetrics metrics;
+
+    private BlockingQueue<JobAttemptRecord> buffer;
+    private Thread writer;
+    private volatile boolean running = true;
+
+    @PostConstruct
+    public void start() {
+        buffer = new ArrayBlockingQueue<>(properties.getAttempts().getBufferCapacity());
+        writer = Thread.ofPlatform().name("chrono-attempt-writer").daemon().start(this::runWriter);
+    }
+
+    /**
+     * Queue an attempt for writing; never blocks
+     */
+    public void record(JobAttemptRecord attempt) {
+        if (attempt.error() != null && attempt.error().length() > MAX_ERROR_LENGTH) {
+            attempt = new JobAttemptRecord(attempt.jobId(), attempt.attemptNumber(), attempt.workerId(),
+                    attempt.outcome(), attempt.startedAt(), attempt.finishedAt(),
+                    attempt.error().substring(0, MAX_ERROR_LENGTH), attempt.errorPayload());
+        }
+        if (!buffer.offer(attempt)) {
+            metrics.attemptsDropped(1);
+        }
+    }
+
+    private void runWriter() {
+        ChronoQueueProperties.Attempts config = properties.getAttempts();
+        List<JobAttemptRecord> batch = new ArrayList<>(config.getBatchSize());
+
+        while (running) {
+            try {
+                // Wait for the first record, then take whatever else is already there
+                JobAttemptRecord first = buffer.poll(config.getFlushIntervalMs(), TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+
+                batch.add(first);
+                buffer.drainTo(batch, config.getBatchSize() - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                break; // shutting down; flush() writes what is left
+            }
+        }
+    }
+
+    private void write(List<JobAttemptRecord> batch) {
+        try {
+            jobJdbcRepo.insertAttempts(batch);
+        } catch (DataAccessException e) {
+            metrics.attemptsDropped(batch.size());
+            System.err.println("⚠️ Could not write " + batch.size() + " attempt history rows: " + e.getMessage());
+        } finally {
+            batch.clear();
+        }
+    }
+
+    @PreDestroy
+    public void flush() throws InterruptedException {
+        running = false;
+        writer.interrupt();
+        writer.join(5000);
+
+        List<JobAttemptRecord> remaining = new ArrayList<>();
+        buffer.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            write(remaining);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.sde.chronoqueue.services;
+
+import com.sde.chronoqueue.config.ChronoQueueProperties;
+import com.sde.chronoqueue.config.NodeIdentity;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Heartbeat-based node registry in Redis: ZSET chrono:nodes, member = node ID, score = last heartbeat.
+ * Job IDs hash into a fixed number of virtual partitions and every partition belongs to exactly one
+ * live node, chosen by rendezvous hashing, so a join or leave only moves that node's share.
+ * Without Redis a node cannot see its peers and falls back to owning every partition.
+ */
+@Service
+@RequiredArgsConstructor
+public class ClusterMembershipService {
+
+    private static final String NODES_KEY = "chrono:nodes";
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final NodeIdentity node;
+    private final ChronoQueueProperties properties;
+
+    // null means every partition
+    private volatile int[] ownedPartitions;
+
+    private volatile int liveNodes = 1;
+
+    @PostConstruct
+    public void join() {
+        heartbeat();
+    }
+
+    /**
+     * Refresh our entry, drop nodes that stopped heartbeating and recompute our partitions
+     */
+    @Scheduled(fixedRateString = "${chronoqueue.cluster.heartbeat-interval-ms:2000}")
+    public void heartbeat() {
+        long now = System.currentTimeMillis();
+        try {
+            ZSetOperations<String, String> nodes = redisTemplate.opsForZSet();
+            nodes.add(NODES_KEY, node.getId(), now);
+            nodes.removeRangeByScore(NODES_KEY, Double.NEGATIVE_INFINITY,
+                    now - properties.getCluster().getNodeTtlMs());
+            Set<String> members = nodes.range(NODES_KEY, 0, -1);
+            rebalance(members == null || members.isEmpty() ? Set.of(node.getId()) : members);
+        } catch (DataAccessException redisError) {
+            if (ownedPartitions != null) {
+                System.err.println("⚠️ Cluster registry unavailable, sweeping all partitions: " +
+                        redisError.getMessage());
+            }
+            ownedPartitions = null;
+            liveNodes = 1;
+        }
+    }
+
+    @PreDestroy
+    public void leave() {
+        try {
+            // Peers pick up our partitions on their next heartbeat instead of after the TTL
+            redisTemplate.opsForZSet().remove(NODES_KEY, node.getId());
+        } catch (DataAccessException ignored) {
+            // Entry expires on its own
+        }
+    }
+
+    public int partitionCount() {
+        return properties.getCluster().getPartitions();
+    }
+
+    /**
+     * Partitions this node is responsible for, or null when it owns all of them
+     */
+    public int[] ownedPartitions() {
+        return ownedPartitions;
+    }
+
+    private void rebalance(Collection<String> members) {
+        int partitions = partitionCount();
+        int[] owned = assign(node.getId(), members, partitions);
+        int[] next = owned.length == partitions ? null : owned;
+
+        if (!Arrays.equals(next, ownedPartitions) || members.size() != liveNodes) {
+            System.out.println("🧭 [Node:" + node.shortId() + "] Owns " + owned.length + "/" + partitions +
+                    " partitions (" + members.size() + " live nodes)");
+        }
+        ownedPartitions = next;
+        liveNodes = members.size();
+    }
+
+    /**
+     * Rendezvous (highest random weight) assignment: each partition goes to the node with the
+     * highest weight for it. Every node computes the same answer from the same member list.
+     */
+    static int[] assign(String self, Collection<String> members, int partitions) {
+        return IntStream.range(0, partitions)
+                .filter(p -> self.equals(ownerOf(p, members)))
+                .toArray();
+    }
+
+    private static String ownerOf(int partition, Collection<String> members) {
+        String owner = null;
+        long best = Long.MIN_VALUE;
+        for (String member : members) {
+            long w = weight(member, partition);
+            if (owner == null || w > best || (w == best && member.compareTo(owner) < 0)) {
+                owner = member;
+                best = w;
+            }
+        }
+        return owner;
+    }
+
+    private static long weight(String member, int partition) {
+        // SplitMix64 finalizer over (member, partition); String.hashCode is stable across JVMs
+        long z = member.hashCode() * 0x9E3779B97F4A7C15L + partition;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,39 @@
+package com.sde.chronoqueue.services;
+
+import com.sde.chronoqueue.config.NodeIdentity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+/**
+ * Lets one node per cycle run a periodic maintenance task: chrono:cycle:&lt;task&gt; is set NX with a
+ * TTL just under the task's interval and never deleted, so whichever node ticks first in an interval
+ * runs it and the others skip. Without Redis every node runs the task; the advisory locks inside
+ * the task still keep their chunks from overlapping.
+ */
+@Service
+@RequiredArgsConstructor
+public class CycleLease {
+
+    private static final String KEY_PREFIX = "chrono:cycle:";
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final NodeIdentity node;
+
+    /**
+     * True if this node should run the current cycle of {@code task}
+     */
+    public boolean tryAcquire(String task, long intervalMs) {
+        // A little under the interval, so the next tick is never locked out by this cycle's lease
+        Duration ttl = Duration.ofMillis(Math.max(1, intervalMs - intervalMs / 10));
+        try {
+            return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(KEY_PREFIX + task, node.getId(), ttl));
+        } catch (DataAccessException redisError) {
+            System.err.println("⚠️ Cycle lease for " + task + " unavailable, running it here: " + redisError.getMessage());
+            return true;
+        }
+    }
+}
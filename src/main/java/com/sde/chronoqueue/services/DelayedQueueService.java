@@ -0,0 +1,303 @@
+package com.sde.chronoqueue.services;
+
+import com.sde.chronoqueue.config.ChronoQueueProperties;
+import com.sde.chronoqueue.dtos.JobRef;
+import com.sde.chronoqueue.enums.QueueType;
+import com.sde.chronoqueue.queue.JobsDueEvent;
+import com.sde.chronoqueue.queue.ReadyQueue;
+import com.sde.chronoqueue.repositories.JobEntityRepository;
+import com.sde.chronoqueue.timer.HierarchicalTimer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Redis sorted-set delayed queue, one ZSET per QueueType.
+ * Jobs are added when they are created and promoted to the ready queue by a
+ * Lua script once due, so dispatch does not wait for a Postgres scan.
+ * Jobs that are already due skip the ZSET and go straight to the ready queue.
+ * Postgres stays the source of truth: anything that fails to reach the ZSET
+ * keeps queuedAt = null and is picked up by the scheduler sweep.
+ * Jobs due within the next few minutes are also held in an in-process timing wheel,
+ * which promotes them and wakes the local workers within milliseconds of scheduledAt;
+ * the periodic promoter is the safety net.
+ */
+@Service
+@RequiredArgsConstructor
+public class DelayedQueueService {
+
+    private final JobEntityRepository jobRepo;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ReadyQueue readyQueue;
+    private final ChronoQueueProperties properties;
+    private final ApplicationEventPublisher events;
+
+    private HierarchicalTimer<JobRef> timer;
+
+    // Job IDs currently waiting in the timing wheel
+    private final Set<UUID> tracked = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean running = true;
+
+    @PostConstruct
+    public void startTimer() {
+        ChronoQueueProperties.Timer config = properties.getTimer();
+        timer = new HierarchicalTimer<>(config.getTickMs(), config.getWheelSize(), System.currentTimeMillis());
+
+        Thread thread = new Thread(this::runTimer, "chrono-timer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stopTimer() {
+        running = false;
+    }
+
+    private void runTimer() {
+        while (running) {
+            try {
+                List<JobRef> due = timer.advanceClock(200);
+                if (due.isEmpty()) continue;
+
+                Set<QueueType> queues = EnumSet.noneOf(QueueType.class);
+                for (JobRef job : due) {
+                    tracked.remove(job.id());
+                    queues.add(job.queueType());
+                }
+                promoteNow(queues);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                System.err.println("⚠️ Timing wheel error: " + e.getMessage());
+            }
+        }
+    }
+
+    private String delayedKey(String queueType) {
+        return "chrono:queue:" + queueType.toLowerCase() + ":delayed";
+    }
+
+    /**
+     * Score = scheduledAt in millis, with priority breaking ties inside the same millisecond
+     * (higher priority gets a lower score). Stays well inside a double's exact integer range.
+     */
+    static double score(Instant scheduledAt, int priority) {
+        int clamped = Math.max(0, Math.min(999, priority));
+        return scheduledAt.toEpochMilli() * 1000.0 + (999 - clamped);
+    }
+
+    /**
+     * Push due jobs to the ready queue and add the rest to their delayed ZSETs, one pipeline each
+     */
+    @SuppressWarnings("unchecked")
+    public void schedule(Collection<JobRef> jobs) {
+        long now = System.currentTimeMillis();
+        List<JobRef> due = new ArrayList<>();
+        List<JobRef> later = new ArrayList<>();
+        Map<QueueType, Set<TypedTuple<String>>> byQueue = new EnumMap<>(QueueType.class);
+        for (JobRef job : jobs) {
+            if (job.scheduledAt().toEpochMilli() <= now) {
+                due.add(job);
+                continue;
+            }
+            later.add(job);
+            byQueue.computeIfAbsent(job.queueType(), q -> new HashSet<>())
+                    .add(TypedTuple.of(job.id().toString(), score(job.scheduledAt(), job.priority())));
+        }
+        pushReady(due);
+        if (later.isEmpty()) return;
+
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                byQueue.forEach((queue, members) -> ops.opsForZSet().add(delayedKey(queue.name()), members));
+                return null;
+            }
+        });
+
+        // Anything that became due in the meantime is promoted right away
+        Set<QueueType> dueNow = EnumSet.noneOf(QueueType.class);
+        for (JobRef job : later) {
+            if (!track(job)) dueNow.add(job.queueType());
+        }
+        promoteNow(dueNow);
+    }
+
+    /**
+     * Hand due jobs straight to the ready queue in promotion order, skipping the ZSET round trip
+     * and the Lua promote, then wake local workers
+     */
+    private void pushReady(List<JobRef> due) {
+        if (due.isEmpty()) return;
+
+        due.sort(Comparator.comparingDouble(job -> score(job.scheduledAt(), job.priority())));
+        Map<QueueType, List<String>> byQueue = new EnumMap<>(QueueType.class);
+        for (JobRef job : due) {
+            byQueue.computeIfAbsent(job.queueType(), q -> new ArrayList<>()).add(job.id().toString());
+        }
+        readyQueue.push(byQueue);
+        byQueue.keySet().forEach(queue -> events.publishEvent(new JobsDueEvent(queue)));
+    }
+
+    /**
+     * Hold a job in the timing wheel if it is due within the horizon.
+     *
+     * @return false if the job is already due
+     */
+    private boolean track(JobRef job) {
+        long dueAt = job.scheduledAt().toEpochMilli();
+        long now = System.currentTimeMillis();
+        if (dueAt <= now) return false;
+
+        ChronoQueueProperties.Timer config = properties.getTimer();
+        if (dueAt > now + config.getHorizonMs() || tracked.size() >= config.getMaxTracked()) return true;
+
+        if (tracked.add(job.id()) && !timer.add(job, dueAt)) {
+            tracked.remove(job.id());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Load members that become due within the horizon into the timing wheel,
+     * including jobs scheduled by other nodes
+     */
+    @Scheduled(fixedDelayString = "${chronoqueue.timer.lookahead-interval-ms:1000}")
+    public void lookahead() {
+        lookahead(EnumSet.allOf(QueueType.class));
+    }
+
+    /**
+     * Look ahead in these queues only, e.g. right after another node announced new jobs in them
+     */
+    public void lookahead(Set<QueueType> queues) {
+        ChronoQueueProperties.Timer config = properties.getTimer();
+        Instant now = Instant.now();
+        double min = score(now, 999) + 1;
+        double max = score(now.plusMillis(config.getHorizonMs()), 0);
+
+        for (QueueType queue : queues) {
+            int room = config.getMaxTracked() - tracked.size();
+            if (room <= 0) return;
+            try {
+                Set<TypedTuple<String>> upcoming = redisTemplate.opsForZSet()
+                        .rangeByScoreWithScores(delayedKey(queue.name()), min, max, 0, room);
+                if (upcoming == null) continue;
+
+                for (TypedTuple<String> member : upcoming) {
+                    long score = member.getScore().longValue();
+                    JobRef job = new JobRef(UUID.fromString(member.getValue()), queue,
+                            Instant.ofEpochMilli(score / 1000), 999 - (int) (score % 1000));
+                    if (!track(job)) promoteNow(EnumSet.of(queue));
+                }
+            } catch (DataAccessException redisError) {
+                System.err.println("⚠️ Could not look ahead in delayed " + queue + " jobs: " + redisError.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Members waiting in a queue's delayed ZSET
+     */
+    public long size(QueueType queue) {
+        Long size = redisTemplate.opsForZSet().zCard(delayedKey(queue.name()));
+        return size == null ? 0 : size;
+    }
+
+    /**
+     * Hand jobs to Redis once the surrounding transaction commits: due ones to the ready queue,
+     * the rest to the delayed queue. The rows must already be saved with queuedAt set; if Redis
+     * is unavailable queuedAt is cleared again so the scheduler sweep picks them up.
+     */
+    public void scheduleAfterCommit(Collection<JobRef> jobs) {
+        if (jobs.isEmpty()) return;
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            scheduleOrRelease(jobs);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                scheduleOrRelease(jobs);
+            }
+        });
+    }
+
+    private void scheduleOrRelease(Collection<JobRef> jobs) {
+        try {
+            schedule(jobs);
+        } catch (DataAccessException redisError) {
+            System.err.println("⚠️ Redis unavailable, " + jobs.size() +
+                    " job(s) left for the scheduler sweep: " + redisError.getMessage());
+            jobRepo.markUnqueued(jobs.stream().map(JobRef::id).toList());
+        }
+    }
+
+    /**
+     * Move due members of every delayed ZSET to the matching ready queue.
+     * Safe to run on every node: each promotion is a single atomic Lua call.
+     */
+    @Scheduled(fixedDelayString = "${chronoqueue.delayed.promote-interval-ms:100}")
+    public void promoteDueJobs() {
+        long maxScore = (long) score(Instant.now(), 0);
+
+        for (QueueType queue : QueueType.values()) {
+            try {
+                if (promote(queue, maxScore) > 0) {
+                    events.publishEvent(new JobsDueEvent(queue));
+                }
+            } catch (DataAccessException redisError) {
+                System.err.println("⚠️ Could not promote delayed " + queue + " jobs: " + redisError.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Promote everything due in the given queues and wake local workers for them
+     */
+    public void promoteNow(Set<QueueType> queues) {
+        if (queues.isEmpty()) return;
+
+        long maxScore = (long) score(Instant.now(), 0);
+        for (QueueType queue : queues) {
+            try {
+                promote(queue, maxScore);
+                events.publishEvent(new JobsDueEvent(queue));
+            } catch (DataAccessException redisError) {
+                // The periodic promoter retries
+                System.err.println("⚠️ Could not promote delayed " + queue + " jobs: " + redisError.getMessage());
+            }
+        }
+    }
+
+    private long promote(QueueType queue, long maxScore) {
+        int batchSize = properties.getDelayed().getPromoteBatchSize();
+        long total = 0;
+        long moved;
+        do {
+            moved = readyQueue.promote(queue, delayedKey(queue.name()), maxScore, batchSize);
+            total += moved;
+        } while (moved == batchSize);
+        return total;
+    }
+}
@@ -0,0 +1,73 @@
+package com.sde.chronoqueue.services;
+
+import com.sde.chronoqueue.config.ChronoQueueProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Recently answered idempotency keys in Redis: chrono:idem:&lt;key&gt; holds the ID of the job the key
+ * created, with a TTL, so producer retry storms cost a primary-key read instead of an insert
+ * transaction. Only the ID is cached; the job itself is always read fresh. Best effort only: a miss
+ * or a Redis error falls through to the insert-on-conflict path, which stays the source of truth.
+ */
+@Service
+@RequiredArgsConstructor
+public class IdempotencyCache {
+
+    private static final String KEY_PREFIX = "chrono:idem:";
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ChronoQueueProperties properties;
+
+    public Optional<UUID> get(String idempotencyKey) {
+        if (!enabled()) return Optional.empty();
+        try {
+            String cached = redisTemplate.opsForValue().get(KEY_PREFIX + idempotencyKey);
+            return cached == null ? Optional.empty() : Optional.of(UUID.fromString(cached));
+        } catch (DataAccessException | IllegalArgumentException e) {
+            System.err.println("⚠️ Idempotency cache read failed, checking the database: " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Remember the job ID once the surrounding transaction commits, so a rolled-back
+     * create is never served from the cache
+     */
+    public void putAfterCommit(String idempotencyKey, UUID jobId) {
+        if (!enabled()) return;
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            put(idempotencyKey, jobId);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                put(idempotencyKey, jobId);
+            }
+        });
+    }
+
+    private void put(String idempotencyKey, UUID jobId) {
+        try {
+            redisTemplate.opsForValue().set(KEY_PREFIX + idempotencyKey, jobId.toString(),
+                    Duration.ofMillis(properties.getIdempotency().getCacheTtlMs()));
+        } catch (DataAccessException e) {
+            System.err.println("⚠️ Idempotency cache write failed: " + e.getMessage());
+        }
+    }
+
+    private boolean enabled() {
+        return properties.getIdempotency().getCacheTtlMs() > 0;
+    }
+}
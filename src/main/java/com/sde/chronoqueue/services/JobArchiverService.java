@@ -0,0 +1,102 @@
+package com.sde.chronoqueue.services;
+
+import com.sde.chronoqueue.config.ChronoQueueProperties;
+import com.sde.chronoqueue.metrics.ChronoQueueMetrics;
+import com.sde.chronoqueue.repositories.JobArchiveRepository;
+import com.sde.chronoqueue.repositories.JobEntityRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+
+@Service
+@RequiredArgsConstructor
+public class JobArchiverService {
+
+    // Keeps chunks from overlapping when the cycle lease is unavailable
+    private static final long ARCHIVER_LOCK_KEY = "chronoqueue:archiver".hashCode();
+
+    private final JobEntityRepository jobRepo;
+    private final JobArchiveRepository archiveRepo;
+    private final ChronoQueueProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final ChronoQueueMetrics metrics;
+    private final CycleLease cycleLease;
+
+    /**
+     * Move SUCCEEDED / DEAD jobs past the retention window out of the jobs table, so the
+     * active-job indexes and every scheduler and reaper scan stay small.
+     * Only the node holding this cycle's lease archives. Chunks are separate transactions,
+     * each guarded by a Postgres advisory lock.
+     */
+    @Scheduled(fixedRateString = "${chronoqueue.archive.interval-ms:60000}")
+    public void archiveFinishedJobs() {
+        ChronoQueueProperties.Archive config = properties.getArchive();
+        if (!cycleLease.tryAcquire("archiver", config.getIntervalMs())) {
+            return; // another node archives this cycle
+        }
+
+        Instant cutoff = Instant.now().minusMillis(config.getRetentionMs());
+
+        Boolean locked = transactionTemplate.execute(status -> preparePartitions(cutoff));
+        if (!Boolean.TRUE.equals(locked)) return; // a late cycle on another node is still archiving
+
+        int archived = 0;
+        while (true) {
+            Integer moved = transactionTemplate.execute(status -> archiveChunk(cutoff, config.getChunkSize()));
+            if (moved == null) break;
+
+            archived += moved;
+            if (moved < config.getChunkSize()) break;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> dropExpiredPartitions(config.getPartitionRetentionMonths()));
+
+        metrics.archived(archived);
+        if (archived > 0) {
+            System.out.println("🗄️ Archiver moved " + archived + " finished jobs to jobs_archive");
+        }
+    }
+
+    /**
+     * Every row about to be moved needs the partition for its created_at month
+     */
+    private boolean preparePartitions(Instant cutoff) {
+        if (!jobRepo.tryAdvisoryXactLock(ARCHIVER_LOCK_KEY)) {
+            return false;
+        }
+
+        Instant oldest = archiveRepo.findOldestArchivableCreatedAt(cutoff);
+        if (oldest != null) {
+            YearMonth last = YearMonth.from(cutoff.atZone(ZoneOffset.UTC));
+            for (YearMonth month = YearMonth.from(oldest.atZone(ZoneOffset.UTC)); !month.isAfter(last);
+                 month = month.plusMonths(1)) {
+                archiveRepo.createPartitionIfMissing(month);
+            }
+        }
+        return true;
+    }
+
+    private Integer archiveChunk(Instant cutoff, int chunkSize) {
+        if (!jobRepo.tryAdvisoryXactLock(ARCHIVER_LOCK_KEY)) {
+            return null;
+        }
+        return archiveRepo.archiveFinished(cutoff, Instant.now(), chunkSize);
+    }
+
+    private void dropExpiredPartitions(int retentionMonths) {
+        if (retentionMonths <= 0 || !jobRepo.tryAdvisoryXactLock(ARCHIVER_LOCK_KEY)) return;
+
+        YearMonth keepFrom = YearMonth.now(ZoneOffset.UTC).minusMonths(retentionMonths);
+        for (YearMonth month : archiveRepo.findPartitions()) {
+            if (month.isBefore(keepFrom)) {
+                archiveRepo.dropPartition(month);
+                System.out.println("🗑️ Dropped archive partition for " + month);
+            }
+        }
+    }
+}
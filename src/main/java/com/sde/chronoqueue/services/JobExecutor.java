@@ -0,0 +1,86 @@
+package com.sde.chronoqueue.services;
+
+import com.sde.chronoqueue.config.ChronoQueueProperties;
+import com.sde.chronoqueue.enums.QueueType;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs claimed jobs, one virtual thread per job.
+ * Each QueueType has its own permit pool (bulkhead), so a slow queue can only
+ * use up its own permits and never starves the others.
+ */
+@Component
+public class JobExecutor {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<QueueType, Semaphore> permits = new EnumMap<>(QueueType.class);
+
+    public JobExecutor(ChronoQueueProperties properties) {
+        for (QueueType queue : QueueType.values()) {
+            permits.put(queue, new Semaphore(properties.getWorker().concurrencyFor(queue)));
+        }
+    }
+
+    /**
+     * Start the task on a virtual thread if the queue has a free permit.
+     * The permit is held until the task's CompletionStage completes, so async
+     * tasks count against the limit without holding a thread.
+     *
+     * @param onRelease runs after the task completes and its permit is returned
+     * @return false when the queue is at its concurrency limit
+     */
+    public boolean tryExecute(QueueType queue, Supplier<? extends CompletionStage<?>> task, Runnable onRelease) {
+        Semaphore semaphore = permits.get(queue);
+        if (!semaphore.tryAcquire()) return false;
+
+        try {
+            executor.execute(() -> {
+                CompletionStage<?> stage;
+                try {
+                    stage = task.get();
+                } catch (RuntimeException e) {
+                    stage = CompletableFuture.failedFuture(e);
+                }
+                stage.whenComplete((result, error) -> {
+                    semaphore.release();
+                    onRelease.run();
+                });
+            });
+        } catch (RuntimeException e) {
+            semaphore.release(); // executor shut down
+            throw e;
+        }
+        return true;
+    }
+
+    /**
+     * Virtual-thread executor for follow-up work (e.g. DB writes after an async handler completes)
+     */
+    public Executor asyncExecutor() {
+        return executor;
+    }
+
+    public int availablePermits(QueueType queue) {
+        return permits.get(queue).availablePermits();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            System.err.println("⚠️ Jobs still running at shutdown; their leases will expire and be reaped");
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.sde.chronoqueue.services;
+
+import com.sde.chronoqueue.config.ChronoQueueProperties;
+import com.sde.chronoqueue.enums.QueueType;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Cross-node wake-ups over Postgres LISTEN/NOTIFY (channel chrono_jobs, payload = queue name).
+ * A node hands the jobs it creates to its own promoter and workers directly; the notification
+ * lets every other node promote and fetch right away instead of on its next periodic pass.
+ * Each node holds one dedicated LISTEN connection outside the pool. Notifications are only a
+ * shortcut: if the connection is down, the periodic promoter, fetch and sweep still deliver.
+ */
+@Service
+@RequiredArgsConstructor
+public class JobNotifier {
+
+    private static final String CHANNEL = "chrono_jobs";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSource;
+    private final DelayedQueueService delayedQueue;
+    private final ChronoQueueProperties properties;
+
+    private volatile boolean running = true;
+
+    /**
+     * Tell every node that jobs in these queues are due now or within the timer horizon. Runs in
+     * the surrounding transaction, so Postgres delivers it only on commit; without a transaction
+     * it is sent immediately.
+     */
+    public void notifyDue(Collection<QueueType> queues) {
+        if (queues.isEmpty() || !properties.getNotify().isEnabled()) return;
+
+        Object[] names = queues.stream().distinct().map(QueueType::name).toArray();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement("SELECT pg_notify(?, queue) FROM unnest(?) AS queue");
+            ps.setString(1, CHANNEL);
+            ps.setArray(2, con.createArrayOf("text", names));
+            return ps;
+        }, rs -> {});
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startListener() {
+        if (!properties.getNotify().isEnabled()) return;
+
+        Thread thread = new Thread(this::listen, "chrono-listen");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stopListener() {
+        running = false;
+    }
+
+    private void listen() {
+        ChronoQueueProperties.Notify config = properties.getNotify();
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSource.determineUrl(),
+                    dataSource.determineUsername(), dataSource.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                PGConnection pg = connection.unwrap(PGConnection.class);
+                System.out.println("👂 Listening for job notifications on " + CHANNEL);
+
+                while (running) {
+                    Set<QueueType> queues = EnumSet.noneOf(QueueType.class);
+                    if (!collect(pg.getNotifications(500), queues)) continue;
+
+                    // Fold a burst into one wake-up per queue
+                    Thread.sleep(config.getCoalesceMs());
+                    collect(pg.getNotifications(), queues);
+                    delayedQueue.promoteNow(queues);
+                    delayedQueue.lookahead(queues);
+                }
+            } catch (SQLException e) {
+                System.err.println("⚠️ LISTEN connection lost, relying on periodic polling: " + e.getMessage());
+                sleepQuietly(config.getReconnectDelayMs());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static boolean collect(PGNotification[] notifications, Set<QueueType> queues) {
+        if (notifications == null || notifications.length == 0) return false;
+        for (PGNotification notification : notifications) {
+            try {
+                queues.add(QueueType.valueOf(notification.getParameter()));
+            } catch (IllegalArgumentException ignored) {
+                // Not ours, or a queue this node doesn't know yet
+            }
+        }
+        return true;
+    }
+
+    private void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
@@ -3,48 +3,386 @@ package com.sde.chronoqueue.services;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sde.chronoqueue.config.ChronoQueueProperties;
+import com.sde.chronoqueue.dtos.JobAttemptResponse;
+import com.sde.chronoqueue.dtos.JobBatchCreateResponse;
+import com.sde.chronoqueue.dtos.JobBatchItemResult;
 import com.sde.chronoqueue.dtos.JobCreateRequest;
 import com.sde.chronoqueue.dtos.JobCreateResponse;
+import com.sde.chronoqueue.dtos.JobCursor;
+import com.sde.chronoqueue.dtos.JobFilter;
+import com.sde.chronoqueue.dtos.JobListResponse;
+import com.sde.chronoqueue.dtos.JobRef;
+import com.sde.chronoqueue.entities.JobAttemptEntity;
 import com.sde.chronoqueue.entities.JobEntity;
+import com.sde.chronoqueue.enums.BatchItemStatus;
 import com.sde.chronoqueue.enums.JobState;
+import com.sde.chronoqueue.enums.QueueType;
+import com.sde.chronoqueue.metrics.ChronoQueueMetrics;
+import com.sde.chronoqueue.repositories.JobArchiveRepository;
+import com.sde.chronoqueue.repositories.JobAttemptRepository;
 import com.sde.chronoqueue.repositories.JobEntityRepository;
+import com.sde.chronoqueue.repositories.JobJdbcRepository;
+import com.sde.chronoqueue.retry.BackoffEngine;
+import com.sde.chronoqueue.retry.BackoffPolicy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 public class JobService {
     private final JobEntityRepository jobRepo;
     private final ObjectMapper objectMapper;
+    private final DelayedQueueService delayedQueue;
+    private final JobJdbcRepository jobJdbcRepo;
+    private final JobArchiveRepository archiveRepo;
+    private final JobAttemptRepository attemptRepo;
+    private final ChronoQueueProperties properties;
+    private final ChronoQueueMetrics metrics;
+    private final IdempotencyCache idempotencyCache;
+    private final TransactionTemplate transactionTemplate;
+    private final BackoffEngine backoff;
+    private final JobNotifier notifier;
 
-    public JobService(JobEntityRepository jobRepo, ObjectMapper objectMapper) {
+    public JobService(JobEntityRepository jobRepo, ObjectMapper objectMapper, DelayedQueueService delayedQueue,
+                      JobJdbcRepository jobJdbcRepo, JobArchiveRepository archiveRepo,
+                      JobAttemptRepository attemptRepo, ChronoQueueProperties properties, ChronoQueueMetrics metrics,
+                      IdempotencyCache idempotencyCache, TransactionTemplate transactionTemplate,
+                      BackoffEngine backoff, JobNotifier notifier) {
         this.jobRepo = jobRepo;
         this.objectMapper = objectMapper;
+        this.delayedQueue = delayedQueue;
+        this.jobJdbcRepo = jobJdbcRepo;
+        this.archiveRepo = archiveRepo;
+        this.attemptRepo = attemptRepo;
+        this.properties = properties;
+        this.metrics = metrics;
+        this.idempotencyCache = idempotencyCache;
+        this.transactionTemplate = transactionTemplate;
+        this.backoff = backoff;
+        this.notifier = notifier;
     }
 
-    @Transactional
+    /**
+     * Create one job. A repeated idempotency key is answered from the Redis cache when it was seen
+     * recently; otherwise the insert is a single INSERT ... ON CONFLICT DO NOTHING, so concurrent
+     * duplicates get the existing job back instead of a unique-constraint error.
+     * A job with dependsOn starts BLOCKED until every parent has succeeded.
+     */
     public JobCreateResponse createJob(JobCreateRequest request) {
-        // Check idempotency - if job already exists, return existing
-        if (request.idempotencyKey() != null) {
-            Optional<JobEntity> existing = jobRepo.findByIdempotencyKey(request.idempotencyKey());
-            if (existing.isPresent()) {
-                System.out.println("⚠️ Duplicate job creation prevented by idempotency key: " +
-                        request.idempotencyKey());
-                return mapToResponse(existing.get());
+        String error = validate(request);
+        if (error != null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, error);
+        }
+
+        long started = System.nanoTime();
+        String key = request.idempotencyKey();
+        if (key != null) {
+            // A cache hit is one primary-key read of the job's current row, outside any transaction.
+            // A job archived since then is gone from jobs, so its key falls through and creates anew.
+            Optional<JobCreateResponse> cached = idempotencyCache.get(key)
+                    .flatMap(jobRepo::findById)
+                    .map(this::mapToResponse);
+            if (cached.isPresent()) {
+                log.debug("Duplicate job creation prevented by idempotency key: {}", key);
+                metrics.duplicate(true);
+                return cached.get();
+            }
+        }
+
+        JobEntity job = toEntity(request, Instant.now());
+        job.setId(UUID.randomUUID());
+
+        return transactionTemplate.execute(status -> {
+            Map<UUID, JobState> parents = jobJdbcRepo.lockParents(parentIds(request));
+            blockOnParents(job, request, parents);
+
+            if (!jobJdbcRepo.insertIfAbsent(job)) {
+                JobCreateResponse existing = jobRepo.findByIdempotencyKey(key)
+                        .map(this::mapToResponse)
+                        // The other row was archived between our insert and this read
+                        .orElseThrow(() -> new ResponseStatusException(HttpStatus.CONFLICT,
+                                "Job for idempotency key " + key + " changed concurrently, retry"));
+                log.debug("Duplicate job creation prevented by idempotency key: {}", key);
+                metrics.duplicate(false);
+                idempotencyCache.putAfterCommit(key, existing.id());
+                return existing;
+            }
+
+            if (!parents.isEmpty()) {
+                jobJdbcRepo.insertDependencies(Map.of(job.getId(), parentIds(request)));
+            }
+            if (job.getState() == JobState.PENDING) {
+                delayedQueue.scheduleAfterCommit(List.of(new JobRef(
+                        job.getId(), job.getQueueType(), job.getScheduledAt(), job.getPriority()
+                )));
+                if (!job.getScheduledAt().isAfter(job.getCreatedAt())) {
+                    notifier.notifyDue(List.of(job.getQueueType()));
+                }
+            }
+
+            log.debug("Created job {} [queue={}, scheduled={}, state={}]", job.getId(),
+                    job.getQueueType(), job.getScheduledAt(), job.getState());
+            metrics.created(job.getQueueType());
+            metrics.recordCreate(false, System.nanoTime() - started);
+
+            JobCreateResponse response = mapToResponse(job);
+            if (key != null) {
+                idempotencyCache.putAfterCommit(key, job.getId());
+            }
+            return response;
+        });
+    }
+
+    /**
+     * Create many jobs in one transaction: one JDBC batch insert that skips
+     * taken idempotency keys, then one lookup to tell new rows from duplicates.
+     */
+    @Transactional
+    public JobBatchCreateResponse createJobs(List<JobCreateRequest> requests) {
+        if (requests.size() > properties.getApi().getMaxBatchSize()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Batch of " + requests.size() + " exceeds limit of " + properties.getApi().getMaxBatchSize());
+        }
+
+        long started = System.nanoTime();
+        Instant now = Instant.now();
+        JobBatchItemResult[] results = new JobBatchItemResult[requests.size()];
+        List<JobEntity> toInsert = new ArrayList<>(requests.size());
+        List<Integer> insertIndexes = new ArrayList<>(requests.size());
+        // First occurrence of each key within this batch; later ones are duplicates of it
+        Map<String, Integer> firstIndexByKey = new HashMap<>();
+
+        // Every parent of the batch is locked at once, in id order
+        Set<UUID> allParents = new HashSet<>();
+        for (JobCreateRequest request : requests) {
+            if (request != null) allParents.addAll(parentIds(request));
+        }
+        Map<UUID, JobState> parents = jobJdbcRepo.lockParents(allParents);
+
+        for (int i = 0; i < requests.size(); i++) {
+            JobCreateRequest request = requests.get(i);
+            String error = validate(request);
+            if (error != null) {
+                results[i] = new JobBatchItemResult(i, null, BatchItemStatus.REJECTED, error);
+                continue;
+            }
+            String key = request.idempotencyKey();
+            if (key != null && firstIndexByKey.putIfAbsent(key, i) != null) {
+                continue;
+            }
+            JobEntity job;
+            try {
+                job = toEntity(request, now);
+                job.setId(UUID.randomUUID());
+                blockOnParents(job, request, parents);
+            } catch (ResponseStatusException e) {
+                results[i] = new JobBatchItemResult(i, null, BatchItemStatus.REJECTED, e.getReason());
+                firstIndexByKey.remove(key, i);
+                continue;
             }
+            toInsert.add(job);
+            insertIndexes.add(i);
         }
 
+        jobJdbcRepo.insertIgnoringDuplicates(toInsert);
+        Map<String, UUID> idsByKey = jobJdbcRepo.findIdsByIdempotencyKeys(firstIndexByKey.keySet());
+
+        List<JobRef> created = new ArrayList<>(toInsert.size());
+        List<JobRef> ready = new ArrayList<>(toInsert.size());
+        Map<UUID, List<UUID>> parentsByChild = new HashMap<>();
+        for (int n = 0; n < toInsert.size(); n++) {
+            JobEntity job = toInsert.get(n);
+            int i = insertIndexes.get(n);
+            UUID existing = job.getIdempotencyKey() == null ? null : idsByKey.get(job.getIdempotencyKey());
+            if (existing == null || existing.equals(job.getId())) {
+                results[i] = new JobBatchItemResult(i, job.getId(), BatchItemStatus.CREATED, null);
+                JobRef ref = new JobRef(job.getId(), job.getQueueType(), job.getScheduledAt(), job.getPriority());
+                created.add(ref);
+                if (job.getState() == JobState.PENDING) ready.add(ref);
+                List<UUID> jobParents = parentIds(requests.get(i));
+                if (!jobParents.isEmpty()) parentsByChild.put(job.getId(), jobParents);
+                metrics.created(job.getQueueType());
+            } else {
+                results[i] = new JobBatchItemResult(i, existing, BatchItemStatus.DUPLICATE, null);
+            }
+        }
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == null) {
+                UUID existing = idsByKey.get(requests.get(i).idempotencyKey());
+                results[i] = new JobBatchItemResult(i, existing, BatchItemStatus.DUPLICATE, null);
+            }
+        }
+
+        jobJdbcRepo.insertDependencies(parentsByChild);
+        delayedQueue.scheduleAfterCommit(ready);
+        notifier.notifyDue(ready.stream().filter(job -> !job.scheduledAt().isAfter(now)).map(JobRef::queueType).toList());
+
+        int rejected = (int) Arrays.stream(results).filter(r -> r.status() == BatchItemStatus.REJECTED).count();
+        int duplicates = requests.size() - created.size() - rejected;
+        long elapsedNanos = System.nanoTime() - started;
+        metrics.recordCreate(true, elapsedNanos);
+        log.debug("Batch created {} jobs ({} duplicates, {} rejected) in {}ms", created.size(), duplicates,
+                rejected, elapsedNanos / 1_000_000);
+
+        return new JobBatchCreateResponse(created.size(), duplicates, rejected, Arrays.asList(results));
+    }
+
+    @Transactional(readOnly = true)
+    public JobCreateResponse getJobStatus(UUID jobId) {
+        // Finished jobs move to jobs_archive after the retention window
+        return jobRepo.findById(jobId)
+                .map(this::mapToResponse)
+                .or(() -> archiveRepo.findById(jobId, (rs, rowNum) -> mapRow(rs, true)))
+                .orElseThrow(() -> new RuntimeException("Job not found with ID: " + jobId));
+    }
+
+    /**
+     * Attempt history, oldest first. Written behind the workers, so the latest attempt can
+     * take a moment to show up. Empty once the job is archived: history is not kept in jobs_archive.
+     */
+    @Transactional(readOnly = true)
+    public List<JobAttemptResponse> getJobAttempts(UUID jobId) {
+        List<JobAttemptEntity> attempts = attemptRepo.findByJobIdOrderByAttemptNumberAscStartedAtAsc(jobId);
+        if (attempts.isEmpty()) {
+            getJobStatus(jobId); // unknown job: same error as GET /{id} rather than an empty history
+        }
+        return attempts.stream()
+                .map(attempt -> new JobAttemptResponse(
+                        attempt.getAttemptNumber(),
+                        attempt.getWorkerId(),
+                        attempt.getOutcome(),
+                        attempt.getStartedAt(),
+                        attempt.getFinishedAt(),
+                        attempt.getDurationMs(),
+                        attempt.getError(),
+                        attempt.getErrorPayload() == null ? null : parsePayload(attempt.getErrorPayload())))
+                .toList();
+    }
+
+    /**
+     * Filtered listing with keyset pagination on (scheduled_at, id); payloads are only
+     * read and parsed when asked for.
+     */
+    @Transactional(readOnly = true)
+    public JobListResponse listJobs(JobFilter filter, String cursor, int limit, boolean includePayload) {
+        JobCursor after;
+        try {
+            after = cursor == null || cursor.isBlank() ? null : JobCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        int pageSize = Math.max(1, Math.min(limit, properties.getApi().getMaxPageSize()));
+
+        List<JobCreateResponse> jobs = jobJdbcRepo.findPage(filter, after, pageSize, includePayload,
+                (rs, rowNum) -> mapRow(rs, includePayload));
+
+        String nextCursor = null;
+        if (jobs.size() == pageSize) {
+            JobCreateResponse last = jobs.get(jobs.size() - 1);
+            nextCursor = new JobCursor(last.scheduledAt(), last.id()).encode();
+        }
+        return new JobListResponse(jobs, nextCursor);
+    }
+
+    /**
+     * Write every matching job as one JSON line, reading through a DB cursor so memory stays flat
+     */
+    @Transactional(readOnly = true)
+    public void streamJobs(JobFilter filter, boolean includePayload, OutputStream out) {
+        int fetchSize = properties.getApi().getStreamFetchSize();
+        long[] rows = {0};
+        jobJdbcRepo.streamAll(filter, includePayload, fetchSize, rs -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(mapRow(rs, includePayload)));
+                out.write('\n');
+                if (++rows[0] % fetchSize == 0) out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String validate(JobCreateRequest request) {
+        if (request == null) return "request is null";
+        if (request.queueType() == null) return "queueType is required";
+        if (request.taskType() == null || request.taskType().isBlank()) return "taskType is required";
+        if (request.scheduledAt() == null) return "scheduledAt is required";
+        if (request.dependsOn() != null && request.dependsOn().stream().anyMatch(Objects::isNull)) return "dependsOn contains null";
+        if (request.retryBackoff() != null) {
+            try {
+                BackoffPolicy.from(request.retryBackoff());
+            } catch (IllegalArgumentException e) {
+                return "retryBackoff: " + e.getMessage();
+            }
+        }
+        return null;
+    }
+
+    private static List<UUID> parentIds(JobCreateRequest request) {
+        return request.dependsOn() == null ? List.of()
+                : request.dependsOn().stream().filter(Objects::nonNull).distinct().toList();
+    }
+
+    /**
+     * Hold a new job back until its parents (locked by lockParents) have succeeded.
+     * An unknown parent is a bad request; a DEAD one means the job could never run.
+     */
+    private static void blockOnParents(JobEntity job, JobCreateRequest request, Map<UUID, JobState> parents) {
+        int remaining = 0;
+        for (UUID parentId : parentIds(request)) {
+            JobState state = parents.get(parentId);
+            if (state == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown parent job " + parentId);
+            }
+            if (state == JobState.DEAD) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Parent job " + parentId + " is DEAD");
+            }
+            if (state != JobState.SUCCEEDED) remaining++;
+        }
+        if (remaining > 0) {
+            job.setState(JobState.BLOCKED);
+            job.setRemainingParents(remaining);
+            job.setQueuedAt(null); // released by the last parent to succeed, never by the sweep
+        }
+    }
+
+    /**
+     * New PENDING row for the request; a payload or retryBackoff that can't be stored is a 400
+     */
+    private JobEntity toEntity(JobCreateRequest request, Instant now) {
         String payloadJson;
         try {
             payloadJson = objectMapper.writeValueAsString(request.payload());
         } catch (JsonProcessingException e) {
-            throw new RuntimeException("Error converting payload to JSON", e);
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "payload is not serializable: " + e.getOriginalMessage(), e);
         }
 
         JobEntity job = JobEntity.builder()
@@ -55,49 +393,55 @@ public class JobService {
                 .priority(Optional.ofNullable(request.priority()).orElse(100))
                 .maxAttempts(Optional.ofNullable(request.maxAttempts()).orElse(5))
                 .idempotencyKey(request.idempotencyKey())
+                .workflowId(request.workflowId())
                 .state(JobState.PENDING)
                 .archived(false)
                 .build();
 
-        job.setCreatedAt(Instant.now());
-        job.setUpdatedAt(Instant.now());
-
-        JobEntity saved = jobRepo.save(job);
-
-        System.out.println("✅ Created job " + saved.getId() +
-                " [queue=" + saved.getQueueType() +
-                ", scheduled=" + saved.getScheduledAt() + "]");
-
-        return mapToResponse(saved);
-    }
-
-    @Transactional(readOnly = true)
-    public JobCreateResponse getJobStatus(UUID jobId) {
-        JobEntity job = jobRepo.findById(jobId)
-                .orElseThrow(() -> new RuntimeException("Job not found with ID: " + jobId));
-        return mapToResponse(job);
+        String retryBackoff;
+        try {
+            retryBackoff = backoff.policyJson(request.queueType(), request.retryBackoff());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+        if (retryBackoff != null) {
+            job.setRetryBackoff(retryBackoff); // otherwise the entity's exponential default
+        }
+        job.setCreatedAt(now);
+        job.setUpdatedAt(now);
+        // Handed to Redis after commit (due jobs straight to the ready queue), so the sweep skips it
+        job.setQueuedAt(now);
+        return job;
     }
 
-    @Transactional(readOnly = true)
-    public List<JobCreateResponse> getAllJobs() {
-        return jobRepo.findAll().stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    private JobCreateResponse mapRow(ResultSet rs, boolean includePayload) throws SQLException {
+        return new JobCreateResponse(
+                rs.getObject("id", UUID.class),
+                QueueType.valueOf(rs.getString("queue_type")),
+                rs.getString("task_type"),
+                includePayload ? parsePayload(rs.getString("payload")) : null,
+                rs.getTimestamp("scheduled_at").toInstant(),
+                JobState.valueOf(rs.getString("state")),
+                rs.getInt("priority"),
+                rs.getInt("max_attempts"),
+                rs.getTimestamp("created_at").toInstant()
+        );
     }
 
-    private JobCreateResponse mapToResponse(JobEntity job) {
-        Map<String, Object> payloadMap;
+    private Map<String, Object> parsePayload(String payload) {
         try {
-            payloadMap = objectMapper.readValue(job.getPayload(), new TypeReference<>() {});
+            return objectMapper.readValue(payload, new TypeReference<>() {});
         } catch (JsonProcessingException e) {
-            payloadMap = Map.of();
+            return Map.of();
         }
+    }
 
+    JobCreateResponse mapToResponse(JobEntity job) {
         return new JobCreateResponse(
                 job.getId(),
                 job.getQueueType(),
                 job.getTaskType(),
-                payloadMap,
+                parsePayload(job.getPayload()),
                 job.getScheduledAt(),
                 job.getState(),
                 job.getPriority(),
@@ -1,12 +1,14 @@
 package com.sde.chronoqueue.services;
 
+import com.sde.chronoqueue.config.ChronoQueueProperties;
+import com.sde.chronoqueue.dtos.JobRef;
 import com.sde.chronoqueue.entities.JobEntity;
-import com.sde.chronoqueue.enums.JobState;
+import com.sde.chronoqueue.metrics.ChronoQueueMetrics;
 import com.sde.chronoqueue.repositories.JobEntityRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
 import java.util.List;
@@ -15,38 +17,58 @@ import java.util.List;
 @RequiredArgsConstructor
 public class LeaseReaperService {
 
+    // Shared by every node; keeps chunks from overlapping when the cycle lease is unavailable
+    private static final long REAPER_LOCK_KEY = "chronoqueue:lease-reaper".hashCode();
+
     private final JobEntityRepository jobRepo;
+    private final DelayedQueueService delayedQueue;
+    private final ChronoQueueProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final ChronoQueueMetrics metrics;
+    private final CycleLease cycleLease;
 
     /**
      * Detect jobs with expired leases and requeue them
-     * This handles worker crashes or network partitions
+     * This handles worker crashes or network partitions.
+     * Only the node holding this cycle's lease reaps. Each chunk is one UPDATE ... RETURNING
+     * in its own transaction, guarded by a Postgres advisory lock.
      */
-    @Scheduled(fixedRate = 15000)
-    @Transactional
+    @Scheduled(fixedRateString = "${chronoqueue.reaper.interval-ms:15000}")
     public void detectAndRecoverStuckJobs() {
-        Instant now = Instant.now();
+        if (!cycleLease.tryAcquire("reaper", properties.getReaper().getIntervalMs())) {
+            return; // another node reaps this cycle
+        }
 
-        // Find jobs where lease has expired
-        List<JobEntity> stuckJobs = jobRepo.findByStateAndLeaseExpiresAtBefore(
-                JobState.RUNNING, now
-        );
+        int chunkSize = properties.getReaper().getChunkSize();
+        int recovered = 0;
 
-        for (JobEntity job : stuckJobs) {
-            System.out.println("💀 Detected stuck job " + job.getId() +
-                    " (worker: " + job.getOwnerWorkerId() + "), requeueing");
+        while (true) {
+            List<JobEntity> reaped = transactionTemplate.execute(status -> reapChunk(chunkSize));
+            if (reaped == null) break; // a late cycle on another node is still reaping
 
-            job.setState(JobState.PENDING);
-            job.setScheduledAt(Instant.now().plusSeconds(5)); // retry soon
-            job.setOwnerWorkerId(null);
-            job.setLeaseExpiresAt(null);
-            job.setQueuedAt(null); // Allow scheduler to re-queue
-            job.setUpdatedAt(Instant.now());
+            recovered += reaped.size();
+            if (reaped.size() < chunkSize) break;
+        }
 
-            jobRepo.save(job);
+        metrics.reaped(recovered);
+        if (recovered > 0) {
+            System.out.println("♻️ Lease Reaper recovered " + recovered + " stuck jobs");
         }
+    }
 
-        if (!stuckJobs.isEmpty()) {
-            System.out.println("♻️ Lease Reaper recovered " + stuckJobs.size() + " stuck jobs");
+    private List<JobEntity> reapChunk(int chunkSize) {
+        if (!jobRepo.tryAdvisoryXactLock(REAPER_LOCK_KEY)) {
+            return null;
         }
+
+        Instant now = Instant.now();
+        Instant retryAt = now.plusMillis(properties.getReaper().getRequeueDelayMs());
+        List<JobEntity> reaped = jobRepo.reapExpiredLeases(now, retryAt, chunkSize);
+
+        // Straight back onto the delayed queue instead of waiting for the scheduler sweep
+        delayedQueue.scheduleAfterCommit(reaped.stream()
+                .map(job -> new JobRef(job.getId(), job.getQueueType(), job.getScheduledAt(), job.getPriority()))
+                .toList());
+        return reaped;
     }
-}
\ No newline at end of file
+}
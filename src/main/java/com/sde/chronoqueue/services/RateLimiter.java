@@ -0,0 +1,149 @@
+package com.sde.chronoqueue.services;
+
+import com.sde.chronoqueue.config.ChronoQueueProperties;
+import com.sde.chronoqueue.enums.QueueType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cluster-wide token buckets in Redis (chrono:rate:&lt;bucket&gt;), one per rate-limited queue and
+ * taskType, refilled by a Lua script. Nodes take tokens in small leases so most claims don't cost
+ * a Redis round trip. A lease holds at most a tenth of a second's worth of the rate (capped at
+ * lease-size), so a large claim takes several rounds rather than the whole bucket, and expires
+ * after lease-ttl-ms, so an idle node can't sit on the cluster's tokens.
+ * If Redis can't be reached no tokens are granted; the jobs simply stay queued.
+ */
+@Service
+@RequiredArgsConstructor
+public class RateLimiter {
+
+    private static final RedisScript<Long> TOKEN_BUCKET_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/token-bucket.lua"), Long.class);
+
+    // Deferred jobs come back no sooner than this, so a slow rate can't turn into a hot loop
+    private static final long MIN_DEFERRAL_MS = 100;
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ChronoQueueProperties properties;
+
+    private final Map<String, Lease> leases = new ConcurrentHashMap<>();
+
+    private static final class Lease {
+        private int tokens;
+        private long expiresAt;
+    }
+
+    public boolean limitsTaskTypes() {
+        return !properties.getRateLimit().getTaskTypes().isEmpty();
+    }
+
+    /**
+     * Tokens for up to {@code wanted} jobs of this queue; all of them if the queue has no limit
+     */
+    public int acquire(QueueType queue, int wanted) {
+        return acquire(queueBucket(queue), properties.getRateLimit().getQueues().get(queue), wanted);
+    }
+
+    /**
+     * Tokens for up to {@code wanted} jobs of this taskType; all of them if it has no limit
+     */
+    public int acquire(String taskType, int wanted) {
+        return acquire(taskBucket(taskType), properties.getRateLimit().getTaskTypes().get(taskType), wanted);
+    }
+
+    /**
+     * Hand back queue tokens that were acquired but not spent on a job. The lease keeps at most
+     * its usual size; the rest is dropped, as an idle bucket would.
+     */
+    public void release(QueueType queue, int unused) {
+        Double rate = properties.getRateLimit().getQueues().get(queue);
+        Lease lease = leases.get(queueBucket(queue));
+        if (rate == null || lease == null || unused <= 0) return;
+        synchronized (lease) {
+            if (lease.expiresAt > System.currentTimeMillis()) {
+                lease.tokens = Math.min(lease.tokens + unused, leaseSize(rate));
+            }
+        }
+    }
+
+    /**
+     * How long to hold back the n-th (0-based) over-limit job of a taskType, so deferred
+     * jobs come back spread out at the taskType's rate instead of all at once
+     */
+    public Duration deferral(String taskType, int position) {
+        return spacing(properties.getRateLimit().getTaskTypes().get(taskType), position + 1);
+    }
+
+    /**
+     * Roughly when a throttled queue will have a token again
+     */
+    public Duration retryAfter(QueueType queue) {
+        return spacing(properties.getRateLimit().getQueues().get(queue), 1);
+    }
+
+    private static Duration spacing(Double rate, int tokens) {
+        long millis = rate == null ? MIN_DEFERRAL_MS : (long) Math.ceil(tokens * 1000 / rate);
+        return Duration.ofMillis(Math.max(MIN_DEFERRAL_MS, millis));
+    }
+
+    private int acquire(String bucket, Double rate, int wanted) {
+        if (rate == null || wanted <= 0) return wanted;
+
+        Lease lease = leases.computeIfAbsent(bucket, b -> new Lease());
+        synchronized (lease) {
+            long now = System.currentTimeMillis();
+            if (lease.expiresAt <= now) {
+                lease.tokens = 0;
+            }
+            int room = leaseSize(rate) - lease.tokens;
+            if (lease.tokens < wanted && room > 0) {
+                // Top the lease up to its size and no further, so one node can't drain the cluster's
+                // bucket; a caller that wants more gets part now and comes back for the rest
+                int granted = take(bucket, rate, room, now);
+                if (granted > 0) {
+                    // Tokens already held keep their expiry
+                    if (lease.tokens == 0) {
+                        lease.expiresAt = now + properties.getRateLimit().getLeaseTtlMs();
+                    }
+                    lease.tokens += granted;
+                }
+            }
+            int taken = Math.min(wanted, lease.tokens);
+            lease.tokens -= taken;
+            return taken;
+        }
+    }
+
+    private int take(String bucket, double rate, int wanted, long now) {
+        double capacity = Math.max(1, rate * properties.getRateLimit().getBurstSeconds());
+        try {
+            Long granted = redisTemplate.execute(TOKEN_BUCKET_SCRIPT, List.of("chrono:rate:" + bucket),
+                    String.valueOf(rate), String.valueOf(capacity), String.valueOf(wanted), String.valueOf(now));
+            return granted == null ? 0 : granted.intValue();
+        } catch (DataAccessException redisError) {
+            System.err.println("⚠️ Rate limiter unavailable, holding back " + bucket + ": " + redisError.getMessage());
+            return 0;
+        }
+    }
+
+    private int leaseSize(double rate) {
+        return (int) Math.max(1, Math.min(properties.getRateLimit().getLeaseSize(), rate / 10));
+    }
+
+    private static String queueBucket(QueueType queue) {
+        return "queue:" + queue.name().toLowerCase();
+    }
+
+    private static String taskBucket(String taskType) {
+        return "task:" + taskType;
+    }
+}
@@ -0,0 +1,103 @@
+package com.sde.chronoqueue.services;
+
+import com.sde.chronoqueue.config.ChronoQueueProperties;
+import com.sde.chronoqueue.dtos.JobCreateRequest;
+import com.sde.chronoqueue.entities.RecurringJobEntity;
+import com.sde.chronoqueue.metrics.ChronoQueueMetrics;
+import com.sde.chronoqueue.recurring.RecurrenceSchedule;
+import com.sde.chronoqueue.repositories.RecurringJobRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Turns recurring definitions into jobs ahead of time. Each pass only reads definitions whose
+ * next_fire_at falls within the lookahead window (an index range scan, not a scan of every
+ * definition), creates one job per fire time through the batch insert and moves next_fire_at on.
+ * Each job's idempotency key is recurring:&lt;definition id&gt;:&lt;fire time millis&gt;, so a fire time
+ * can never produce two jobs, even if a pass is retried.
+ */
+@Service
+@RequiredArgsConstructor
+public class RecurringJobMaterializer {
+
+    private final RecurringJobRepository recurringRepo;
+    private final RecurringJobService recurringService;
+    private final JobService jobService;
+    private final ChronoQueueProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final ChronoQueueMetrics metrics;
+
+    private record Chunk(int definitions, int jobs) {}
+
+    /**
+     * Safe on every node: chunks are locked with SKIP LOCKED, so nodes split the due definitions
+     */
+    @Scheduled(fixedDelayString = "${chronoqueue.recurring.poll-interval-ms:1000}")
+    public void materializeDueJobs() {
+        int chunkSize = properties.getRecurring().getChunkSize();
+        int jobs = 0;
+        while (true) {
+            Chunk chunk = transactionTemplate.execute(status -> materializeChunk(chunkSize));
+            if (chunk == null) break;
+
+            jobs += chunk.jobs();
+            if (chunk.definitions() < chunkSize) break;
+        }
+
+        metrics.recurringFired(jobs);
+        if (jobs > 0) {
+            System.out.println("🔁 Materialized " + jobs + " recurring job(s)");
+        }
+    }
+
+    private Chunk materializeChunk(int chunkSize) {
+        ChronoQueueProperties.Recurring config = properties.getRecurring();
+        Instant now = Instant.now();
+        Instant until = now.plusMillis(config.getLookaheadMs());
+        Duration misfireThreshold = Duration.ofMillis(config.getMisfireThresholdMs());
+
+        List<RecurringJobEntity> due = recurringRepo.lockDue(until, chunkSize);
+        List<JobCreateRequest> requests = new ArrayList<>();
+        for (RecurringJobEntity definition : due) {
+            RecurrenceSchedule.Fires fires;
+            try {
+                fires = RecurrenceSchedule.of(definition.getCronExpression(), definition.getIntervalSeconds(),
+                                definition.getTimezone())
+                        .fires(definition.getNextFireAt(), now, until, definition.getMisfirePolicy(),
+                                misfireThreshold, config.getMaxFiresPerPass());
+            } catch (IllegalArgumentException e) {
+                // Only reachable if the row was edited by hand; stop it instead of failing every pass
+                System.err.println("⚠️ Disabling recurring job " + definition.getName() + ": " + e.getMessage());
+                definition.setEnabled(false);
+                continue;
+            }
+
+            Map<String, Object> payload = recurringService.parseJson(definition.getPayload());
+            Map<String, Object> retryBackoff = recurringService.parseJson(definition.getRetryBackoff());
+            for (RecurrenceSchedule.Fire fire : fires.fires()) {
+                requests.add(new JobCreateRequest(definition.getQueueType(), definition.getTaskType(), payload,
+                        fire.runAt(), definition.getPriority(), definition.getMaxAttempts(), retryBackoff,
+                        "recurring:" + definition.getId() + ":" + fire.fireTime().toEpochMilli(), null, null));
+            }
+            if (!fires.fires().isEmpty()) {
+                definition.setLastFiredAt(fires.fires().get(fires.fires().size() - 1).fireTime());
+            }
+            definition.setNextFireAt(fires.next());
+        }
+
+        // Same transaction as the next_fire_at updates, so a failed pass is simply redone
+        int batchSize = properties.getApi().getMaxBatchSize();
+        for (int from = 0; from < requests.size(); from += batchSize) {
+            jobService.createJobs(requests.subList(from, Math.min(from + batchSize, requests.size())));
+        }
+        return new Chunk(due.size(), requests.size());
+    }
+}
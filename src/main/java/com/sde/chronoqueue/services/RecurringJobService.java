@@ -0,0 +1,168 @@
+package com.sde.chronoqueue.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sde.chronoqueue.dtos.RecurringJobRequest;
+import com.sde.chronoqueue.dtos.RecurringJobResponse;
+import com.sde.chronoqueue.entities.RecurringJobEntity;
+import com.sde.chronoqueue.enums.MisfirePolicy;
+import com.sde.chronoqueue.recurring.RecurrenceSchedule;
+import com.sde.chronoqueue.repositories.RecurringJobRepository;
+import com.sde.chronoqueue.retry.BackoffPolicy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * CRUD for recurring job definitions. Jobs are created from them by {@link RecurringJobMaterializer}.
+ */
+@Service
+@RequiredArgsConstructor
+public class RecurringJobService {
+
+    private final RecurringJobRepository recurringRepo;
+    private final ObjectMapper objectMapper;
+
+    @Transactional
+    public RecurringJobResponse create(RecurringJobRequest request) {
+        RecurrenceSchedule schedule = validate(request);
+        if (recurringRepo.existsByName(request.name())) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Recurring job " + request.name() + " already exists");
+        }
+
+        RecurringJobEntity definition = new RecurringJobEntity();
+        apply(definition, request, schedule);
+        try {
+            definition = recurringRepo.saveAndFlush(definition);
+        } catch (DataIntegrityViolationException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Recurring job " + request.name() + " already exists");
+        }
+
+        System.out.println("🔁 Created recurring job " + definition.getName() +
+                " [next fire=" + definition.getNextFireAt() + "]");
+        return mapToResponse(definition);
+    }
+
+    /**
+     * Replace a definition. The schedule restarts from startAt (or now); jobs already created
+     * within the materializer's lookahead window are kept.
+     */
+    @Transactional
+    public RecurringJobResponse update(UUID id, RecurringJobRequest request) {
+        RecurrenceSchedule schedule = validate(request);
+        RecurringJobEntity definition = find(id);
+        if (!definition.getName().equals(request.name()) && recurringRepo.existsByName(request.name())) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Recurring job " + request.name() + " already exists");
+        }
+
+        apply(definition, request, schedule);
+        return mapToResponse(recurringRepo.saveAndFlush(definition));
+    }
+
+    @Transactional
+    public void delete(UUID id) {
+        recurringRepo.delete(find(id));
+    }
+
+    @Transactional(readOnly = true)
+    public RecurringJobResponse get(UUID id) {
+        return mapToResponse(find(id));
+    }
+
+    @Transactional(readOnly = true)
+    public List<RecurringJobResponse> list() {
+        return recurringRepo.findAllByOrderByNameAsc().stream().map(this::mapToResponse).toList();
+    }
+
+    private RecurringJobEntity find(UUID id) {
+        return recurringRepo.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Recurring job not found with ID: " + id));
+    }
+
+    private RecurrenceSchedule validate(RecurringJobRequest request) {
+        if (request == null) throw badRequest("request is null");
+        if (request.name() == null || request.name().isBlank()) throw badRequest("name is required");
+        if (request.queueType() == null) throw badRequest("queueType is required");
+        if (request.taskType() == null || request.taskType().isBlank()) throw badRequest("taskType is required");
+        if (request.retryBackoff() != null) {
+            try {
+                BackoffPolicy.from(request.retryBackoff());
+            } catch (IllegalArgumentException e) {
+                throw badRequest("retryBackoff: " + e.getMessage());
+            }
+        }
+        try {
+            return RecurrenceSchedule.of(request.cron(), request.intervalSeconds(), request.timezone());
+        } catch (IllegalArgumentException e) {
+            throw badRequest(e.getMessage());
+        }
+    }
+
+    private static ResponseStatusException badRequest(String reason) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, reason);
+    }
+
+    private void apply(RecurringJobEntity definition, RecurringJobRequest request, RecurrenceSchedule schedule) {
+        definition.setName(request.name());
+        definition.setQueueType(request.queueType());
+        definition.setTaskType(request.taskType());
+        definition.setPayload(toJson(request.payload() == null ? Map.of() : request.payload()));
+        definition.setCronExpression(request.cron() == null || request.cron().isBlank() ? null : request.cron().trim());
+        definition.setIntervalSeconds(request.intervalSeconds());
+        definition.setTimezone(request.timezone() == null || request.timezone().isBlank() ? "UTC" : request.timezone().trim());
+        definition.setMisfirePolicy(Optional.ofNullable(request.misfirePolicy()).orElse(MisfirePolicy.FIRE_ONCE));
+        definition.setPriority(Optional.ofNullable(request.priority()).orElse(100));
+        definition.setMaxAttempts(Optional.ofNullable(request.maxAttempts()).orElse(5));
+        definition.setRetryBackoff(request.retryBackoff() == null ? null : toJson(request.retryBackoff()));
+        definition.setEnabled(Optional.ofNullable(request.enabled()).orElse(true));
+        definition.setNextFireAt(schedule.first(Optional.ofNullable(request.startAt()).orElseGet(Instant::now)));
+    }
+
+    private String toJson(Map<String, Object> value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Error converting payload to JSON", e);
+        }
+    }
+
+    Map<String, Object> parseJson(String json) {
+        if (json == null) return null;
+        try {
+            return objectMapper.readValue(json, new TypeReference<>() {});
+        } catch (JsonProcessingException e) {
+            return Map.of();
+        }
+    }
+
+    private RecurringJobResponse mapToResponse(RecurringJobEntity definition) {
+        return new RecurringJobResponse(
+                definition.getId(),
+                definition.getName(),
+                definition.getQueueType(),
+                definition.getTaskType(),
+                parseJson(definition.getPayload()),
+                definition.getCronExpression(),
+                definition.getIntervalSeconds(),
+                definition.getTimezone(),
+                definition.getMisfirePolicy(),
+                definition.getPriority(),
+                definition.getMaxAttempts(),
+                parseJson(definition.getRetryBackoff()),
+                definition.getEnabled(),
+                definition.getNextFireAt(),
+                definition.getLastFiredAt(),
+                definition.getCreatedAt()
+        );
+    }
+}
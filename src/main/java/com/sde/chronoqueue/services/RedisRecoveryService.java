@@ -1,56 +1,99 @@
 package com.sde.chronoqueue.services;
 
-import com.sde.chronoqueue.entities.JobEntity;
-import com.sde.chronoqueue.enums.JobState;
+import com.sde.chronoqueue.config.ChronoQueueProperties;
+import com.sde.chronoqueue.config.NodeIdentity;
+import com.sde.chronoqueue.dtos.JobRef;
 import com.sde.chronoqueue.repositories.JobEntityRepository;
+import com.sde.chronoqueue.repositories.JobJdbcRepository;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
+import java.util.UUID;
 
+/**
+ * Rebuilds the Redis queues from Postgres after Redis lost its data.
+ * The marker key chrono:recovery lives as long as Redis keeps its data. When it is missing, the
+ * node that recreates it (SET NX) re-adds every queued PENDING job, a keyset page at a time;
+ * the others skip. Nothing is re-added while Redis still holds the queues, so a node restart
+ * never duplicates entries in the ready queue.
+ */
 @Service
 @RequiredArgsConstructor
 public class RedisRecoveryService {
 
+    private static final String MARKER_KEY = "chrono:recovery";
+
+    private static final UUID MIN_UUID = new UUID(0L, 0L);
+
     private final JobEntityRepository jobRepo;
+    private final JobJdbcRepository jobJdbcRepo;
+    private final DelayedQueueService delayedQueue;
     private final RedisTemplate<String, String> redisTemplate;
+    private final NodeIdentity node;
+    private final ChronoQueueProperties properties;
 
-    private String queueKey(String queueType) {
-        return "chrono:queue:" + queueType.toLowerCase() + ":ready";
+    @PostConstruct
+    public void rebuildOnStartup() {
+        rebuildIfLost();
     }
 
     /**
-     * Rebuild Redis queues on application startup
-     * Recovers jobs that were queued before a crash
+     * Rebuild the queues if Redis came back empty; also catches a Redis restart while nodes keep running
      */
-    @PostConstruct
-    public void rebuildRedisQueues() {
-        System.out.println("🔄 Starting Redis queue recovery...");
-
-        // Only recover PENDING jobs that were queued before crash
-        List<JobEntity> recoverableJobs = jobRepo.findByStateAndQueuedAtIsNotNull(
-                JobState.PENDING
-        );
+    @Scheduled(fixedDelayString = "${chronoqueue.recovery.check-interval-ms:10000}")
+    public void rebuildIfLost() {
+        Duration timeout = Duration.ofMillis(properties.getRecovery().getRebuildTimeoutMs());
+        try {
+            // Held with a timeout while rebuilding, so a node that dies halfway hands the rebuild on
+            if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(MARKER_KEY, node.getId(), timeout))) {
+                return;
+            }
+        } catch (DataAccessException redisError) {
+            // Checked again once Redis is back
+            return;
+        }
 
+        System.out.println("🔄 Redis has no queues, rebuilding them from Postgres...");
+        int pageSize = properties.getScheduler().getPageSize();
+        Instant afterScheduledAt = Instant.EPOCH;
+        UUID afterId = MIN_UUID;
         int recovered = 0;
-        int failed = 0;
+        int released = 0;
+
+        while (true) {
+            List<JobRef> page = jobJdbcRepo.findQueuedPage(afterScheduledAt, afterId, pageSize);
+            if (page.isEmpty()) break;
+
+            JobRef last = page.get(page.size() - 1);
+            afterScheduledAt = last.scheduledAt();
+            afterId = last.id();
 
-        for (JobEntity job : recoverableJobs) {
             try {
-                redisTemplate.opsForList().leftPush(
-                        queueKey(job.getQueueType().name()),
-                        job.getId().toString()
-                );
-                recovered++;
-            } catch (Exception e) {
-                System.err.println("⚠️ Could not recover job " + job.getId() + ": " + e.getMessage());
-                failed++;
+                delayedQueue.schedule(page);
+                recovered += page.size();
+            } catch (DataAccessException redisError) {
+                // Clear queuedAt so the scheduler sweep takes over these jobs
+                jobRepo.markUnqueued(page.stream().map(JobRef::id).toList());
+                released += page.size();
             }
+
+            if (page.size() < pageSize) break;
         }
 
+        try {
+            // Jobs that could not be re-added are the sweep's now, so the rebuild is complete either way
+            redisTemplate.persist(MARKER_KEY);
+        } catch (DataAccessException redisError) {
+            // The marker expires and the next check rebuilds again
+        }
         System.out.println("♻️ Redis queues rebuilt: " + recovered + " jobs recovered" +
-                (failed > 0 ? ", " + failed + " failed" : ""));
+                (released > 0 ? " (" + released + " left for the scheduler sweep)" : ""));
     }
-}
\ No newline at end of file
+}
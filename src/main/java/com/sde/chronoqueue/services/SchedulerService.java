@@ -1,69 +1,106 @@
 package com.sde.chronoqueue.services;
 
-import com.sde.chronoqueue.entities.JobEntity;
-import com.sde.chronoqueue.enums.JobState;
+import com.sde.chronoqueue.config.ChronoQueueProperties;
+import com.sde.chronoqueue.dtos.JobRef;
+import com.sde.chronoqueue.enums.QueueType;
+import com.sde.chronoqueue.metrics.ChronoQueueMetrics;
+import com.sde.chronoqueue.queue.ReadyQueue;
 import com.sde.chronoqueue.repositories.JobEntityRepository;
+import com.sde.chronoqueue.repositories.JobJdbcRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.dao.DataAccessException;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 public class SchedulerService {
 
-    private final JobEntityRepository jobRepo;
-    private final RedisTemplate<String, String> redisTemplate;
+    private static final UUID MIN_UUID = new UUID(0L, 0L);
 
-    private String queueKey(String queueType) {
-        return "chrono:queue:" + queueType.toLowerCase() + ":ready";
-    }
+    private final JobEntityRepository jobRepo;
+    private final JobJdbcRepository jobJdbcRepo;
+    private final ClusterMembershipService membership;
+    private final ReadyQueue readyQueue;
+    private final ChronoQueueProperties properties;
+    private final ChronoQueueMetrics metrics;
 
     /**
-     * Move due jobs from DB to Redis queues
+     * Move due jobs from DB to Redis queues, one keyset page at a time.
+     * New jobs go through the Redis delayed queue, so this sweep only catches
+     * jobs that never reached Redis (retries, reaped jobs, Redis outages).
+     * Each page is pushed to Redis in a single round trip and marked queued with a
+     * single UPDATE that commits on its own, so memory and transaction length
+     * stay bounded by the page size no matter how large the backlog is.
+     * Job IDs are hash-partitioned across live nodes, so each node sweeps only its share.
      */
-    @Scheduled(fixedRate = 5000)
-    @Transactional
+    @Scheduled(fixedRateString = "${chronoqueue.scheduler.sweep-interval-ms:5000}")
     public void moveDueJobsToRedis() {
         Instant now = Instant.now();
+        int pageSize = properties.getScheduler().getPageSize();
+        long startNanos = System.nanoTime();
+        // Only the hash partitions this node owns; other nodes sweep the rest
+        int[] partitions = membership.ownedPartitions();
 
-        // Find jobs that are PENDING, due, and not yet queued
-        List<JobEntity> dueJobs = jobRepo.findByStateAndScheduledAtBeforeAndQueuedAtIsNull(
-                JobState.PENDING, now
-        );
+        // Keyset cursor; pages that failed to push stay unqueued and are skipped until next cycle
+        Instant afterScheduledAt = Instant.EPOCH;
+        UUID afterId = MIN_UUID;
 
         int queued = 0;
         int failed = 0;
 
-        for (JobEntity job : dueJobs) {
-            String redisKey = queueKey(job.getQueueType().name());
-
-            try {
-                // Push to Redis
-                redisTemplate.opsForList().leftPush(redisKey, job.getId().toString());
-
-                // Mark as queued (but keep state as PENDING)
-                job.setQueuedAt(Instant.now());
-                job.setUpdatedAt(Instant.now());
-                jobRepo.save(job);
+        while (true) {
+            List<JobRef> page = jobJdbcRepo.findDuePage(
+                    now, afterScheduledAt, afterId, partitions, membership.partitionCount(), pageSize
+            );
+            if (page.isEmpty()) break;
 
-                queued++;
+            JobRef last = page.get(page.size() - 1);
+            afterScheduledAt = last.scheduledAt();
+            afterId = last.id();
 
-            } catch (Exception redisError) {
+            try {
+                pushPage(page);
+            } catch (DataAccessException redisError) {
                 // Redis is down - queuedAt stays null, will retry next cycle
-                System.err.println("⚠️ Redis unavailable, will retry job " + job.getId() +
-                        " in next cycle: " + redisError.getMessage());
-                failed++;
+                System.err.println("⚠️ Redis unavailable, will retry " + page.size() +
+                        " jobs in next cycle: " + redisError.getMessage());
+                failed += page.size();
+                continue;
             }
+
+            // Mark as queued (but keep state as PENDING)
+            queued += jobRepo.markQueued(page.stream().map(JobRef::id).toList(), Instant.now());
+
+            if (page.size() < pageSize) break;
         }
 
+        long elapsedNanos = System.nanoTime() - startNanos;
+        metrics.recordSweep(elapsedNanos, queued);
+
         if (queued > 0) {
-            System.out.println("📤 Scheduler queued " + queued + " jobs to Redis" +
+            long elapsedMs = Math.max(1, elapsedNanos / 1_000_000);
+            System.out.println("📤 Scheduler queued " + queued + " jobs to Redis in " + elapsedMs + "ms (" +
+                    (queued * 1000L / elapsedMs) + " jobs/s)" +
                     (failed > 0 ? " (" + failed + " failed)" : ""));
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Push a page to the ready queues in a single round trip
+     */
+    private void pushPage(List<JobRef> page) {
+        Map<QueueType, List<String>> byQueue = new EnumMap<>(QueueType.class);
+        for (JobRef job : page) {
+            byQueue.computeIfAbsent(job.queueType(), q -> new ArrayList<>()).add(job.id().toString());
+        }
+        readyQueue.push(byQueue);
+    }
+}
@@ -1,229 +1,594 @@
 package com.sde.chronoqueue.services;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sde.chronoqueue.config.ChronoQueueProperties;
+import com.sde.chronoqueue.config.NodeIdentity;
+import com.sde.chronoqueue.dtos.JobAttemptRecord;
+import com.sde.chronoqueue.dtos.JobRef;
+import com.sde.chronoqueue.dtos.PendingJob;
 import com.sde.chronoqueue.entities.JobEntity;
+import com.sde.chronoqueue.enums.AttemptOutcome;
 import com.sde.chronoqueue.enums.JobState;
+import com.sde.chronoqueue.enums.QueueType;
+import com.sde.chronoqueue.handlers.JobContext;
+import com.sde.chronoqueue.handlers.TaskHandlerRegistry;
+import com.sde.chronoqueue.handlers.UnknownTaskTypeException;
+import com.sde.chronoqueue.metrics.ChronoQueueMetrics;
+import com.sde.chronoqueue.queue.JobDescriptor;
+import com.sde.chronoqueue.queue.JobsDueEvent;
+import com.sde.chronoqueue.queue.LocalJobBuffer;
+import com.sde.chronoqueue.queue.QueuedJob;
+import com.sde.chronoqueue.queue.ReadyQueue;
 import com.sde.chronoqueue.repositories.JobEntityRepository;
+import com.sde.chronoqueue.repositories.JobJdbcRepository;
+import com.sde.chronoqueue.retry.BackoffEngine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.redis.core.RedisTemplate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
-import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.ThreadLocalRandom;
-
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class WorkerService {
 
     private final JobEntityRepository jobRepo;
-    private final RedisTemplate<String, String> redisTemplate;
+    private final ReadyQueue readyQueue;
+    private final JobExecutor executor;
+    private final TaskHandlerRegistry handlers;
+    private final NodeIdentity node;
+    private final ChronoQueueProperties properties;
     private final ObjectMapper objectMapper;
+    private final ChronoQueueMetrics metrics;
+    private final AttemptHistoryWriter attemptHistory;
+    private final BackoffEngine backoff;
+    private final DelayedQueueService delayedQueue;
+    private final RateLimiter rateLimiter;
+    private final JobJdbcRepository jobJdbcRepo;
+    private final TransactionTemplate transactionTemplate;
+    private final JobNotifier notifier;
+
+    // Per-queue buffers of claimed jobs waiting for a free permit, earliest due first
+    private final Map<QueueType, LocalJobBuffer> jobQueues = new EnumMap<>(QueueType.class);
+
+    // Attempts currently executing on this node
+    private final Map<UUID, JobContext> runningJobs = new ConcurrentHashMap<>();
+
+    // Jobs this worker holds a lease on: claimed, buffered or running
+    private final Set<UUID> inFlight = ConcurrentHashMap.newKeySet();
+
+    // One pending wake-up fetch per queue at a time
+    private final Map<QueueType, AtomicBoolean> wakePending = new EnumMap<>(QueueType.class);
+
+    private volatile boolean running = true;
+
+    @PostConstruct
+    public void initBuffers() {
+        for (QueueType queue : QueueType.values()) {
+            jobQueues.put(queue, new LocalJobBuffer(properties.getWorker().getBufferCapacity()));
+            wakePending.put(queue, new AtomicBoolean());
+        }
+    }
 
-    private final String workerId = UUID.randomUUID().toString();
-
-    // Thread-safe queue for in-memory job processing
-    private final Queue<JobEntity> jobQueue = new ConcurrentLinkedQueue<>();
+    private Instant leaseExpiry() {
+        return Instant.now().plusMillis(properties.getWorker().getLeaseDurationMs());
+    }
 
-    // Track jobs already in queue to prevent duplicates
-    private final Set<UUID> queuedJobIds = Collections.synchronizedSet(new HashSet<>());
+    /**
+     * How many more jobs this queue can take right now: free permits minus jobs already buffered,
+     * capped by the buffer's remaining capacity. Fetching stops for a queue once all of its
+     * permits are taken or its buffer is full (backpressure).
+     */
+    private int freeSlots(QueueType queue) {
+        LocalJobBuffer buffer = jobQueues.get(queue);
+        int free = Math.min(executor.availablePermits(queue) - buffer.size(), buffer.remainingCapacity());
+        return Math.max(0, Math.min(free, properties.getWorker().getFetchBatchSize()));
+    }
 
-    private String queueKey(String queueType) {
-        return "chrono:queue:" + queueType.toLowerCase() + ":ready";
+    /**
+     * Read and claim up to {@code slots} deliveries, as far as the queue's rate limit allows.
+     * Tokens are taken before anything is read from the ready queue, so over-limit jobs stay
+     * queued rather than being claimed; tokens the ready queue had no job for go back.
+     * Returns false if the rate limit held everything back.
+     */
+    private boolean pollAndClaim(QueueType queue, int slots, Duration block) {
+        int permitted = rateLimiter.acquire(queue, slots);
+        if (permitted > 0) {
+            List<QueuedJob> delivered = readyQueue.poll(queue, permitted, block);
+            rateLimiter.release(queue, permitted - delivered.size());
+            claimDelivered(queue, delivered);
+            if (delivered.size() < permitted) return true; // drained
+        }
+        if (permitted < slots && !readyQueue.isBlocking() && (permitted > 0 || readyQueue.depth(queue) > 0)) {
+            // Throttled with jobs left: look again once tokens are back instead of on the next poll
+            wake(queue, rateLimiter.retryAfter(queue).toMillis());
+        }
+        return permitted > 0;
     }
 
     /**
-     * Poll Redis & DB to refill in-memory queue
+     * Poll Redis & DB to refill in-memory queue.
+     * Jobs are claimed (leased to this worker) before they enter the queue.
      */
     @Scheduled(fixedRate = 3000)
     public void fetchAndQueueJobs() {
         // 1. Try Redis first (fast path)
-        for (String queue : new String[]{"EMAIL", "NOTIFICATION", "REPORT"}) {
-            String redisKey = queueKey(queue);
-
-            // Pop multiple jobs at once for efficiency
-            for (int i = 0; i < 10; i++) {
-                String jobId = redisTemplate.opsForList().rightPop(redisKey);
-                if (jobId == null) break;
-
-                try {
-                    UUID uuid = UUID.fromString(jobId);
-
-                    // Skip if already in our queue
-                    if (queuedJobIds.contains(uuid)) continue;
-
-                    jobRepo.findById(uuid)
-                            .filter(job -> job.getState() == JobState.PENDING)
-                            .ifPresent(job -> {
-                                jobQueue.offer(job);
-                                queuedJobIds.add(job.getId());
-                            });
-                } catch (Exception e) {
-                    System.err.println("⚠️ Invalid job ID from Redis: " + jobId);
+        for (QueueType queue : QueueType.values()) {
+            try {
+                // Blocking backends are drained by their consumer loops instead
+                int slots = freeSlots(queue);
+                if (!readyQueue.isBlocking() && slots > 0) {
+                    pollAndClaim(queue, slots, Duration.ZERO);
+                }
+                // Deliveries a crashed worker never acknowledged
+                slots = freeSlots(queue);
+                int permitted = slots == 0 ? 0 : rateLimiter.acquire(queue, slots);
+                if (permitted > 0) {
+                    List<QueuedJob> reclaimed = readyQueue.reclaim(queue, permitted);
+                    rateLimiter.release(queue, permitted - reclaimed.size());
+                    claimDelivered(queue, reclaimed);
                 }
+            } catch (DataAccessException redisError) {
+                System.err.println("⚠️ Could not fetch " + queue + " jobs from Redis: " + redisError.getMessage());
             }
         }
 
         // 2. DB fallback for missed jobs (Redis was down during scheduling)
-        // Only fetch jobs that were NOT successfully queued to Redis
-        List<JobEntity> missedJobs = jobRepo.findTop10ByStateAndQueuedAtIsNullAndScheduledAtBeforeOrderByPriorityDescScheduledAtAsc(
-                JobState.PENDING, Instant.now()
-        );
-
-        for (JobEntity job : missedJobs) {
-            if (!queuedJobIds.contains(job.getId())) {
-                jobQueue.offer(job);
-                queuedJobIds.add(job.getId());
+        // Only claims jobs that were NOT successfully queued to Redis, per queue so none
+        // gets more than its own free slots
+        int fallbackClaimed = 0;
+        for (QueueType queue : QueueType.values()) {
+            int slots = freeSlots(queue);
+            if (slots == 0) continue;
+
+            List<UUID> missed = jobRepo.findDueUnqueuedIds(queue.name(), Instant.now(), slots);
+            if (missed.isEmpty()) continue;
+
+            List<JobEntity> claimed = jobRepo.claimByIds(missed, node.getId(), leaseExpiry(), Instant.now());
+            metrics.claimed(queue, claimed.size());
+            if (claimed.size() < missed.size()) {
+                Set<UUID> skipped = new HashSet<>(missed);
+                claimed.forEach(job -> skipped.remove(job.getId()));
+                // Rows still PENDING were only locked for a moment; the next pass gets them
+                metrics.claimConflicts(queue, skipped.size() -
+                        jobRepo.findIdsByIdInAndState(skipped, JobState.PENDING).size());
             }
+            enqueueClaimed(claimed);
+            fallbackClaimed += claimed.size();
         }
 
-        if (!missedJobs.isEmpty()) {
-            System.out.println("🔄 Worker fetched " + missedJobs.size() +
+        if (fallbackClaimed > 0) {
+            System.out.println("🔄 Worker claimed " + fallbackClaimed +
                     " jobs from DB fallback (Redis was unavailable)");
         }
     }
 
     /**
-     * Process jobs from in-memory queue
+     * Push-style delivery: one blocking reader per queue when the backend supports it
      */
-    @Scheduled(fixedRate = 500)
-    public void processReadyJobs() {
-        Instant now = Instant.now();
+    @EventListener(ApplicationReadyEvent.class)
+    public void startConsumers() {
+        if (!readyQueue.isBlocking()) return;
+
+        Duration block = Duration.ofMillis(properties.getQueue().getStream().getBlockTimeoutMs());
+        for (QueueType queue : QueueType.values()) {
+            Thread.ofVirtual().name("chrono-consumer-" + queue.name().toLowerCase()).start(() -> {
+                while (running) {
+                    try {
+                        int slots = freeSlots(queue);
+                        if (slots == 0 || !pollAndClaim(queue, slots, block)) {
+                            sleepQuietly(50); // all permits busy or over the rate limit, stop reading
+                        }
+                    } catch (Exception e) {
+                        System.err.println("⚠️ " + queue + " consumer error: " + e.getMessage());
+                        sleepQuietly(1000);
+                    }
+                }
+            });
+        }
+    }
 
-        // Process up to 5 jobs per cycle
-        for (int i = 0; i < 5; i++) {
-            JobEntity job = jobQueue.poll();
-            if (job == null) break;
+    /**
+     * Jobs were just promoted; fetch them now instead of on the next poll.
+     * Blocking backends need nothing: their consumers are already waiting on the queue.
+     */
+    @EventListener
+    public void onJobsDue(JobsDueEvent event) {
+        if (readyQueue.isBlocking()) return;
+        wake(event.queueType(), 0);
+    }
 
-            // Remove from tracking set
-            queuedJobIds.remove(job.getId());
+    private void wake(QueueType queue, long delayMillis) {
+        if (!wakePending.get(queue).compareAndSet(false, true)) return;
 
-            // Check if job is ready
-            if (job.getScheduledAt().isAfter(now)) {
-                // Not ready yet, put it back
-                jobQueue.offer(job);
-                queuedJobIds.add(job.getId());
-                break; // Stop processing, jobs are roughly sorted
+        Thread.ofVirtual().name("chrono-wake-" + queue.name().toLowerCase()).start(() -> {
+            if (delayMillis > 0) sleepQuietly(delayMillis);
+            wakePending.get(queue).set(false);
+            try {
+                int slots = freeSlots(queue);
+                if (slots > 0) {
+                    pollAndClaim(queue, slots, Duration.ZERO);
+                }
+            } catch (Exception e) {
+                System.err.println("⚠️ " + queue + " wake-up fetch failed: " + e.getMessage());
             }
+        });
+    }
+
+    @PreDestroy
+    public void stopConsumers() {
+        running = false;
+    }
 
-            // Acquire lease before processing
-            if (acquireLease(job)) {
-                processJob(job);
+    /**
+     * Claim a batch of delivered job IDs in one statement, then acknowledge every delivery
+     */
+    private void claimDelivered(QueueType queue, List<QueuedJob> delivered) {
+        if (delivered.isEmpty()) return;
+
+        Map<UUID, String> candidates = new HashMap<>();
+        List<String> finished = new ArrayList<>();
+        for (QueuedJob delivery : delivered) {
+            // Skip if already buffered or running here
+            if (inFlight.contains(delivery.jobId())) {
+                addReceipt(finished, delivery.receipt());
             } else {
-                // Another worker grabbed it, skip
-                System.out.println("⚠️ Job " + job.getId() + " already claimed by another worker");
+                candidates.put(delivery.jobId(), delivery.receipt());
             }
         }
+
+        if (!candidates.isEmpty() && rateLimiter.limitsTaskTypes()) {
+            deferOverLimit(queue, candidates, finished);
+        }
+
+        if (!candidates.isEmpty()) {
+            // Claim the whole batch in one statement
+            List<JobEntity> claimed = jobRepo.claimByIds(
+                    candidates.keySet(), node.getId(), leaseExpiry(), Instant.now()
+            );
+            // The claim has committed: from here the lease and the reaper look after these jobs,
+            // so their deliveries are acknowledged now rather than when the job finishes
+            for (JobEntity job : claimed) {
+                addReceipt(finished, candidates.remove(job.getId()));
+            }
+            metrics.claimed(queue, claimed.size());
+            enqueueClaimed(claimed);
+
+            if (!candidates.isEmpty()) {
+                requeueSkipped(queue, candidates.keySet());
+                candidates.values().forEach(receipt -> addReceipt(finished, receipt));
+            }
+        }
+
+        if (!finished.isEmpty()) {
+            readyQueue.ack(queue, finished);
+        }
     }
 
     /**
-     * Acquire a lease on the job (distributed lock via DB)
+     * Jobs whose taskType is out of tokens go back to the delayed queue unclaimed, spaced out at
+     * the taskType's rate. They keep their attempt count; only the delivery is acknowledged.
      */
-    @Transactional
-    public boolean acquireLease(JobEntity job) {
-        // Re-fetch and lock the job
-        Optional<JobEntity> fresh = jobRepo.findById(job.getId());
+    private void deferOverLimit(QueueType queue, Map<UUID, String> candidates, List<String> finished) {
+        Map<String, List<PendingJob>> byTaskType = new HashMap<>();
+        for (PendingJob job : jobJdbcRepo.findPending(candidates.keySet())) {
+            byTaskType.computeIfAbsent(job.taskType(), t -> new ArrayList<>()).add(job);
+        }
 
-        if (fresh.isEmpty() || fresh.get().getState() != JobState.PENDING) {
-            return false; // Already processed or deleted
+        Instant now = Instant.now();
+        List<JobRef> deferred = new ArrayList<>();
+        byTaskType.forEach((taskType, jobs) -> {
+            // Highest priority first, so those get the tokens
+            int granted = rateLimiter.acquire(taskType, jobs.size());
+            for (int i = granted; i < jobs.size(); i++) {
+                PendingJob job = jobs.get(i);
+                deferred.add(new JobRef(job.id(), queue, now.plus(rateLimiter.deferral(taskType, i - granted)),
+                        job.priority()));
+                addReceipt(finished, candidates.remove(job.id()));
+            }
+        });
+        if (deferred.isEmpty()) return;
+
+        delayedQueue.scheduleAfterCommit(deferred);
+        rateLimiter.release(queue, deferred.size());
+        metrics.deferred(queue, deferred.size());
+    }
+
+    /**
+     * Jobs we could not claim were usually claimed by another worker. Rows that were only
+     * locked for a moment (SKIP LOCKED) are still PENDING and go back to the ready queue.
+     */
+    private void requeueSkipped(QueueType queue, Set<UUID> skipped) {
+        List<UUID> stillPending = jobRepo.findIdsByIdInAndState(skipped, JobState.PENDING);
+        if (!stillPending.isEmpty()) {
+            readyQueue.push(Map.of(queue, stillPending.stream().map(UUID::toString).toList()));
         }
 
-        JobEntity locked = fresh.get();
-        locked.setState(JobState.RUNNING);
-        locked.setOwnerWorkerId(workerId);
-        locked.setLeaseExpiresAt(Instant.now().plusSeconds(30));
-        locked.setUpdatedAt(Instant.now());
+        int conflicts = skipped.size() - stillPending.size();
+        metrics.claimConflicts(queue, conflicts);
+        if (conflicts > 0) {
+            System.out.println("⚠️ " + conflicts + " job(s) from " + queue +
+                    " already claimed by another worker");
+        }
+    }
 
-        jobRepo.save(locked);
+    private static void addReceipt(List<String> receipts, String receipt) {
+        if (receipt != null) receipts.add(receipt);
+    }
 
-        // Update our local reference
-        job.setState(JobState.RUNNING);
-        job.setOwnerWorkerId(workerId);
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 
-        return true;
+    private void enqueueClaimed(List<JobEntity> claimed) {
+        for (JobEntity job : claimed) {
+            if (inFlight.add(job.getId())) {
+                // Every claim is sized by its queue's freeSlots(); the buffer never rejects a claimed job,
+                // so fetches racing for the same slots can only overshoot by one batch
+                jobQueues.get(job.getQueueType()).add(JobDescriptor.from(job));
+            }
+        }
+        dispatch();
     }
 
     /**
-     * Execute job logic
+     * Safety net; jobs are normally dispatched as soon as they are claimed or a permit frees up
      */
-    @Transactional
-    public void processJob(JobEntity job) {
-        System.out.println("⚙️ [Worker:" + workerId.substring(0, 8) + "] Executing job " + job.getId() +
-                " [queue=" + job.getQueueType() +
-                ", priority=" + job.getPriority() +
-                ", attempt=" + (job.getAttempts() + 1) + "/" + job.getMaxAttempts() + "]");
+    @Scheduled(fixedRate = 500)
+    public void processReadyJobs() {
+        dispatch();
+    }
 
-        try {
-            // Simulate work with random duration
-            Thread.sleep(ThreadLocalRandom.current().nextInt(500, 2000));
+    /**
+     * Start buffered jobs on virtual threads while their queue has free permits.
+     * Every job in the buffers has already been claimed by this worker.
+     */
+    private void dispatch() {
+        for (QueueType queue : QueueType.values()) {
+            LocalJobBuffer buffer = jobQueues.get(queue);
+            // Called from the scheduler and from finishing jobs; one dispatcher per queue at a time,
+            // so a free permit seen here is still free when tryExecute runs
+            synchronized (buffer) {
+                while (executor.availablePermits(queue) > 0) {
+                    JobDescriptor job = buffer.pollDue(Instant.now());
+                    if (job == null) break; // empty, or the earliest job is not due yet
+
+                    if (!executor.tryExecute(queue, () -> processJob(job), this::dispatch)) {
+                        buffer.add(job);
+                        break;
+                    }
+                }
+            }
+        }
+    }
 
-            // Simulate 70% success rate
-            boolean success = ThreadLocalRandom.current().nextInt(100) > 30;
+    /**
+     * Execute job logic through the handler registered for its taskType.
+     * Completes when the attempt is recorded and handle() has returned; nothing waits on async handlers.
+     */
+    public CompletionStage<Void> processJob(JobDescriptor job) {
+        log.debug("Executing job {} [queue={}, task={}, priority={}, attempt={}/{}]", job.id(),
+                job.queueType(), job.taskType(), job.priority(), job.attempts() + 1, job.maxAttempts());
+
+        metrics.recordScheduleLag(job.queueType(), Duration.between(job.scheduledAt(), Instant.now()).toMillis());
+        long started = System.nanoTime();
+
+        JobContext context = new JobContext(job.id(), job.queueType(), job.taskType(), job.attempts() + 1);
+        runningJobs.put(job.id(), context);
+
+        CompletableFuture<Void> finished = handlers.execute(context, job.payload())
+                .handleAsync((ignored, error) -> {
+                    runningJobs.remove(job.id());
+                    completeJob(job, context, error, System.nanoTime() - started);
+                    return null;
+                }, executor.asyncExecutor());
+        // A timed-out job is retried right away, but its permit waits until a blocking handler
+        // has actually stopped, so the queue never runs more handlers than its limit
+        return finished.thenCombine(context.handlerReturned(), (a, b) -> null);
+    }
+
+    /**
+     * Cooperatively cancel a running job, e.g. because this worker no longer holds its lease.
+     * The job row is left alone: whoever owns the job now decides its fate.
+     */
+    public void cancel(UUID jobId) {
+        JobContext context = runningJobs.get(jobId);
+        if (context != null) {
+            context.cancel();
+        }
+    }
 
-            if (success) {
-                job.setState(JobState.SUCCEEDED);
-                job.setUpdatedAt(Instant.now());
-                jobRepo.save(job);
-                System.out.println("✅ Job " + job.getId() + " completed successfully");
+    private void completeJob(JobDescriptor job, JobContext context, Throwable error, long elapsedNanos) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        AttemptOutcome outcome = cause == null ? AttemptOutcome.SUCCESS
+                : cause instanceof TimeoutException ? AttemptOutcome.TIMEOUT
+                : cause instanceof CancellationException ? AttemptOutcome.CANCELLED
+                : AttemptOutcome.FAILURE;
+        metrics.recordExecution(job.queueType(), job.taskType(), outcome, elapsedNanos);
+
+        Instant finishedAt = Instant.now();
+        String message = cause == null ? null : errorMessage(outcome, cause);
+        String errorPayload = cause == null ? null : errorPayload(outcome, cause);
+        // Buffered and written in batches off the critical path
+        attemptHistory.record(new JobAttemptRecord(job.id(), context.getAttempt(), node.getId(), outcome,
+                finishedAt.minusNanos(elapsedNanos), finishedAt, message, errorPayload));
+
+        // Whoever removes the job from inFlight first decides: this completion or leaseLost()
+        if (!inFlight.remove(job.id())) {
+            // Lease was lost while running; the row belongs to someone else now
+            System.out.println("⚠️ Job " + job.id() + " finished after its lease was lost, result dropped");
+        } else if (outcome == AttemptOutcome.SUCCESS) {
+            int released = markSucceeded(job);
+            if (released < 0) {
+                System.out.println("⚠️ Job " + job.id() + " succeeded but is no longer owned by this worker");
             } else {
-                throw new RuntimeException("Simulated task failure");
+                log.debug("Job {} completed successfully, released {} dependent job(s)", job.id(), released);
             }
-
-        } catch (Exception e) {
-            handleFailure(job, e);
+        } else if (outcome == AttemptOutcome.TIMEOUT) {
+            context.cancel(); // let the handler know it should stop
+            handleFailure(job, outcome, message, errorPayload);
+        } else if (cause instanceof UnknownTaskTypeException) {
+            // No attempt can succeed, so the remaining ones aren't spent on retries
+            markDead(job, job.attempts() + 1, message, errorPayload);
+        } else if (outcome == AttemptOutcome.CANCELLED) {
+            System.out.println("🛑 Job " + job.id() + " cancelled: " + cause.getMessage());
+        } else {
+            handleFailure(job, outcome, message, errorPayload);
         }
     }
 
     /**
-     * Handle job failure with exponential backoff
+     * Mark the job SUCCEEDED and, in the same transaction, release children whose last
+     * unfinished parent it was. Returns how many were released, or -1 if the lease was lost.
      */
-    @Transactional
-    public void handleFailure(JobEntity job, Exception e) {
-        job.setAttempts(job.getAttempts() + 1);
-        job.setLastError(e.getMessage());
-        job.setUpdatedAt(Instant.now());
+    private int markSucceeded(JobDescriptor job) {
+        Integer released = transactionTemplate.execute(status -> {
+            Instant now = Instant.now();
+            List<Boolean> hasChildren = jobRepo.markSucceeded(job.id(), node.getId(), now);
+            if (hasChildren.isEmpty()) return -1;
+            if (!hasChildren.get(0)) return 0;
+
+            List<JobRef> ready = jobJdbcRepo.releaseChildren(job.id(), now);
+            delayedQueue.scheduleAfterCommit(ready);
+            return ready.size();
+        });
+        return released == null ? -1 : released;
+    }
 
-        if (job.getAttempts() < job.getMaxAttempts()) {
-            // Exponential backoff: 5s, 10s, 20s, 40s, 80s
-            long delaySeconds = (long) Math.pow(2, job.getAttempts()) * 5;
-            job.setScheduledAt(Instant.now().plusSeconds(delaySeconds));
-            job.setState(JobState.PENDING);
-            job.setOwnerWorkerId(null);
-            job.setLeaseExpiresAt(null);
-            job.setQueuedAt(null); // Allow re-queuing by scheduler
+    /**
+     * Handle job failure: retry after the delay from the job's backoff policy, or give up
+     * once maxAttempts is reached
+     */
+    public void handleFailure(JobDescriptor job, AttemptOutcome outcome, String message, String errorPayload) {
+        int attempts = job.attempts() + 1;
+        Instant now = Instant.now();
 
-            jobRepo.save(job);
+        if (attempts < job.maxAttempts()) {
+            Duration delay = backoff.nextDelay(job.retryBackoff(), attempts);
+            Instant retryAt = now.plus(delay);
+            Integer updated = transactionTemplate.execute(status -> {
+                int rows = jobRepo.scheduleRetry(job.id(), node.getId(), attempts, retryAt,
+                        message, errorPayload, now);
+                if (rows > 0) {
+                    // Straight back to the delayed queue; the sweep only covers a Redis failure here
+                    delayedQueue.scheduleAfterCommit(List.of(new JobRef(job.id(), job.queueType(), retryAt, job.priority())));
+                    if (delay.toMillis() <= properties.getTimer().getHorizonMs()) {
+                        // Other nodes put it on their timing wheels now, not on their next lookahead
+                        notifier.notifyDue(List.of(job.queueType()));
+                    }
+                }
+                return rows;
+            });
 
-            System.out.println("🔁 Job " + job.getId() + " retry " + job.getAttempts() +
-                    "/" + job.getMaxAttempts() + " scheduled in " + delaySeconds + "s");
+            if (updated != null && updated > 0) {
+                metrics.retried(job.queueType(), job.taskType());
+                log.debug("Job {} {}, retry {}/{} scheduled in {}ms", job.id(), outcome, attempts,
+                        job.maxAttempts(), delay.toMillis());
+            }
         } else {
-            job.setState(JobState.DEAD);
-            jobRepo.save(job);
-            System.out.println("💀 Job " + job.getId() + " permanently failed after " +
-                    job.getAttempts() + " attempts: " + e.getMessage());
+            markDead(job, attempts, message, errorPayload);
         }
     }
 
     /**
-     * Heartbeat to extend lease while processing long jobs
+     * Give up on the job. Dependents that can now never run go DEAD with it.
      */
-    @Scheduled(fixedRate = 10000)
-    @Transactional
+    private void markDead(JobDescriptor job, int attempts, String message, String errorPayload) {
+        Instant now = Instant.now();
+        Integer cascaded = transactionTemplate.execute(status -> {
+            List<Boolean> hasChildren = jobRepo.markDead(job.id(), node.getId(), attempts, message, errorPayload, now);
+            if (hasChildren.isEmpty()) return -1;
+            return hasChildren.get(0) ? jobJdbcRepo.failDescendants(job.id(), now) : 0;
+        });
+
+        if (cascaded != null && cascaded >= 0) {
+            metrics.dead(job.queueType(), job.taskType());
+            System.out.println("💀 Job " + job.id() + " permanently failed after " +
+                    attempts + " attempts: " + message);
+            if (cascaded > 0) {
+                System.out.println("💀 " + cascaded + " job(s) depending on " + job.id() + " marked DEAD");
+            }
+        }
+    }
+
+    private static String errorMessage(AttemptOutcome outcome, Throwable e) {
+        return outcome == AttemptOutcome.TIMEOUT
+                ? "Timed out" + (e.getMessage() != null ? ": " + e.getMessage() : "")
+                : e.getMessage();
+    }
+
+    private String errorPayload(AttemptOutcome outcome, Throwable e) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("outcome", outcome.name());
+        payload.put("exception", e.getClass().getName());
+        payload.put("message", e.getMessage());
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException jsonError) {
+            return "{}";
+        }
+    }
+
+    /**
+     * Renew every lease this worker holds with one UPDATE. If fewer rows were renewed than
+     * jobs are in flight, some leases were lost (e.g. reaped after a long GC pause or DB
+     * outage) and the affected jobs are cancelled locally.
+     */
+    @Scheduled(fixedRateString = "${chronoqueue.worker.heartbeat-interval-ms:10000}")
     public void sendHeartbeat() {
-        List<JobEntity> myJobs = jobRepo.findByStateAndOwnerWorkerId(JobState.RUNNING, workerId);
+        if (inFlight.isEmpty()) return;
+
+        Set<UUID> expected = new HashSet<>(inFlight);
+        int renewed = jobRepo.renewLeases(node.getId(), JobState.RUNNING, leaseExpiry(), Instant.now());
+
+        if (renewed != expected.size()) {
+            List<UUID> stillOwned = jobRepo.findIdsOwnedBy(expected, node.getId(), JobState.RUNNING);
+            expected.removeAll(stillOwned);
+            expected.forEach(this::leaseLost);
+        }
+
+        System.out.println("💓 [Worker:" + node.shortId() + "] Heartbeat renewed " + renewed + " leases");
+    }
+
+    /**
+     * Stop working on a job whose lease is gone: cancel it if running, drop it if still buffered
+     */
+    private void leaseLost(UUID jobId) {
+        // Not in flight any more means it finished between the snapshot and the check
+        if (!inFlight.remove(jobId)) return;
+
+        System.out.println("⚠️ [Worker:" + node.shortId() + "] Lost lease on job " + jobId + ", cancelling");
 
-        for (JobEntity job : myJobs) {
-            job.setLeaseExpiresAt(Instant.now().plusSeconds(30));
-            job.setHeartbeatAt(Instant.now());
-            jobRepo.save(job);
+        JobContext context = runningJobs.get(jobId);
+        if (context != null) {
+            context.cancel();
+            return;
         }
 
-        if (!myJobs.isEmpty()) {
-            System.out.println("💓 [Worker:" + workerId.substring(0, 8) +
-                    "] Heartbeat sent for " + myJobs.size() + " jobs");
+        for (LocalJobBuffer buffer : jobQueues.values()) {
+            if (buffer.remove(jobId) != null) return;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,72 @@
+package com.sde.chronoqueue.timer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Hierarchical timing wheel (as in Kafka's purgatory) for firing items at millisecond precision.
+ * Any number of threads may add; one thread drives the clock with {@link #advanceClock(long)}.
+ */
+public class HierarchicalTimer<T> {
+
+    private final DelayQueue<TimerBucket<T>> delayQueue = new DelayQueue<>();
+    private final TimingWheel<T> wheel;
+    private final AtomicInteger size = new AtomicInteger();
+
+    // Adds share the read lock; advancing the clock takes the write lock
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public HierarchicalTimer(long tickMs, int wheelSize, long startMs) {
+        this.wheel = new TimingWheel<>(tickMs, wheelSize, startMs, delayQueue);
+    }
+
+    /**
+     * @return false if {@code dueAtMs} has already passed; the caller should act on the item now
+     */
+    public boolean add(T item, long dueAtMs) {
+        lock.readLock().lock();
+        try {
+            if (wheel.add(new TimerEntry<>(item, dueAtMs))) {
+                size.incrementAndGet();
+                return true;
+            }
+            return false;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Wait up to {@code timeoutMs} for the next bucket to expire and return every item that is now due
+     */
+    public List<T> advanceClock(long timeoutMs) throws InterruptedException {
+        TimerBucket<T> bucket = delayQueue.poll(timeoutMs, TimeUnit.MILLISECONDS);
+        if (bucket == null) return List.of();
+
+        List<T> due = new ArrayList<>();
+        lock.writeLock().lock();
+        try {
+            while (bucket != null) {
+                wheel.advanceClock(bucket.getExpiration());
+                bucket.flush(entry -> {
+                    if (!wheel.add(entry)) {
+                        size.decrementAndGet();
+                        due.add(entry.item());
+                    }
+                });
+                bucket = delayQueue.poll();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return due;
+    }
+
+    public int size() {
+        return size.get();
+    }
+}
@@ -0,0 +1,57 @@
+package com.sde.chronoqueue.timer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * One slot of a timing wheel. Only buckets that hold entries sit in the DelayQueue,
+ * so the timer thread sleeps until the next non-empty slot instead of ticking through empty ones.
+ */
+class TimerBucket<T> implements Delayed {
+
+    private final AtomicLong expiration = new AtomicLong(-1L);
+    private final List<TimerEntry<T>> entries = new ArrayList<>();
+
+    synchronized void add(TimerEntry<T> entry) {
+        entries.add(entry);
+    }
+
+    /**
+     * Remove every entry and hand it to {@code reinsert}, which either fires it or moves it
+     * down to a finer wheel
+     */
+    void flush(Consumer<TimerEntry<T>> reinsert) {
+        List<TimerEntry<T>> drained;
+        synchronized (this) {
+            drained = new ArrayList<>(entries);
+            entries.clear();
+            expiration.set(-1L);
+        }
+        drained.forEach(reinsert);
+    }
+
+    /**
+     * @return true if the expiration changed, i.e. the bucket was reused and must be re-queued
+     */
+    boolean setExpiration(long expirationMs) {
+        return expiration.getAndSet(expirationMs) != expirationMs;
+    }
+
+    long getExpiration() {
+        return expiration.get();
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+        return unit.convert(Math.max(getExpiration() - System.currentTimeMillis(), 0), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed other) {
+        return Long.compare(getExpiration(), ((TimerBucket<?>) other).getExpiration());
+    }
+}
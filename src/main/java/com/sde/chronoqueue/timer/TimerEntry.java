@@ -0,0 +1,6 @@
+package com.sde.chronoqueue.timer;
+
+/**
+ * An item waiting in the timer until {@code dueAtMs} (epoch millis)
+ */
+record TimerEntry<T>(T item, long dueAtMs) {}
@@ -0,0 +1,74 @@
+package com.sde.chronoqueue.timer;
+
+import java.util.concurrent.DelayQueue;
+
+/**
+ * One level of a hierarchical timing wheel: {@code wheelSize} buckets of {@code tickMs} each.
+ * Entries beyond this level's span go to a lazily created overflow wheel whose tick is this
+ * level's whole span, and move back down as the clock advances. Insert and expiry are O(1).
+ */
+class TimingWheel<T> {
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final long interval;
+    private final TimerBucket<T>[] buckets;
+    private final DelayQueue<TimerBucket<T>> queue;
+
+    private long currentTime;
+    private volatile TimingWheel<T> overflowWheel;
+
+    @SuppressWarnings("unchecked")
+    TimingWheel(long tickMs, int wheelSize, long startMs, DelayQueue<TimerBucket<T>> queue) {
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.interval = tickMs * wheelSize;
+        this.queue = queue;
+        this.currentTime = startMs - (startMs % tickMs);
+        this.buckets = new TimerBucket[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new TimerBucket<>();
+        }
+    }
+
+    /**
+     * @return false if the entry is already due and should fire now
+     */
+    boolean add(TimerEntry<T> entry) {
+        long dueAt = entry.dueAtMs();
+        if (dueAt < currentTime + tickMs) {
+            return false;
+        }
+        if (dueAt < currentTime + interval) {
+            long virtualId = dueAt / tickMs;
+            TimerBucket<T> bucket = buckets[(int) (virtualId % wheelSize)];
+            bucket.add(entry);
+            if (bucket.setExpiration(virtualId * tickMs)) {
+                queue.offer(bucket);
+            }
+            return true;
+        }
+        return overflowWheel().add(entry);
+    }
+
+    void advanceClock(long timeMs) {
+        if (timeMs >= currentTime + tickMs) {
+            currentTime = timeMs - (timeMs % tickMs);
+            TimingWheel<T> overflow = overflowWheel;
+            if (overflow != null) {
+                overflow.advanceClock(currentTime);
+            }
+        }
+    }
+
+    private TimingWheel<T> overflowWheel() {
+        if (overflowWheel == null) {
+            synchronized (this) {
+                if (overflowWheel == null) {
+                    overflowWheel = new TimingWheel<>(interval, wheelSize, currentTime, queue);
+                }
+            }
+        }
+        return overflowWheel;
+    }
+}
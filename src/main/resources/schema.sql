@@ -0,0 +1,73 @@
+-- Runs on every startup after Hibernate has created / updated the tables; every statement is idempotent.
+
+-- Hot-path indexes only cover jobs that can still run, so they stay small however many
+-- finished jobs pile up. Replaces the full-table indexes Hibernate used to create.
+DROP INDEX IF EXISTS idx_job_processing;
+DROP INDEX IF EXISTS idx_lease_expiry;
+DROP INDEX IF EXISTS idx_queued_jobs;
+CREATE INDEX IF NOT EXISTS idx_jobs_active_due ON jobs (state, scheduled_at, priority)
+    WHERE state IN ('PENDING', 'RUNNING');
+CREATE INDEX IF NOT EXISTS idx_jobs_active_lease ON jobs (state, lease_expires_at)
+    WHERE state IN ('PENDING', 'RUNNING');
+CREATE INDEX IF NOT EXISTS idx_jobs_active_queued ON jobs (state, queued_at)
+    WHERE state IN ('PENDING', 'RUNNING');
+
+-- Hibernate only writes the state CHECK when it creates the table; keep it in step with JobState.
+-- Only replaced while it still lacks BLOCKED, so the ACCESS EXCLUSIVE lock is taken once, not on every start.
+-- NOT VALID: existing rows were checked by the old constraint, so no table scan either.
+-- The DO body is a plain string literal: the script runner splits on ';' inside $$ quoting.
+DO '
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint
+                   WHERE conrelid = ''jobs''::regclass AND conname = ''jobs_state_check''
+                     AND pg_get_constraintdef(oid) LIKE ''%BLOCKED%'') THEN
+        ALTER TABLE jobs DROP CONSTRAINT IF EXISTS jobs_state_check;
+        ALTER TABLE jobs ADD CONSTRAINT jobs_state_check
+            CHECK (state IN (''BLOCKED'', ''PENDING'', ''RUNNING'', ''SUCCEEDED'', ''FAILED'', ''DEAD'')) NOT VALID;
+    END IF;
+END';
+
+-- Edges of job DAGs: child_id becomes PENDING once every parent_id has succeeded.
+-- Rows go when either end is archived.
+CREATE TABLE IF NOT EXISTS job_dependencies (
+    parent_id uuid NOT NULL,
+    child_id  uuid NOT NULL,
+    PRIMARY KEY (parent_id, child_id)
+);
+CREATE INDEX IF NOT EXISTS idx_job_dependencies_child ON job_dependencies (child_id);
+CREATE INDEX IF NOT EXISTS idx_jobs_workflow ON jobs (workflow_id, scheduled_at, id)
+    WHERE workflow_id IS NOT NULL;
+
+-- What the archiver scans for: finished jobs by age
+CREATE INDEX IF NOT EXISTS idx_jobs_terminal ON jobs (updated_at)
+    WHERE state IN ('SUCCEEDED', 'DEAD');
+
+-- Finished jobs, one partition per month of created_at (jobs_archive_YYYY_MM).
+-- Partitions are created by the archiver as needed; dropping one removes a month at once.
+CREATE TABLE IF NOT EXISTS jobs_archive (
+    id                 uuid         NOT NULL,
+    queue_type         varchar(255) NOT NULL,
+    task_type          varchar(255) NOT NULL,
+    payload            text         NOT NULL,
+    metadata           text,
+    scheduled_at       timestamptz  NOT NULL,
+    created_at         timestamptz  NOT NULL,
+    updated_at         timestamptz  NOT NULL,
+    state              varchar(255) NOT NULL,
+    priority           integer      NOT NULL,
+    attempts           integer      NOT NULL,
+    max_attempts       integer,
+    idempotency_key    varchar(255),
+    retry_backoff      text,
+    last_error         text,
+    last_error_payload text,
+    archived_at        timestamptz  NOT NULL,
+    workflow_id        uuid,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+-- Archives created before workflows existed
+ALTER TABLE jobs_archive ADD COLUMN IF NOT EXISTS workflow_id uuid;
+
+-- What the recurring materializer scans for: enabled definitions by next fire time
+CREATE INDEX IF NOT EXISTS idx_recurring_jobs_due ON recurring_jobs (next_fire_at)
+    WHERE enabled;
@@ -0,0 +1,14 @@
+-- Atomically move due job IDs from a delayed ZSET to a ready stream.
+-- KEYS[1] = delayed ZSET (score = scheduledAt millis * 1000 + priority tie-breaker)
+-- KEYS[2] = ready stream, read by a consumer group
+-- ARGV[1] = max score to promote (inclusive)
+-- ARGV[2] = max members to move in one call
+local due = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1], 'LIMIT', 0, tonumber(ARGV[2]))
+if #due == 0 then
+    return 0
+end
+for i = 1, #due do
+    redis.call('XADD', KEYS[2], '*', 'job', due[i])
+end
+redis.call('ZREM', KEYS[1], unpack(due))
+return #due
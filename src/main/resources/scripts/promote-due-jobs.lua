@@ -0,0 +1,12 @@
+-- Atomically move due job IDs from a delayed ZSET to a ready list.
+-- KEYS[1] = delayed ZSET (score = scheduledAt millis * 1000 + priority tie-breaker)
+-- KEYS[2] = ready list (LPUSH / RPOP, so members keep their score order)
+-- ARGV[1] = max score to promote (inclusive)
+-- ARGV[2] = max members to move in one call
+local due = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1], 'LIMIT', 0, tonumber(ARGV[2]))
+if #due == 0 then
+    return 0
+end
+redis.call('LPUSH', KEYS[2], unpack(due))
+redis.call('ZREM', KEYS[1], unpack(due))
+return #due
@@ -0,0 +1,19 @@
+-- Take over stream entries left pending by dead consumers.
+-- KEYS[1] = ready stream
+-- ARGV[1] = consumer group, ARGV[2] = claiming consumer
+-- ARGV[3] = min idle time in ms, ARGV[4] = max entries to claim
+-- Returns a flat list: entryId1, jobId1, entryId2, jobId2, ...
+local res = redis.call('XAUTOCLAIM', KEYS[1], ARGV[1], ARGV[2], ARGV[3], '0-0', 'COUNT', ARGV[4])
+local out = {}
+for _, entry in ipairs(res[2]) do
+    local fields = entry[2]
+    if fields then
+        for i = 1, #fields, 2 do
+            if fields[i] == 'job' then
+                table.insert(out, entry[1])
+                table.insert(out, fields[i + 1])
+            end
+        end
+    end
+end
+return out
@@ -0,0 +1,26 @@
+-- Take up to ARGV[3] tokens from a token bucket shared by every node.
+-- KEYS[1] = bucket hash (tokens, ts = last refill in epoch millis)
+-- ARGV[1] = refill rate in tokens per second
+-- ARGV[2] = capacity (largest burst after the bucket sat idle)
+-- ARGV[3] = tokens wanted
+-- ARGV[4] = caller's clock in epoch millis; a lagging clock never refills backwards
+-- Returns the tokens granted, between 0 and ARGV[3]
+local rate = tonumber(ARGV[1])
+local capacity = tonumber(ARGV[2])
+local wanted = tonumber(ARGV[3])
+local now = tonumber(ARGV[4])
+
+local state = redis.call('HMGET', KEYS[1], 'tokens', 'ts')
+local tokens = tonumber(state[1]) or capacity
+local ts = tonumber(state[2]) or now
+if now > ts then
+    tokens = math.min(capacity, tokens + (now - ts) * rate / 1000)
+    ts = now
+end
+
+local granted = math.min(wanted, math.floor(tokens))
+tokens = tokens - granted
+redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', tostring(ts))
+-- A full bucket carries no state worth keeping
+redis.call('PEXPIRE', KEYS[1], math.ceil(capacity / rate * 1000) + 1000)
+return granted
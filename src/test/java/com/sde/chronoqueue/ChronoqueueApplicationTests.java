@@ -1,10 +1,8 @@
 package com.sde.chronoqueue;
 
 import org.junit.jupiter.api.Test;
-import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
-class ChronoqueueApplicationTests {
+class ChronoqueueApplicationTests extends StorageTest {
 
     @Test
     void contextLoads() {
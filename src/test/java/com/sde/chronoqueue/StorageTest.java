@@ -0,0 +1,97 @@
+package com.sde.chronoqueue;
+
+import com.github.fppt.jedismock.RedisServer;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Base for tests that need the real SQL and Redis paths: the application wired against an
+ * embedded Postgres and an in-process Redis (jedis-mock), started once per test run and
+ * shared by every subclass. Scheduling is off, so tests drive sweeps, claims and reapers
+ * themselves. Each test starts with empty tables and an empty Redis.
+ */
+@SpringBootTest(properties = {
+        "chronoqueue.scheduling.enabled=false",
+        "spring.jpa.show-sql=false",
+        "spring.devtools.restart.enabled=false",
+        "logging.level.root=WARN"
+})
+public abstract class StorageTest {
+
+    private static final EmbeddedPostgres POSTGRES;
+    private static final RedisServer REDIS;
+
+    static {
+        try {
+            POSTGRES = EmbeddedPostgres.builder().start();
+            REDIS = RedisServer.newRedisServer();
+            REDIS.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                REDIS.stop();
+                POSTGRES.close();
+            } catch (IOException ignored) {
+                // The JVM is exiting anyway
+            }
+        }));
+    }
+
+    @DynamicPropertySource
+    static void storage(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:postgresql://localhost:" + POSTGRES.getPort() +
+                "/postgres?reWriteBatchedInserts=true");
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("spring.data.redis.port", REDIS::getBindPort);
+    }
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    protected StringRedisTemplate redis;
+
+    @BeforeEach
+    void emptyStorage() {
+        jdbcTemplate.execute("TRUNCATE jobs, job_dependencies, job_attempts, recurring_jobs, jobs_archive");
+        redis.execute(connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        }, true);
+    }
+
+    /**
+     * Insert PENDING jobs straight into the table; queued ones count as already handed to Redis
+     */
+    protected List<UUID> insertJobs(int count, String queueType, Instant scheduledAt, boolean queued) {
+        Timestamp now = Timestamp.from(Instant.now());
+        return jdbcTemplate.queryForList("""
+                INSERT INTO jobs (id, queue_type, task_type, payload, scheduled_at, created_at, updated_at,
+                                  state, priority, attempts, max_attempts, queued_at, archived,
+                                  remaining_parents, has_children)
+                SELECT gen_random_uuid(), ?, 'noop', '{}', ?, ?, ?, 'PENDING', 100, 0, 5, ?, false, 0, false
+                FROM generate_series(1, ?)
+                RETURNING id
+                """, UUID.class, queueType, Timestamp.from(scheduledAt), now, now, queued ? now : null, count);
+    }
+
+    protected String state(UUID jobId) {
+        return jdbcTemplate.queryForObject("SELECT state FROM jobs WHERE id = ?", String.class, jobId);
+    }
+}
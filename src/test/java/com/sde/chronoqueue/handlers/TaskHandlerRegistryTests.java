@@ -0,0 +1,192 @@
+package com.sde.chronoqueue.handlers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sde.chronoqueue.config.ChronoQueueProperties;
+import com.sde.chronoqueue.enums.QueueType;
+import com.sde.chronoqueue.services.JobExecutor;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskHandlerRegistryTests {
+
+    record Greeting(String name) {}
+
+    static class GreetingHandler implements TaskHandler<Greeting> {
+        volatile Greeting received;
+
+        @Override
+        public String taskType() {
+            return "greet";
+        }
+
+        @Override
+        public Class<Greeting> payloadType() {
+            return Greeting.class;
+        }
+
+        @Override
+        public CompletionStage<Void> handle(Greeting payload, JobContext context) {
+            received = payload;
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    static class HangingHandler implements TaskHandler<Greeting> {
+        @Override
+        public String taskType() {
+            return "hang";
+        }
+
+        @Override
+        public Class<Greeting> payloadType() {
+            return Greeting.class;
+        }
+
+        @Override
+        public CompletionStage<Void> handle(Greeting payload, JobContext context) {
+            return new CompletableFuture<>(); // never completes
+        }
+
+        @Override
+        public Duration timeout() {
+            return Duration.ofMillis(50);
+        }
+    }
+
+    static class BlockingHandler implements TaskHandler<Greeting> {
+        final CountDownLatch release = new CountDownLatch(1);
+        volatile boolean interrupted;
+
+        @Override
+        public String taskType() {
+            return "block";
+        }
+
+        @Override
+        public Class<Greeting> payloadType() {
+            return Greeting.class;
+        }
+
+        @Override
+        public CompletionStage<Void> handle(Greeting payload, JobContext context) {
+            try {
+                release.await(2, TimeUnit.SECONDS); // blocks the calling thread, as blocking handlers may
+            } catch (InterruptedException e) {
+                interrupted = true;
+                Thread.currentThread().interrupt();
+            }
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public Duration timeout() {
+            return Duration.ofMillis(50);
+        }
+    }
+
+    static class NullHandler implements TaskHandler<Greeting> {
+        @Override
+        public String taskType() {
+            return "null";
+        }
+
+        @Override
+        public Class<Greeting> payloadType() {
+            return Greeting.class;
+        }
+
+        @Override
+        public CompletionStage<Void> handle(Greeting payload, JobContext context) {
+            return null;
+        }
+    }
+
+    private final GreetingHandler greetingHandler = new GreetingHandler();
+    private final BlockingHandler blockingHandler = new BlockingHandler();
+    private final JobExecutor jobExecutor = new JobExecutor(new ChronoQueueProperties());
+    private final TaskHandlerRegistry registry = new TaskHandlerRegistry(
+            List.of(greetingHandler, new HangingHandler(), blockingHandler, new NullHandler()), new ObjectMapper(),
+            jobExecutor);
+
+    private static JobContext context(String taskType) {
+        return new JobContext(UUID.randomUUID(), QueueType.EMAIL, taskType, 1);
+    }
+
+    @Test
+    void bindsPayloadToHandlerType() throws Exception {
+        registry.execute(context("greet"), "{\"name\":\"ada\"}").get();
+
+        assertEquals(new Greeting("ada"), greetingHandler.received);
+    }
+
+    @Test
+    void failsUnknownTaskType() {
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> registry.execute(context("missing"), "{}").get());
+
+        assertInstanceOf(UnknownTaskTypeException.class, e.getCause());
+    }
+
+    @Test
+    void failsNullStageWithClearError() {
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> registry.execute(context("null"), "{}").get(5, TimeUnit.SECONDS));
+
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+        assertTrue(e.getCause().getMessage().contains("returned null"));
+    }
+
+    @Test
+    void timesOutSlowHandler() {
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> registry.execute(context("hang"), "{}").get());
+
+        assertInstanceOf(TimeoutException.class, e.getCause());
+    }
+
+    @Test
+    void timesOutBlockingHandler() throws Exception {
+        try {
+            JobContext context = context("block");
+            CompletableFuture<Void> attempt = registry.execute(context, "{}");
+
+            ExecutionException e = assertThrows(ExecutionException.class, () -> attempt.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(TimeoutException.class, e.getCause());
+
+            // The timeout interrupts the handler thread, well before the latch would have let it go
+            context.handlerReturned().toCompletableFuture().get(1, TimeUnit.SECONDS);
+            assertTrue(blockingHandler.interrupted);
+        } finally {
+            blockingHandler.release.countDown();
+        }
+    }
+
+    @Test
+    void cancelCompletesAttemptWithCancellation() {
+        JobContext context = context("hang");
+        CompletableFuture<Void> attempt = registry.execute(context, "{}");
+
+        context.cancel();
+
+        assertTrue(context.isCancelled());
+        assertThrows(CancellationException.class, attempt::get);
+    }
+
+    @Test
+    void rejectsDuplicateTaskTypes() {
+        assertThrows(IllegalStateException.class, () -> new TaskHandlerRegistry(
+                List.of(new GreetingHandler(), new GreetingHandler()), new ObjectMapper(), jobExecutor));
+    }
+}
@@ -0,0 +1,80 @@
+package com.sde.chronoqueue.metrics;
+
+import com.sde.chronoqueue.StorageTest;
+import com.sde.chronoqueue.dtos.JobRef;
+import com.sde.chronoqueue.enums.QueueType;
+import com.sde.chronoqueue.services.DelayedQueueService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.DoubleSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The lifecycle meters as the workers drive them: claims by result and execution time by outcome.
+ * The registry outlives each test, so every assertion is on the change.
+ */
+class ChronoQueueMetricsTests extends StorageTest {
+
+    @Autowired
+    private DelayedQueueService delayedQueue;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    private double claims(String result) {
+        return registry.get("chronoqueue.claims").tag("queue", "EMAIL").tag("result", result).counter().count();
+    }
+
+    private long executions(String outcome) {
+        // Task meters are registered on a taskType's first attempt
+        Timer timer = registry.find("chronoqueue.job.execution")
+                .tag("queue", "EMAIL").tag("task", "noop").tag("outcome", outcome).timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    private static void await(DoubleSupplier value, double expected) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (value.getAsDouble() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(expected, value.getAsDouble());
+    }
+
+    private void deliver(List<UUID> ids) {
+        delayedQueue.schedule(ids.stream().map(id -> new JobRef(id, QueueType.EMAIL, Instant.now(), 100)).toList());
+    }
+
+    @Test
+    void countsClaimsAndExecutions() throws InterruptedException {
+        double claimed = claims("claimed");
+        List<UUID> ids = insertJobs(3, "EMAIL", Instant.now(), true);
+        long succeeded = executions("SUCCESS");
+
+        deliver(ids);
+
+        await(() -> claims("claimed"), claimed + 3);
+        await(() -> executions("SUCCESS"), succeeded + 3);
+    }
+
+    @Test
+    void countsDeliveriesAlreadyClaimedElsewhereAsConflicts() throws InterruptedException {
+        double conflicts = claims("conflict");
+        List<UUID> ids = insertJobs(2, "EMAIL", Instant.now(), true);
+        jdbcTemplate.update("UPDATE jobs SET state = 'RUNNING', owner_worker_id = 'other-node'");
+
+        deliver(ids);
+
+        await(() -> claims("conflict"), conflicts + 2);
+        for (UUID id : ids) {
+            assertEquals("RUNNING", state(id));
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.sde.chronoqueue.queue;
+
+import com.sde.chronoqueue.enums.QueueType;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalJobBufferTests {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+
+    private static JobDescriptor job(Instant scheduledAt, int priority) {
+        return new JobDescriptor(UUID.randomUUID(), QueueType.EMAIL, "noop", "{}", scheduledAt, priority, 0, 5, null);
+    }
+
+    @Test
+    void pollsEarliestDueFirstThenHigherPriority() {
+        LocalJobBuffer buffer = new LocalJobBuffer(10);
+        JobDescriptor late = job(NOW.minusSeconds(1), 500);
+        JobDescriptor earlyLow = job(NOW.minusSeconds(5), 10);
+        JobDescriptor earlyHigh = job(NOW.minusSeconds(5), 200);
+        buffer.add(late);
+        buffer.add(earlyLow);
+        buffer.add(earlyHigh);
+
+        assertEquals(earlyHigh, buffer.pollDue(NOW));
+        assertEquals(earlyLow, buffer.pollDue(NOW));
+        assertEquals(late, buffer.pollDue(NOW));
+        assertNull(buffer.pollDue(NOW));
+    }
+
+    @Test
+    void futureJobDoesNotBlockDueJobs() {
+        LocalJobBuffer buffer = new LocalJobBuffer(10);
+        JobDescriptor future = job(NOW.plusSeconds(30), 999);
+        JobDescriptor due = job(NOW, 1);
+        buffer.add(future);
+        buffer.add(due);
+
+        assertEquals(due, buffer.pollDue(NOW));
+        assertNull(buffer.pollDue(NOW));
+        assertEquals(future.scheduledAt(), buffer.nextDueAt());
+        assertEquals(future, buffer.pollDue(NOW.plusSeconds(30)));
+    }
+
+    @Test
+    void rejectsDuplicatesAndTracksCapacity() {
+        LocalJobBuffer buffer = new LocalJobBuffer(2);
+        JobDescriptor a = job(NOW, 1);
+
+        assertTrue(buffer.add(a));
+        assertFalse(buffer.add(a));
+        assertEquals(1, buffer.remainingCapacity());
+
+        buffer.add(job(NOW, 1));
+        assertEquals(0, buffer.remainingCapacity());
+
+        assertEquals(a, buffer.remove(a.id()));
+        assertFalse(buffer.contains(a.id()));
+        assertEquals(1, buffer.size());
+    }
+}
@@ -0,0 +1,164 @@
+package com.sde.chronoqueue.queue;
+
+import com.sde.chronoqueue.config.ChronoQueueProperties;
+import com.sde.chronoqueue.config.NodeIdentity;
+import com.sde.chronoqueue.enums.QueueType;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.connection.stream.StreamInfo.XInfoConsumer;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Consumer-group delivery against a real redis-server (jedis-mock has no XREADGROUP / XAUTOCLAIM).
+ * Each RedisStreamReadyQueue instance stands for one node.
+ */
+class RedisStreamReadyQueueTests {
+
+    private static final String STREAM = "chrono:queue:email:stream";
+    private static final long RECLAIM_IDLE_MS = 200;
+
+    private static RedisServer server;
+    private static LettuceConnectionFactory connectionFactory;
+    private static RedisTemplate<String, String> redisTemplate;
+
+    private RedisStreamReadyQueue first;
+    private RedisStreamReadyQueue second;
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        server = RedisServer.newRedisServer().port(port).setting("save \"\"").build();
+        server.start();
+
+        connectionFactory = new LettuceConnectionFactory("localhost", port);
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(connectionFactory);
+        redisTemplate.setKeySerializer(StringRedisSerializer.UTF_8);
+        redisTemplate.setValueSerializer(StringRedisSerializer.UTF_8);
+        redisTemplate.setHashKeySerializer(StringRedisSerializer.UTF_8);
+        redisTemplate.setHashValueSerializer(StringRedisSerializer.UTF_8);
+        redisTemplate.afterPropertiesSet();
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        connectionFactory.destroy();
+        server.stop();
+    }
+
+    @BeforeEach
+    void emptyRedis() {
+        redisTemplate.execute(connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        }, true);
+        first = node();
+        second = node();
+    }
+
+    private static RedisStreamReadyQueue node() {
+        ChronoQueueProperties properties = new ChronoQueueProperties();
+        properties.getQueue().getStream().setReclaimIdleMs(RECLAIM_IDLE_MS);
+        RedisStreamReadyQueue queue = new RedisStreamReadyQueue(redisTemplate, properties, new NodeIdentity());
+        queue.createConsumerGroups();
+        return queue;
+    }
+
+    private static List<String> jobIds(int count) {
+        return IntStream.range(0, count).mapToObj(i -> UUID.randomUUID().toString()).toList();
+    }
+
+    private static Set<String> ids(List<QueuedJob> jobs) {
+        return jobs.stream().map(job -> job.jobId().toString()).collect(Collectors.toSet());
+    }
+
+    private static List<String> receipts(List<QueuedJob> jobs) {
+        return jobs.stream().map(QueuedJob::receipt).toList();
+    }
+
+    private static Set<String> consumers() {
+        return redisTemplate.opsForStream().consumers(STREAM, "chrono-workers").stream()
+                .map(XInfoConsumer::consumerName).collect(Collectors.toSet());
+    }
+
+    @Test
+    void eachEntryIsDeliveredToOneConsumerAndAckedEntriesAreDeleted() {
+        List<String> pushed = jobIds(5);
+        first.push(Map.of(QueueType.EMAIL, pushed));
+
+        List<QueuedJob> delivered = first.poll(QueueType.EMAIL, 10, Duration.ZERO);
+        assertEquals(Set.copyOf(pushed), ids(delivered));
+        assertEquals(List.of(), second.poll(QueueType.EMAIL, 10, Duration.ZERO));
+        assertEquals(5, first.depth(QueueType.EMAIL));
+
+        first.ack(QueueType.EMAIL, receipts(delivered));
+        first.flushAcks();
+
+        assertEquals(0, first.depth(QueueType.EMAIL));
+    }
+
+    @Test
+    void onlyUnacknowledgedDeliveriesAreReclaimedOnceIdle() throws InterruptedException {
+        first.push(Map.of(QueueType.EMAIL, jobIds(3)));
+        List<QueuedJob> delivered = first.poll(QueueType.EMAIL, 10, Duration.ZERO);
+        // The first delivery was claimed and acknowledged; the node died before claiming the rest
+        first.ack(QueueType.EMAIL, List.of(delivered.get(0).receipt()));
+        first.flushAcks();
+
+        assertEquals(List.of(), second.reclaim(QueueType.EMAIL, 10));
+        Thread.sleep(RECLAIM_IDLE_MS + 100);
+
+        List<QueuedJob> reclaimed = second.reclaim(QueueType.EMAIL, 10);
+        assertEquals(ids(delivered.subList(1, 3)), ids(reclaimed));
+        // Just taken over, so not idle any more
+        assertEquals(List.of(), first.reclaim(QueueType.EMAIL, 10));
+    }
+
+    @Test
+    void idleConsumersAreRemovedOnceNothingIsPending() throws InterruptedException {
+        RedisStreamReadyQueue third = node();
+        first.push(Map.of(QueueType.EMAIL, jobIds(3)));
+        List<QueuedJob> firstDelivery = first.poll(QueueType.EMAIL, 1, Duration.ZERO);
+        second.ack(QueueType.EMAIL, receipts(second.poll(QueueType.EMAIL, 1, Duration.ZERO)));
+        second.flushAcks();
+        third.ack(QueueType.EMAIL, receipts(third.poll(QueueType.EMAIL, 1, Duration.ZERO)));
+        third.flushAcks();
+        assertEquals(3, consumers().size());
+
+        Thread.sleep(RECLAIM_IDLE_MS + 100);
+        third.removeIdleConsumers();
+
+        // second had nothing pending; first still holds an unacknowledged delivery, third is the caller
+        assertEquals(2, consumers().size());
+
+        first.ack(QueueType.EMAIL, receipts(firstDelivery));
+        first.flushAcks();
+        third.removeIdleConsumers();
+        assertEquals(1, consumers().size());
+
+        third.leaveGroup();
+        assertEquals(Set.of(), consumers());
+    }
+}
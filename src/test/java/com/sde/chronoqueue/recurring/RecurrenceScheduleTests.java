@@ -0,0 +1,74 @@
+package com.sde.chronoqueue.recurring;
+
+import com.sde.chronoqueue.enums.MisfirePolicy;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecurrenceScheduleTests {
+
+    private static final Duration THRESHOLD = Duration.ofMinutes(1);
+
+    @Test
+    void cronFiresInItsTimezoneAcrossDst() {
+        // New York moves to daylight time on 2025-03-09, so 09:00 local goes from 14:00Z to 13:00Z
+        RecurrenceSchedule daily = RecurrenceSchedule.of("0 9 * * *", null, "America/New_York");
+
+        Instant first = daily.first(Instant.parse("2025-03-08T12:00:00Z"));
+        assertEquals(Instant.parse("2025-03-08T14:00:00Z"), first);
+        assertEquals(Instant.parse("2025-03-09T13:00:00Z"), daily.next(first));
+
+        // Six fields and macros are accepted too
+        RecurrenceSchedule everyTenSeconds = RecurrenceSchedule.of("*/10 * * * * *", null, null);
+        assertEquals(Instant.parse("2025-01-01T00:00:10Z"), everyTenSeconds.next(Instant.parse("2025-01-01T00:00:00Z")));
+        assertNotNull(RecurrenceSchedule.of("@daily", null, "UTC"));
+    }
+
+    @Test
+    void rejectsInvalidDefinitions() {
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceSchedule.of(null, null, null));
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceSchedule.of("* * * * *", 60L, null));
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceSchedule.of("61 * * * *", null, null));
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceSchedule.of(null, 0L, null));
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceSchedule.of(null, 60L, "Mars/Olympus"));
+    }
+
+    @Test
+    void materializesFireTimesUpToTheLookahead() {
+        RecurrenceSchedule everyTwentySeconds = RecurrenceSchedule.of(null, 20L, null);
+        Instant now = Instant.parse("2025-01-01T00:00:05Z");
+
+        RecurrenceSchedule.Fires fires = everyTwentySeconds.fires(Instant.parse("2025-01-01T00:00:00Z"), now,
+                now.plusSeconds(60), MisfirePolicy.SKIP, THRESHOLD, 1000);
+
+        assertEquals(List.of("00:00:00", "00:00:20", "00:00:40", "00:01:00"),
+                fires.fires().stream().map(f -> f.runAt().toString().substring(11, 19)).toList());
+        assertEquals(Instant.parse("2025-01-01T00:01:20Z"), fires.next());
+    }
+
+    @Test
+    void missedFireTimesFollowTheMisfirePolicy() {
+        RecurrenceSchedule hourly = RecurrenceSchedule.of(null, 3600L, null);
+        Instant missed = Instant.parse("2025-01-01T00:00:00Z");
+        Instant now = Instant.parse("2025-01-01T05:30:00Z");
+        Instant until = now.plusSeconds(60);
+
+        RecurrenceSchedule.Fires skip = hourly.fires(missed, now, until, MisfirePolicy.SKIP, THRESHOLD, 1000);
+        assertTrue(skip.fires().isEmpty());
+        assertEquals(Instant.parse("2025-01-01T06:00:00Z"), skip.next());
+
+        RecurrenceSchedule.Fires once = hourly.fires(missed, now, until, MisfirePolicy.FIRE_ONCE, THRESHOLD, 1000);
+        assertEquals(List.of(new RecurrenceSchedule.Fire(missed, now)), once.fires());
+        assertEquals(Instant.parse("2025-01-01T06:00:00Z"), once.next());
+
+        RecurrenceSchedule.Fires all = hourly.fires(missed, now, until, MisfirePolicy.FIRE_ALL, THRESHOLD, 4);
+        assertEquals(4, all.fires().size());
+        assertEquals(missed, all.fires().get(0).runAt());
+        // The rest of the backlog is picked up on the next pass
+        assertEquals(Instant.parse("2025-01-01T04:00:00Z"), all.next());
+    }
+}
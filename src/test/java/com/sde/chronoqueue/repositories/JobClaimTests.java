@@ -0,0 +1,89 @@
+package com.sde.chronoqueue.repositories;
+
+import com.sde.chronoqueue.StorageTest;
+import com.sde.chronoqueue.entities.JobEntity;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JobClaimTests extends StorageTest {
+
+    @Autowired
+    private JobEntityRepository jobRepo;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final Instant lease = Instant.now().plusSeconds(30);
+
+    @Test
+    void claimsOnlyPendingJobsInPriorityOrder() {
+        List<UUID> ids = insertJobs(3, "EMAIL", Instant.now(), true);
+        jdbcTemplate.update("UPDATE jobs SET priority = 500 WHERE id = ?", ids.get(2));
+        jdbcTemplate.update("UPDATE jobs SET state = 'SUCCEEDED' WHERE id = ?", ids.get(1));
+
+        List<JobEntity> claimed = jobRepo.claimByIds(ids, "worker-a", lease, Instant.now());
+
+        assertEquals(List.of(ids.get(2), ids.get(0)), claimed.stream().map(JobEntity::getId).toList());
+        for (JobEntity job : claimed) {
+            assertEquals("RUNNING", state(job.getId()));
+            assertEquals("worker-a", job.getOwnerWorkerId());
+            assertNotNull(job.getLeaseExpiresAt());
+        }
+        assertEquals(List.of(), jobRepo.claimByIds(ids, "worker-b", lease, Instant.now()));
+    }
+
+    @Test
+    void lockedRowsAreSkippedNotWaitedOn() throws Exception {
+        List<UUID> ids = insertJobs(10, "EMAIL", Instant.now(), true);
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // Worker A claims and keeps its transaction open
+        CompletableFuture<Integer> first = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> {
+            int claimed = jobRepo.claimByIds(ids, "worker-a", lease, Instant.now()).size();
+            locked.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return claimed;
+        }));
+        assertTrue(locked.await(10, TimeUnit.SECONDS));
+
+        // Worker B gets nothing back right away instead of blocking on A's row locks
+        List<JobEntity> second = assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> jobRepo.claimByIds(ids, "worker-b", lease, Instant.now()));
+        release.countDown();
+
+        assertEquals(List.of(), second);
+        assertEquals(10, first.get(10, TimeUnit.SECONDS));
+        assertEquals(10, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM jobs WHERE owner_worker_id = 'worker-a' AND state = 'RUNNING'", Integer.class));
+    }
+
+    @Test
+    void fallbackFindsOnlyDueUnqueuedJobsOfItsQueue() {
+        List<UUID> missed = insertJobs(2, "EMAIL", Instant.now().minusSeconds(1), false);
+        insertJobs(2, "EMAIL", Instant.now().minusSeconds(1), true);
+        insertJobs(2, "EMAIL", Instant.now().plusSeconds(60), false);
+        insertJobs(2, "REPORT", Instant.now().minusSeconds(1), false);
+
+        List<UUID> found = jobRepo.findDueUnqueuedIds("EMAIL", Instant.now(), 10);
+
+        assertEquals(missed.size(), found.size());
+        assertTrue(found.containsAll(missed));
+        assertEquals(1, jobRepo.findDueUnqueuedIds("EMAIL", Instant.now(), 1).size());
+    }
+}
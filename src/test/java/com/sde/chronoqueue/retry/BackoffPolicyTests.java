@@ -0,0 +1,80 @@
+package com.sde.chronoqueue.retry;
+
+import com.sde.chronoqueue.enums.BackoffStrategy;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BackoffPolicyTests {
+
+    @Test
+    void parsesStoredPolicyAndFillsDefaults() {
+        BackoffPolicy policy = BackoffPolicy.from(
+                Map.of("type", "exponential", "initial_delay_seconds", 5, "max_delay_seconds", 86400));
+
+        assertEquals(BackoffStrategy.EXPONENTIAL, policy.type());
+        assertEquals(5_000, policy.initialDelayMs());
+        assertEquals(86_400_000, policy.maxDelayMs());
+        assertEquals(2, policy.multiplier());
+        assertEquals(0.2, policy.jitter());
+
+        // Property binding hands numbers over as strings
+        assertEquals(1_500, BackoffPolicy.from(Map.of("type", "FIXED", "initial_delay_seconds", "1.5")).initialDelayMs());
+    }
+
+    @Test
+    void rejectsInvalidPolicies() {
+        assertThrows(IllegalArgumentException.class, () -> BackoffPolicy.from(Map.of("type", "random")));
+        assertThrows(IllegalArgumentException.class, () -> BackoffPolicy.from(Map.of("initial_delay_seconds", 0)));
+        assertThrows(IllegalArgumentException.class,
+                () -> BackoffPolicy.from(Map.of("initial_delay_seconds", 10, "max_delay_seconds", 5)));
+        assertThrows(IllegalArgumentException.class, () -> BackoffPolicy.from(Map.of("jitter", 2)));
+        assertThrows(IllegalArgumentException.class, () -> BackoffPolicy.from(Map.of("delay", 5)));
+    }
+
+    @Test
+    void strategiesGrowAsDocumentedAndStayUnderTheCap() {
+        Random noJitter = new Random() {
+            @Override
+            public double nextDouble() {
+                return 0;
+            }
+        };
+        BackoffPolicy exponential = new BackoffPolicy(BackoffStrategy.EXPONENTIAL, 5_000, 60_000, 2, 0.2);
+        assertEquals(5_000, exponential.delayMs(1, noJitter));
+        assertEquals(10_000, exponential.delayMs(2, noJitter));
+        assertEquals(40_000, exponential.delayMs(4, noJitter));
+        assertEquals(60_000, exponential.delayMs(50, noJitter));
+
+        BackoffPolicy linear = new BackoffPolicy(BackoffStrategy.LINEAR, 5_000, 60_000, 2, 0);
+        assertEquals(15_000, linear.delayMs(3, noJitter));
+
+        BackoffPolicy fixed = new BackoffPolicy(BackoffStrategy.FIXED, 5_000, 60_000, 2, 0);
+        assertEquals(5_000, fixed.delayMs(7, noJitter));
+    }
+
+    @Test
+    void jitterSpreadsRetriesWithinBounds() {
+        Random random = new Random(42);
+        BackoffPolicy exponential = new BackoffPolicy(BackoffStrategy.EXPONENTIAL, 10_000, 60_000, 2, 0.5);
+        BackoffPolicy decorrelated = new BackoffPolicy(BackoffStrategy.DECORRELATED_JITTER, 1_000, 30_000, 2, 0);
+
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (int i = 0; i < 1_000; i++) {
+            long delay = exponential.delayMs(2, random);
+            assertTrue(delay >= 10_000 && delay <= 20_000, "exponential delay " + delay);
+            min = Math.min(min, delay);
+            max = Math.max(max, delay);
+
+            long capped = decorrelated.delayMs(10, random);
+            assertTrue(capped >= 1_000 && capped <= 30_000, "decorrelated delay " + capped);
+            long early = decorrelated.delayMs(2, random);
+            assertTrue(early >= 1_000 && early <= 3_000, "decorrelated delay " + early);
+        }
+        assertTrue(max - min > 5_000, "delays should spread out, got " + min + ".." + max);
+    }
+}
@@ -0,0 +1,88 @@
+package com.sde.chronoqueue.services;
+
+import com.sde.chronoqueue.StorageTest;
+import com.sde.chronoqueue.dtos.JobAttemptRecord;
+import com.sde.chronoqueue.dtos.JobAttemptResponse;
+import com.sde.chronoqueue.enums.AttemptOutcome;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Attempts handed to the write-behind buffer end up in job_attempts and come back per job,
+ * in attempt order.
+ */
+class AttemptHistoryTests extends StorageTest {
+
+    @Autowired
+    private AttemptHistoryWriter writer;
+
+    @Autowired
+    private JobService jobService;
+
+    private final Instant started = Instant.parse("2025-01-01T00:00:00Z");
+
+    private JobAttemptRecord attempt(UUID jobId, int number, AttemptOutcome outcome, String error) {
+        Instant start = started.plusSeconds(number * 10L);
+        return new JobAttemptRecord(jobId, number, "worker-a", outcome, start, start.plusMillis(250), error,
+                error == null ? null : "{\"exception\":\"java.lang.IllegalStateException\"}");
+    }
+
+    private void awaitRows(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (attemptRows() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(expected, attemptRows());
+    }
+
+    private int attemptRows() {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM job_attempts", Integer.class);
+    }
+
+    @Test
+    void recordedAttemptsAreWrittenAndListedInOrder() throws InterruptedException {
+        UUID job = insertJobs(1, "EMAIL", Instant.now(), false).get(0);
+        UUID other = insertJobs(1, "EMAIL", Instant.now(), false).get(0);
+
+        writer.record(attempt(job, 3, AttemptOutcome.SUCCESS, null));
+        writer.record(attempt(job, 1, AttemptOutcome.FAILURE, "boom"));
+        writer.record(attempt(other, 1, AttemptOutcome.SUCCESS, null));
+        writer.record(attempt(job, 2, AttemptOutcome.TIMEOUT, "Timed out"));
+        awaitRows(4);
+
+        List<JobAttemptResponse> attempts = jobService.getJobAttempts(job);
+        assertEquals(List.of(1, 2, 3), attempts.stream().map(JobAttemptResponse::attemptNumber).toList());
+        assertEquals(List.of(AttemptOutcome.FAILURE, AttemptOutcome.TIMEOUT, AttemptOutcome.SUCCESS),
+                attempts.stream().map(JobAttemptResponse::outcome).toList());
+
+        JobAttemptResponse failed = attempts.get(0);
+        assertEquals("worker-a", failed.workerId());
+        assertEquals(250L, failed.durationMs());
+        assertEquals("boom", failed.error());
+        assertEquals("java.lang.IllegalStateException", failed.errorPayload().get("exception"));
+    }
+
+    @Test
+    void longErrorsAreTruncated() throws InterruptedException {
+        UUID job = insertJobs(1, "EMAIL", Instant.now(), false).get(0);
+
+        writer.record(attempt(job, 1, AttemptOutcome.FAILURE, "x".repeat(1000)));
+        awaitRows(1);
+
+        assertEquals(255, jobService.getJobAttempts(job).get(0).error().length());
+    }
+
+    @Test
+    void unknownJobFailsLikeAStatusLookup() {
+        UUID unknown = UUID.randomUUID();
+        RuntimeException error = assertThrows(RuntimeException.class, () -> jobService.getJobAttempts(unknown));
+        assertEquals("Job not found with ID: " + unknown, error.getMessage());
+    }
+}
@@ -0,0 +1,71 @@
+package com.sde.chronoqueue.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClusterMembershipServiceTests {
+
+    private static final int PARTITIONS = 64;
+
+    private static final List<String> NODES = List.of(
+            "node-3f1c", "node-8a02", "node-b7e9", "node-41d5", "node-c0aa");
+
+    /**
+     * Owner of each partition, as the given members compute it
+     */
+    private static Map<Integer, String> owners(List<String> members) {
+        Map<Integer, String> owners = new HashMap<>();
+        for (String member : members) {
+            for (int partition : ClusterMembershipService.assign(member, members, PARTITIONS)) {
+                assertNull(owners.put(partition, member), "partition " + partition + " has two owners");
+            }
+        }
+        return owners;
+    }
+
+    @Test
+    void everyPartitionHasExactlyOneOwner() {
+        for (int size = 1; size <= NODES.size(); size++) {
+            List<String> members = NODES.subList(0, size);
+            Map<Integer, String> owners = owners(members);
+
+            assertEquals(PARTITIONS, owners.size());
+            for (String member : members) {
+                assertTrue(owners.containsValue(member), member + " owns nothing with " + size + " nodes");
+            }
+        }
+    }
+
+    @Test
+    void singleNodeOwnsEveryPartition() {
+        assertArrayEquals(IntStream.range(0, PARTITIONS).toArray(),
+                ClusterMembershipService.assign("solo", List.of("solo"), PARTITIONS));
+    }
+
+    @Test
+    void leavingOnlyMovesTheLeaversPartitions() {
+        Map<Integer, String> before = owners(NODES);
+        String leaver = NODES.get(2);
+        Map<Integer, String> after = owners(NODES.stream().filter(n -> !n.equals(leaver)).toList());
+
+        before.forEach((partition, owner) -> {
+            if (!owner.equals(leaver)) assertEquals(owner, after.get(partition));
+        });
+    }
+
+    @Test
+    void memberOrderDoesNotMatter() {
+        List<String> reversed = NODES.reversed();
+        for (String member : NODES) {
+            assertTrue(Arrays.equals(ClusterMembershipService.assign(member, NODES, PARTITIONS),
+                    ClusterMembershipService.assign(member, reversed, PARTITIONS)));
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.sde.chronoqueue.services;
+
+import com.sde.chronoqueue.StorageTest;
+import com.sde.chronoqueue.dtos.JobCreateRequest;
+import com.sde.chronoqueue.dtos.JobRef;
+import com.sde.chronoqueue.enums.QueueType;
+import com.sde.chronoqueue.queue.ReadyQueue;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Jobs already due when they are handed to Redis go straight to the ready queue; only future
+ * jobs wait in the delayed ZSET.
+ */
+class DirectSchedulingTests extends StorageTest {
+
+    @Autowired
+    private JobService jobService;
+
+    @Autowired
+    private DelayedQueueService delayedQueue;
+
+    // Local workers take pushed jobs off the ready queue right away, so pushes are captured instead
+    @MockitoSpyBean
+    private ReadyQueue readyQueue;
+
+    private static JobCreateRequest request(Instant scheduledAt) {
+        return new JobCreateRequest(QueueType.EMAIL, "noop", Map.of(), scheduledAt,
+                null, null, null, null, List.of(), null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> pushedIds() {
+        ArgumentCaptor<Map<QueueType, List<String>>> pushed = ArgumentCaptor.forClass(Map.class);
+        verify(readyQueue).push(pushed.capture());
+        return pushed.getValue().get(QueueType.EMAIL);
+    }
+
+    @Test
+    void jobDueAtCreationSkipsTheDelayedQueue() {
+        UUID id = jobService.createJob(request(Instant.now().minusSeconds(1))).id();
+
+        assertEquals(List.of(id.toString()), pushedIds());
+        assertEquals(0, delayedQueue.size(QueueType.EMAIL));
+    }
+
+    @Test
+    void futureJobWaitsInTheDelayedQueue() {
+        jobService.createJob(request(Instant.now().plus(Duration.ofHours(1))));
+
+        verify(readyQueue, never()).push(any());
+        assertEquals(1, delayedQueue.size(QueueType.EMAIL));
+    }
+
+    @Test
+    void dueJobsArePushedInPromotionOrder() {
+        Instant now = Instant.now();
+        JobRef older = new JobRef(UUID.randomUUID(), QueueType.EMAIL, now.minusSeconds(10), 100);
+        JobRef low = new JobRef(UUID.randomUUID(), QueueType.EMAIL, now.minusSeconds(1), 10);
+        JobRef high = new JobRef(UUID.randomUUID(), QueueType.EMAIL, now.minusSeconds(1), 900);
+        JobRef later = new JobRef(UUID.randomUUID(), QueueType.EMAIL, now.plus(Duration.ofHours(1)), 999);
+
+        delayedQueue.schedule(List.of(low, later, high, older));
+
+        assertEquals(List.of(older.id().toString(), high.id().toString(), low.id().toString()), pushedIds());
+        assertEquals(1, delayedQueue.size(QueueType.EMAIL));
+    }
+}
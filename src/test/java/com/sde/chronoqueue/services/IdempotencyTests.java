@@ -0,0 +1,68 @@
+package com.sde.chronoqueue.services;
+
+import com.sde.chronoqueue.StorageTest;
+import com.sde.chronoqueue.dtos.JobCreateRequest;
+import com.sde.chronoqueue.dtos.JobCreateResponse;
+import com.sde.chronoqueue.enums.JobState;
+import com.sde.chronoqueue.enums.QueueType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Repeated creates with one idempotency key: one job, answered through the Redis key cache
+ * with the job's current row. Jobs are scheduled a day out so the workers leave them alone.
+ */
+class IdempotencyTests extends StorageTest {
+
+    @Autowired
+    private JobService jobService;
+
+    private JobCreateRequest request(String key) {
+        return new JobCreateRequest(QueueType.EMAIL, "noop", Map.of("to", "a@example.com"),
+                Instant.now().plus(Duration.ofDays(1)), null, null, null, key, List.of(), null);
+    }
+
+    @Test
+    void duplicateGetsTheCurrentStateNotTheFirstResponse() {
+        JobCreateResponse first = jobService.createJob(request("welcome-1"));
+        assertEquals(JobState.PENDING, first.state());
+        assertEquals(first.id().toString(), redis.opsForValue().get("chrono:idem:welcome-1"));
+
+        jdbcTemplate.update("UPDATE jobs SET state = 'SUCCEEDED' WHERE id = ?", first.id());
+
+        JobCreateResponse again = jobService.createJob(request("welcome-1"));
+        assertEquals(first.id(), again.id());
+        assertEquals(JobState.SUCCEEDED, again.state());
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT count(*) FROM jobs", Integer.class));
+    }
+
+    @Test
+    void cacheMissFallsBackToTheInsertConflict() {
+        JobCreateResponse first = jobService.createJob(request("welcome-2"));
+        redis.delete("chrono:idem:welcome-2");
+        jdbcTemplate.update("UPDATE jobs SET state = 'RUNNING' WHERE id = ?", first.id());
+
+        JobCreateResponse again = jobService.createJob(request("welcome-2"));
+        assertEquals(first.id(), again.id());
+        assertEquals(JobState.RUNNING, again.state());
+        assertEquals(first.id().toString(), redis.opsForValue().get("chrono:idem:welcome-2"));
+    }
+
+    @Test
+    void archivedJobFreesItsKey() {
+        JobCreateResponse first = jobService.createJob(request("welcome-3"));
+        // What the archiver leaves behind: the key cached, the row gone from jobs
+        jdbcTemplate.update("DELETE FROM jobs WHERE id = ?", first.id());
+
+        JobCreateResponse again = jobService.createJob(request("welcome-3"));
+        assertNotEquals(first.id(), again.id());
+        assertEquals(again.id().toString(), redis.opsForValue().get("chrono:idem:welcome-3"));
+    }
+}
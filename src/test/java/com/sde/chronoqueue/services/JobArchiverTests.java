@@ -0,0 +1,121 @@
+package com.sde.chronoqueue.services;
+
+import com.sde.chronoqueue.StorageTest;
+import com.sde.chronoqueue.config.ChronoQueueProperties;
+import com.sde.chronoqueue.enums.JobState;
+import com.sde.chronoqueue.repositories.JobArchiveRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Finished jobs past the retention window move to the month partitions of jobs_archive
+ * in chunks; partitions past partition retention are dropped.
+ */
+class JobArchiverTests extends StorageTest {
+
+    @Autowired
+    private JobArchiverService archiver;
+
+    @Autowired
+    private JobArchiveRepository archiveRepo;
+
+    @Autowired
+    private JobService jobService;
+
+    @Autowired
+    private ChronoQueueProperties properties;
+
+    private int chunkSize;
+    private int partitionRetentionMonths;
+
+    private final YearMonth thisMonth = YearMonth.now(ZoneOffset.UTC);
+
+    @BeforeEach
+    void smallChunks() {
+        chunkSize = properties.getArchive().getChunkSize();
+        partitionRetentionMonths = properties.getArchive().getPartitionRetentionMonths();
+        properties.getArchive().setChunkSize(3);
+    }
+
+    @AfterEach
+    void restoreConfig() {
+        properties.getArchive().setChunkSize(chunkSize);
+        properties.getArchive().setPartitionRetentionMonths(partitionRetentionMonths);
+    }
+
+    /**
+     * Jobs created {@code monthsAgo} months back that finished {@code finishedAgo} ago
+     */
+    private List<UUID> finishedJobs(int count, JobState state, int monthsAgo, Duration finishedAgo) {
+        List<UUID> ids = insertJobs(count, "EMAIL", Instant.now().minus(finishedAgo), false);
+        Timestamp createdAt = Timestamp.from(thisMonth.minusMonths(monthsAgo).atDay(1).atStartOfDay()
+                .toInstant(ZoneOffset.UTC).plusSeconds(3600));
+        for (UUID id : ids) {
+            jdbcTemplate.update("UPDATE jobs SET state = ?, created_at = ?, updated_at = ? WHERE id = ?",
+                    state.name(), createdAt, Timestamp.from(Instant.now().minus(finishedAgo)), id);
+        }
+        return ids;
+    }
+
+    private int count(String sql, Object... args) {
+        return jdbcTemplate.queryForObject(sql, Integer.class, args);
+    }
+
+    @Test
+    void movesOnlyExpiredFinishedJobs() {
+        UUID workflowId = UUID.randomUUID();
+        List<UUID> oldSucceeded = finishedJobs(5, JobState.SUCCEEDED, 2, Duration.ofDays(30));
+        List<UUID> oldDead = finishedJobs(3, JobState.DEAD, 0, Duration.ofDays(8));
+        List<UUID> recent = finishedJobs(2, JobState.SUCCEEDED, 0, Duration.ofDays(1));
+        List<UUID> pending = insertJobs(2, "EMAIL", Instant.now().minus(Duration.ofDays(30)), true);
+        jdbcTemplate.update("UPDATE jobs SET workflow_id = ? WHERE id = ?", workflowId, oldSucceeded.get(0));
+        jdbcTemplate.update("""
+                INSERT INTO job_attempts (id, job_id, attempt_number, worker_id, outcome, started_at, finished_at,
+                                          duration_ms, logs, created_at)
+                VALUES (gen_random_uuid(), ?, 1, 'w', 'SUCCESS', now(), now(), 1, '[]'::jsonb, now())
+                """, oldSucceeded.get(0));
+
+        archiver.archiveFinishedJobs();
+
+        assertEquals(8, count("SELECT count(*) FROM jobs_archive"));
+        assertEquals(4, count("SELECT count(*) FROM jobs"));
+        for (UUID id : recent) assertEquals("SUCCEEDED", state(id));
+        for (UUID id : pending) assertEquals("PENDING", state(id));
+        assertEquals(5, count("SELECT count(*) FROM jobs_archive_" + thisMonth.minusMonths(2).toString().replace('-', '_')));
+        assertEquals(3, count("SELECT count(*) FROM jobs_archive_" + thisMonth.toString().replace('-', '_')));
+
+        assertEquals(workflowId, jdbcTemplate.queryForObject(
+                "SELECT workflow_id FROM jobs_archive WHERE id = ?", UUID.class, oldSucceeded.get(0)));
+        assertEquals(JobState.DEAD, jobService.getJobStatus(oldDead.get(0)).state());
+        // Attempt history goes with the job
+        assertEquals(0, count("SELECT count(*) FROM job_attempts"));
+    }
+
+    @Test
+    void dropsPartitionsPastRetention() {
+        archiveRepo.createPartitionIfMissing(thisMonth.minusMonths(3));
+        archiveRepo.createPartitionIfMissing(thisMonth);
+        finishedJobs(1, JobState.SUCCEEDED, 1, Duration.ofDays(8));
+
+        properties.getArchive().setPartitionRetentionMonths(2);
+        archiver.archiveFinishedJobs();
+
+        List<YearMonth> partitions = archiveRepo.findPartitions();
+        assertFalse(partitions.contains(thisMonth.minusMonths(3)));
+        assertTrue(partitions.contains(thisMonth.minusMonths(1)));
+        assertTrue(partitions.contains(thisMonth));
+        assertEquals(1, count("SELECT count(*) FROM jobs_archive"));
+    }
+}
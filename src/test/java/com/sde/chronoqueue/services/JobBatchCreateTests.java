@@ -0,0 +1,94 @@
+package com.sde.chronoqueue.services;
+
+import com.sde.chronoqueue.StorageTest;
+import com.sde.chronoqueue.dtos.JobBatchCreateResponse;
+import com.sde.chronoqueue.dtos.JobBatchItemResult;
+import com.sde.chronoqueue.dtos.JobCreateRequest;
+import com.sde.chronoqueue.enums.BatchItemStatus;
+import com.sde.chronoqueue.enums.QueueType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * POST /api/jobs/batch: one batch insert that skips taken idempotency keys, then per-item results.
+ * Jobs are scheduled a day out so the workers leave them alone.
+ */
+class JobBatchCreateTests extends StorageTest {
+
+    @Autowired
+    private JobService jobService;
+
+    private static JobCreateRequest request(String key, Map<String, Object> payload) {
+        return new JobCreateRequest(QueueType.EMAIL, "noop", payload, Instant.now().plus(Duration.ofDays(1)),
+                null, null, null, key, List.of(), null);
+    }
+
+    private static JobCreateRequest request(String key) {
+        return request(key, Map.of("to", "a@example.com"));
+    }
+
+    private static List<BatchItemStatus> statuses(JobBatchCreateResponse response) {
+        return response.results().stream().map(JobBatchItemResult::status).toList();
+    }
+
+    private int jobCount() {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM jobs", Integer.class);
+    }
+
+    @Test
+    void duplicateKeysWithinTheBatchResolveToTheFirstItem() {
+        JobBatchCreateResponse response = jobService.createJobs(List.of(
+                request("a"), request(null), request("a"), request("b"), request(null)));
+
+        assertEquals(List.of(BatchItemStatus.CREATED, BatchItemStatus.CREATED, BatchItemStatus.DUPLICATE,
+                BatchItemStatus.CREATED, BatchItemStatus.CREATED), statuses(response));
+        assertEquals(4, response.created());
+        assertEquals(1, response.duplicates());
+        assertEquals(response.results().get(0).id(), response.results().get(2).id());
+        assertEquals(4, jobCount());
+    }
+
+    @Test
+    void keysTakenByEarlierJobsAreReportedWithTheExistingId() {
+        UUID existing = jobService.createJob(request("taken")).id();
+        UUID fromEarlierBatch = jobService.createJobs(List.of(request("batched"))).results().get(0).id();
+
+        JobBatchCreateResponse response = jobService.createJobs(List.of(
+                request("taken"), request("fresh"), request("batched")));
+
+        assertEquals(List.of(BatchItemStatus.DUPLICATE, BatchItemStatus.CREATED, BatchItemStatus.DUPLICATE),
+                statuses(response));
+        assertEquals(existing, response.results().get(0).id());
+        assertEquals(fromEarlierBatch, response.results().get(2).id());
+        assertEquals(3, jobCount());
+    }
+
+    @Test
+    void invalidItemsAreRejectedWithoutFailingTheBatch() {
+        JobCreateRequest noQueue = new JobCreateRequest(null, "noop", Map.of(), Instant.now(),
+                null, null, null, null, List.of(), null);
+        JobCreateRequest unserializable = request("bad-payload", Map.of("value", new Object()));
+
+        JobBatchCreateResponse response = jobService.createJobs(Arrays.asList(
+                noQueue, request("ok"), unserializable, null));
+
+        assertEquals(List.of(BatchItemStatus.REJECTED, BatchItemStatus.CREATED, BatchItemStatus.REJECTED,
+                BatchItemStatus.REJECTED), statuses(response));
+        assertEquals("queueType is required", response.results().get(0).error());
+        assertNotNull(response.results().get(2).error());
+        assertEquals(1, jobCount());
+
+        // A rejected item doesn't take its key
+        assertEquals(BatchItemStatus.CREATED,
+                jobService.createJobs(List.of(request("bad-payload"))).results().get(0).status());
+    }
+}
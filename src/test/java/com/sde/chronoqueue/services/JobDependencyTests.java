@@ -0,0 +1,147 @@
+package com.sde.chronoqueue.services;
+
+import com.sde.chronoqueue.StorageTest;
+import com.sde.chronoqueue.dtos.JobBatchCreateResponse;
+import com.sde.chronoqueue.dtos.JobCreateRequest;
+import com.sde.chronoqueue.dtos.JobRef;
+import com.sde.chronoqueue.enums.BatchItemStatus;
+import com.sde.chronoqueue.enums.JobState;
+import com.sde.chronoqueue.enums.QueueType;
+import com.sde.chronoqueue.repositories.JobJdbcRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * BLOCKED jobs against the real schema: release when the last parent succeeds, DEAD when one fails.
+ * Jobs are scheduled a day out so the local workers leave them alone.
+ */
+class JobDependencyTests extends StorageTest {
+
+    @Autowired
+    private JobService jobService;
+
+    @Autowired
+    private JobJdbcRepository jobJdbcRepo;
+
+    private final UUID workflowId = UUID.randomUUID();
+    private final Instant later = Instant.now().plus(Duration.ofDays(1));
+
+    private JobCreateRequest request(UUID... dependsOn) {
+        return keyed(null, dependsOn);
+    }
+
+    private JobCreateRequest keyed(String idempotencyKey, UUID... dependsOn) {
+        return new JobCreateRequest(QueueType.BACKGROUND_TASK, "noop", Map.of(), later,
+                null, null, null, idempotencyKey, List.of(dependsOn), workflowId);
+    }
+
+    private UUID create(UUID... dependsOn) {
+        return jobService.createJob(request(dependsOn)).id();
+    }
+
+    private JobState jobState(UUID id) {
+        return JobState.valueOf(jdbcTemplate.queryForObject("SELECT state FROM jobs WHERE id = ?", String.class, id));
+    }
+
+    private int remainingParents(UUID id) {
+        return jdbcTemplate.queryForObject("SELECT remaining_parents FROM jobs WHERE id = ?", Integer.class, id);
+    }
+
+    private boolean hasChildren(UUID id) {
+        return jdbcTemplate.queryForObject("SELECT has_children FROM jobs WHERE id = ?", Boolean.class, id);
+    }
+
+    private void finish(UUID id, JobState state) {
+        jdbcTemplate.update("UPDATE jobs SET state = ? WHERE id = ?", state.name(), id);
+    }
+
+    @Test
+    void childWaitsForEveryParent() {
+        UUID first = create();
+        UUID second = create();
+        UUID child = create(first, second);
+
+        assertEquals(JobState.BLOCKED, jobState(child));
+        assertEquals(2, remainingParents(child));
+
+        finish(first, JobState.SUCCEEDED);
+        assertEquals(List.of(), jobJdbcRepo.releaseChildren(first, Instant.now()));
+        assertEquals(JobState.BLOCKED, jobState(child));
+        assertEquals(1, remainingParents(child));
+
+        finish(second, JobState.SUCCEEDED);
+        List<JobRef> released = jobJdbcRepo.releaseChildren(second, Instant.now());
+        assertEquals(List.of(child), released.stream().map(JobRef::id).toList());
+        assertEquals(JobState.PENDING, jobState(child));
+        assertEquals(0, remainingParents(child));
+    }
+
+    @Test
+    void finishedParentsAreCountedAtCreation() {
+        UUID done = create();
+        finish(done, JobState.SUCCEEDED);
+        assertEquals(JobState.PENDING, jobState(create(done)));
+
+        UUID dead = create();
+        finish(dead, JobState.DEAD);
+        ResponseStatusException deadParent = assertThrows(ResponseStatusException.class, () -> create(dead));
+        assertEquals(HttpStatus.CONFLICT, deadParent.getStatusCode());
+
+        ResponseStatusException unknown = assertThrows(ResponseStatusException.class, () -> create(UUID.randomUUID()));
+        assertEquals(HttpStatus.BAD_REQUEST, unknown.getStatusCode());
+
+        JobBatchCreateResponse batch = jobService.createJobs(List.of(request(done), request(dead)));
+        assertEquals(BatchItemStatus.CREATED, batch.results().get(0).status());
+        assertEquals(BatchItemStatus.REJECTED, batch.results().get(1).status());
+    }
+
+    @Test
+    void deadParentFailsEveryBlockedDescendant() {
+        UUID root = create();
+        UUID other = create();
+        UUID child = create(root);
+        UUID grandchild = create(child, other);
+        UUID sibling = create(other);
+
+        finish(root, JobState.DEAD);
+        assertEquals(2, jobJdbcRepo.failDescendants(root, Instant.now()));
+
+        assertEquals(JobState.DEAD, jobState(child));
+        assertEquals(JobState.DEAD, jobState(grandchild));
+        assertEquals(JobState.BLOCKED, jobState(sibling));
+
+        // The other parent succeeding later must not revive the dead grandchild
+        finish(other, JobState.SUCCEEDED);
+        assertEquals(List.of(sibling), jobJdbcRepo.releaseChildren(other, Instant.now()).stream().map(JobRef::id).toList());
+        assertEquals(JobState.DEAD, jobState(grandchild));
+    }
+
+    @Test
+    void onlyParentsThatGainAChildAreFlagged() {
+        UUID parent = create();
+        UUID other = create();
+        UUID original = jobService.createJob(keyed("dup-single")).id();
+        jobService.createJobs(List.of(keyed("dup-batch")));
+
+        // Duplicates of existing jobs create no dependency rows, so they mustn't flag the parents they name
+        assertEquals(original, jobService.createJob(keyed("dup-single", parent)).id());
+        JobBatchCreateResponse batch = jobService.createJobs(List.of(keyed("dup-batch", parent), request(other)));
+        assertEquals(BatchItemStatus.DUPLICATE, batch.results().get(0).status());
+        assertEquals(BatchItemStatus.CREATED, batch.results().get(1).status());
+
+        assertFalse(hasChildren(parent));
+        assertTrue(hasChildren(other));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM job_dependencies WHERE parent_id = ?", Integer.class, parent));
+    }
+}
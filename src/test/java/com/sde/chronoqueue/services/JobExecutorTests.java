@@ -0,0 +1,76 @@
+package com.sde.chronoqueue.services;
+
+import com.sde.chronoqueue.config.ChronoQueueProperties;
+import com.sde.chronoqueue.enums.QueueType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JobExecutorTests {
+
+    private JobExecutor executor;
+
+    @BeforeEach
+    void createExecutor() {
+        ChronoQueueProperties properties = new ChronoQueueProperties();
+        properties.getWorker().setDefaultConcurrency(2);
+        properties.getWorker().getConcurrency().put(QueueType.REPORT, 1);
+        executor = new JobExecutor(properties);
+    }
+
+    @AfterEach
+    void shutdown() throws InterruptedException {
+        executor.shutdown();
+    }
+
+    @Test
+    void permitIsHeldUntilTheStageCompletes() throws InterruptedException {
+        CompletableFuture<Void> first = new CompletableFuture<>();
+        CompletableFuture<Void> second = new CompletableFuture<>();
+        CountDownLatch released = new CountDownLatch(1);
+
+        assertTrue(executor.tryExecute(QueueType.EMAIL, () -> first, released::countDown));
+        assertTrue(executor.tryExecute(QueueType.EMAIL, () -> second, () -> { }));
+        // The tasks have returned their stages, but neither has completed
+        assertFalse(executor.tryExecute(QueueType.EMAIL, CompletableFuture::new, () -> { }));
+        assertEquals(0, executor.availablePermits(QueueType.EMAIL));
+
+        first.complete(null);
+        assertTrue(released.await(5, TimeUnit.SECONDS));
+        assertEquals(1, executor.availablePermits(QueueType.EMAIL));
+        assertTrue(executor.tryExecute(QueueType.EMAIL, () -> CompletableFuture.completedFuture(null), () -> { }));
+        second.complete(null);
+    }
+
+    @Test
+    void queuesHaveSeparatePermitPools() {
+        CompletableFuture<Void> report = new CompletableFuture<>();
+
+        assertTrue(executor.tryExecute(QueueType.REPORT, () -> report, () -> { }));
+        assertFalse(executor.tryExecute(QueueType.REPORT, CompletableFuture::new, () -> { }));
+
+        // A full REPORT queue leaves the others alone
+        assertEquals(2, executor.availablePermits(QueueType.EMAIL));
+        report.complete(null);
+    }
+
+    @Test
+    void failingTaskReleasesItsPermit() throws InterruptedException {
+        CountDownLatch released = new CountDownLatch(2);
+
+        executor.tryExecute(QueueType.EMAIL, () -> {
+            throw new IllegalStateException("boom");
+        }, released::countDown);
+        executor.tryExecute(QueueType.EMAIL, () -> CompletableFuture.failedFuture(new IllegalStateException("boom")),
+                released::countDown);
+
+        assertTrue(released.await(5, TimeUnit.SECONDS));
+        assertEquals(2, executor.availablePermits(QueueType.EMAIL));
+    }
+}
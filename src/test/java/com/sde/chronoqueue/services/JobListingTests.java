@@ -0,0 +1,115 @@
+package com.sde.chronoqueue.services;
+
+import com.sde.chronoqueue.StorageTest;
+import com.sde.chronoqueue.dtos.JobCreateResponse;
+import com.sde.chronoqueue.dtos.JobFilter;
+import com.sde.chronoqueue.dtos.JobListResponse;
+import com.sde.chronoqueue.enums.JobState;
+import com.sde.chronoqueue.enums.QueueType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Keyset pages on (scheduled_at, id) and the NDJSON export. Jobs are scheduled in the future so
+ * the workers leave them alone; each insert shares one scheduled_at, so ties are broken by id.
+ */
+class JobListingTests extends StorageTest {
+
+    private static final JobFilter ALL = new JobFilter(null, null, null, null, null, null);
+
+    @Autowired
+    private JobService jobService;
+
+    // Whole milliseconds, so the window bounds compare exactly against the stored microseconds
+    private final Instant later = Instant.now().plus(Duration.ofDays(1)).truncatedTo(ChronoUnit.MILLIS);
+
+    private List<UUID> expectedOrder(String where) {
+        return jdbcTemplate.queryForList("SELECT id FROM jobs " + where + " ORDER BY scheduled_at, id", UUID.class);
+    }
+
+    private List<UUID> readAllPages(JobFilter filter, int limit) {
+        List<UUID> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            JobListResponse page = jobService.listJobs(filter, cursor, limit, false);
+            assertTrue(page.jobs().size() <= limit);
+            page.jobs().forEach(job -> seen.add(job.id()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        return seen;
+    }
+
+    @Test
+    void pagesVisitEveryJobOnceInKeyOrder() {
+        insertJobs(5, "EMAIL", later.plusSeconds(10), false);
+        insertJobs(6, "EMAIL", later, false);
+        insertJobs(3, "REPORT", later, false);
+
+        assertEquals(expectedOrder(""), readAllPages(ALL, 4));
+        // An exact multiple of the page size ends with one empty page
+        assertEquals(expectedOrder(""), readAllPages(ALL, 7));
+    }
+
+    @Test
+    void filtersNarrowThePages() {
+        insertJobs(6, "EMAIL", later, false);
+        insertJobs(3, "REPORT", later, false);
+        insertJobs(2, "EMAIL", later.minusSeconds(5), false);
+        jdbcTemplate.update("UPDATE jobs SET state = 'SUCCEEDED' WHERE scheduled_at < ?", Timestamp.from(later));
+
+        JobFilter pendingEmails = new JobFilter(JobState.PENDING, QueueType.EMAIL, "noop", null, null, null);
+        assertEquals(expectedOrder("WHERE queue_type = 'EMAIL' AND state = 'PENDING'"), readAllPages(pendingEmails, 4));
+
+        JobFilter window = new JobFilter(null, null, null, null, later.minusSeconds(5), later);
+        assertEquals(expectedOrder("WHERE state = 'SUCCEEDED'"), readAllPages(window, 10));
+    }
+
+    @Test
+    void payloadIsOnlyReadWhenAskedFor() {
+        insertJobs(1, "EMAIL", later, false);
+
+        JobCreateResponse bare = jobService.listJobs(ALL, null, 10, false).jobs().get(0);
+        JobCreateResponse full = jobService.listJobs(ALL, null, 10, true).jobs().get(0);
+
+        assertNull(bare.payload());
+        assertNotNull(full.payload());
+        assertEquals(bare.id(), full.id());
+    }
+
+    @Test
+    void malformedCursorIsABadRequest() {
+        ResponseStatusException error = assertThrows(ResponseStatusException.class,
+                () -> jobService.listJobs(ALL, "not-a-cursor", 10, false));
+        assertEquals(HttpStatus.BAD_REQUEST, error.getStatusCode());
+    }
+
+    @Test
+    void streamWritesOneLinePerMatchingJob() {
+        insertJobs(7, "EMAIL", later, false);
+        insertJobs(2, "REPORT", later, false);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        jobService.streamJobs(new JobFilter(null, QueueType.EMAIL, null, null, null, null), false, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(7, lines.size());
+        List<String> expected = expectedOrder("WHERE queue_type = 'EMAIL'").stream().map(UUID::toString).toList();
+        for (int i = 0; i < lines.size(); i++) {
+            assertTrue(lines.get(i).contains(expected.get(i)));
+        }
+    }
+}
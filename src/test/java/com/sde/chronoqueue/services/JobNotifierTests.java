@@ -0,0 +1,126 @@
+package com.sde.chronoqueue.services;
+
+import com.sde.chronoqueue.StorageTest;
+import com.sde.chronoqueue.config.NodeIdentity;
+import com.sde.chronoqueue.enums.AttemptOutcome;
+import com.sde.chronoqueue.enums.QueueType;
+import com.sde.chronoqueue.queue.JobDescriptor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Wake-ups on chrono_jobs as another node sees them: sent with the transaction that made the
+ * jobs due, so a listener only hears about committed work.
+ */
+class JobNotifierTests extends StorageTest {
+
+    @Autowired
+    private JobNotifier notifier;
+
+    @Autowired
+    private WorkerService workerService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private DataSourceProperties dataSource;
+
+    @Autowired
+    private NodeIdentity node;
+
+    // Stands in for another node's LISTEN connection
+    private Connection listener;
+
+    @BeforeEach
+    void listen() throws SQLException {
+        listener = DriverManager.getConnection(dataSource.determineUrl(),
+                dataSource.determineUsername(), dataSource.determinePassword());
+        try (Statement statement = listener.createStatement()) {
+            statement.execute("LISTEN chrono_jobs");
+        }
+    }
+
+    @AfterEach
+    void stopListening() throws SQLException {
+        listener.close();
+    }
+
+    private List<String> received(int timeoutMs) throws SQLException {
+        List<String> queues = new ArrayList<>();
+        PGNotification[] notifications = listener.unwrap(PGConnection.class).getNotifications(timeoutMs);
+        if (notifications != null) {
+            for (PGNotification notification : notifications) {
+                queues.add(notification.getParameter());
+            }
+        }
+        return queues;
+    }
+
+    private JobDescriptor runningJob(String owner) {
+        UUID id = insertJobs(1, "EMAIL", Instant.now(), true).get(0);
+        jdbcTemplate.update("UPDATE jobs SET state = 'RUNNING', owner_worker_id = ? WHERE id = ?", owner, id);
+        return new JobDescriptor(id, QueueType.EMAIL, "noop", "{}", Instant.now(), 100, 0, 5, null);
+    }
+
+    @Test
+    void notificationIsDeliveredOnCommit() throws SQLException {
+        transactionTemplate.executeWithoutResult(status -> {
+            notifier.notifyDue(List.of(QueueType.EMAIL, QueueType.EMAIL, QueueType.REPORT));
+            try {
+                assertEquals(List.of(), received(200));
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertEquals(List.of("EMAIL", "REPORT"), received(2000));
+    }
+
+    @Test
+    void rolledBackNotificationIsNeverDelivered() throws SQLException {
+        transactionTemplate.executeWithoutResult(status -> {
+            notifier.notifyDue(List.of(QueueType.EMAIL));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(List.of(), received(500));
+    }
+
+    @Test
+    void retryNotifiesOtherNodes() throws SQLException {
+        JobDescriptor job = runningJob(node.getId());
+
+        workerService.handleFailure(job, AttemptOutcome.FAILURE, "boom", null);
+
+        assertEquals("PENDING", state(job.id()));
+        assertEquals(List.of("EMAIL"), received(2000));
+    }
+
+    @Test
+    void retryOfAJobWeNoLongerOwnSendsNothing() throws SQLException {
+        JobDescriptor job = runningJob("other-node");
+
+        workerService.handleFailure(job, AttemptOutcome.FAILURE, "boom", null);
+
+        assertEquals("RUNNING", state(job.id()));
+        assertEquals(List.of(), received(500));
+    }
+}
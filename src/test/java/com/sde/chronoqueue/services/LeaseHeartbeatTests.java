@@ -0,0 +1,150 @@
+package com.sde.chronoqueue.services;
+
+import com.sde.chronoqueue.StorageTest;
+import com.sde.chronoqueue.config.NodeIdentity;
+import com.sde.chronoqueue.dtos.JobRef;
+import com.sde.chronoqueue.enums.QueueType;
+import com.sde.chronoqueue.handlers.JobContext;
+import com.sde.chronoqueue.handlers.TaskHandler;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Heartbeats against real jobs: one UPDATE renews every lease this node holds, and a job whose
+ * lease went to another worker is cancelled locally without touching its row.
+ */
+class LeaseHeartbeatTests extends StorageTest {
+
+    /**
+     * Runs until cancelled, so the job stays in flight while the test drives heartbeats
+     */
+    static class UntilCancelledHandler implements TaskHandler<Map<String, Object>> {
+        final Set<UUID> started = ConcurrentHashMap.newKeySet();
+        final Set<UUID> cancelled = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public String taskType() {
+            return "until-cancelled";
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Class<Map<String, Object>> payloadType() {
+            return (Class<Map<String, Object>>) (Class<?>) Map.class;
+        }
+
+        @Override
+        public CompletionStage<Void> handle(Map<String, Object> payload, JobContext context) {
+            CompletableFuture<Void> done = new CompletableFuture<>();
+            context.onCancel(() -> {
+                cancelled.add(context.getJobId());
+                done.complete(null);
+            });
+            started.add(context.getJobId());
+            return done;
+        }
+    }
+
+    @TestConfiguration
+    static class Handlers {
+        @Bean
+        UntilCancelledHandler untilCancelledHandler() {
+            return new UntilCancelledHandler();
+        }
+    }
+
+    @Autowired
+    private UntilCancelledHandler handler;
+
+    @Autowired
+    private WorkerService workerService;
+
+    @Autowired
+    private DelayedQueueService delayedQueue;
+
+    @Autowired
+    private NodeIdentity node;
+
+    private UUID runningJob() throws InterruptedException {
+        UUID id = insertJobs(1, "EMAIL", Instant.now(), true).get(0);
+        jdbcTemplate.update("UPDATE jobs SET task_type = 'until-cancelled' WHERE id = ?", id);
+        delayedQueue.schedule(List.of(new JobRef(id, QueueType.EMAIL, Instant.now(), 100)));
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!handler.started.contains(id) && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(handler.started.contains(id));
+        assertEquals("RUNNING", state(id));
+        return id;
+    }
+
+    private Instant leaseExpiresAt(UUID id) {
+        return jdbcTemplate.queryForObject("SELECT lease_expires_at FROM jobs WHERE id = ?", Timestamp.class, id)
+                .toInstant();
+    }
+
+    private void awaitCancelled(UUID id) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!handler.cancelled.contains(id) && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(handler.cancelled.contains(id));
+    }
+
+    @Test
+    void heartbeatRenewsEveryLeaseThisNodeHolds() throws InterruptedException {
+        UUID first = runningJob();
+        UUID second = runningJob();
+        UUID foreign = insertJobs(1, "EMAIL", Instant.now(), true).get(0);
+        Timestamp soon = Timestamp.from(Instant.now().plusSeconds(1).truncatedTo(ChronoUnit.MILLIS));
+        jdbcTemplate.update("UPDATE jobs SET lease_expires_at = ?", soon);
+        jdbcTemplate.update("UPDATE jobs SET state = 'RUNNING', owner_worker_id = 'other-node' WHERE id = ?", foreign);
+
+        workerService.sendHeartbeat();
+
+        assertTrue(leaseExpiresAt(first).isAfter(Instant.now().plusSeconds(10)));
+        assertTrue(leaseExpiresAt(second).isAfter(Instant.now().plusSeconds(10)));
+        assertEquals(soon.toInstant(), leaseExpiresAt(foreign));
+        assertFalse(handler.cancelled.contains(first) || handler.cancelled.contains(second));
+
+        workerService.cancel(first);
+        workerService.cancel(second);
+    }
+
+    @Test
+    void jobWhoseLeaseWentElsewhereIsCancelledAndLeftAlone() throws InterruptedException {
+        UUID kept = runningJob();
+        UUID lost = runningJob();
+        // Reaped during a pause and claimed by another worker since
+        jdbcTemplate.update("UPDATE jobs SET owner_worker_id = 'other-node' WHERE id = ?", lost);
+
+        workerService.sendHeartbeat();
+
+        awaitCancelled(lost);
+        assertFalse(handler.cancelled.contains(kept));
+        assertEquals("RUNNING", state(lost));
+        assertEquals("other-node", jdbcTemplate.queryForObject(
+                "SELECT owner_worker_id FROM jobs WHERE id = ?", String.class, lost));
+        assertEquals(node.getId(), jdbcTemplate.queryForObject(
+                "SELECT owner_worker_id FROM jobs WHERE id = ?", String.class, kept));
+
+        workerService.cancel(kept);
+    }
+}
@@ -0,0 +1,95 @@
+package com.sde.chronoqueue.services;
+
+import com.sde.chronoqueue.StorageTest;
+import com.sde.chronoqueue.config.ChronoQueueProperties;
+import com.sde.chronoqueue.enums.QueueType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Expired leases are handed back to PENDING in chunks and re-added to the delayed queue,
+ * by one node per cycle.
+ */
+class LeaseReaperTests extends StorageTest {
+
+    @Autowired
+    private LeaseReaperService reaper;
+
+    @Autowired
+    private CycleLease cycleLease;
+
+    @Autowired
+    private DelayedQueueService delayedQueue;
+
+    @Autowired
+    private ChronoQueueProperties properties;
+
+    private int chunkSize;
+
+    @BeforeEach
+    void smallChunks() {
+        chunkSize = properties.getReaper().getChunkSize();
+        properties.getReaper().setChunkSize(3);
+    }
+
+    @AfterEach
+    void restoreChunks() {
+        properties.getReaper().setChunkSize(chunkSize);
+    }
+
+    private List<UUID> runningJobs(int count, Instant leaseExpiresAt) {
+        List<UUID> ids = insertJobs(count, "EMAIL", Instant.now().minusSeconds(60), true);
+        ids.forEach(id -> jdbcTemplate.update(
+                "UPDATE jobs SET state = 'RUNNING', owner_worker_id = 'crashed-node', lease_expires_at = ? WHERE id = ?",
+                Timestamp.from(leaseExpiresAt), id));
+        return ids;
+    }
+
+    private String owner(UUID id) {
+        return jdbcTemplate.queryForObject("SELECT owner_worker_id FROM jobs WHERE id = ?", String.class, id);
+    }
+
+    @Test
+    void resetsEveryExpiredLeaseAcrossChunks() {
+        List<UUID> expired = runningJobs(7, Instant.now().minusSeconds(5));
+        List<UUID> live = runningJobs(2, Instant.now().plusSeconds(60));
+
+        reaper.detectAndRecoverStuckJobs();
+
+        for (UUID id : expired) {
+            assertEquals("PENDING", state(id));
+            assertNull(owner(id));
+        }
+        for (UUID id : live) {
+            assertEquals("RUNNING", state(id));
+            assertEquals("crashed-node", owner(id));
+        }
+        // Back on the delayed queue after the requeue delay, not left for the sweep
+        assertEquals(expired.size(), delayedQueue.size(QueueType.EMAIL));
+        assertEquals(7, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM jobs WHERE state = 'PENDING' AND scheduled_at > now()", Integer.class));
+    }
+
+    @Test
+    void onlyOneNodeReapsPerCycle() {
+        assertTrue(cycleLease.tryAcquire("reaper", properties.getReaper().getIntervalMs()));
+        List<UUID> expired = runningJobs(2, Instant.now().minusSeconds(5));
+
+        // Another node took this cycle
+        reaper.detectAndRecoverStuckJobs();
+
+        expired.forEach(id -> assertEquals("RUNNING", state(id)));
+        assertFalse(cycleLease.tryAcquire("reaper", properties.getReaper().getIntervalMs()));
+        long ttl = redis.getExpire("chrono:cycle:reaper");
+        assertTrue(ttl > 0 && ttl * 1000 < properties.getReaper().getIntervalMs());
+    }
+}
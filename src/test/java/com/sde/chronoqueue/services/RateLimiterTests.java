@@ -0,0 +1,98 @@
+package com.sde.chronoqueue.services;
+
+import com.sde.chronoqueue.config.ChronoQueueProperties;
+import com.sde.chronoqueue.enums.QueueType;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTests {
+
+    /**
+     * Stands in for the Lua token bucket: grants what is asked for while the bucket lasts
+     */
+    static class FakeBucket extends RedisTemplate<String, String> {
+        final List<Integer> requests = new ArrayList<>();
+        int tokens;
+
+        FakeBucket(int tokens) {
+            this.tokens = tokens;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T execute(RedisScript<T> script, List<String> keys, Object... args) {
+            int wanted = Integer.parseInt((String) args[2]);
+            requests.add(wanted);
+            int granted = Math.min(wanted, tokens);
+            tokens -= granted;
+            return (T) Long.valueOf(granted);
+        }
+    }
+
+    private RateLimiter limiter(FakeBucket bucket, double rate) {
+        ChronoQueueProperties properties = new ChronoQueueProperties();
+        properties.getRateLimit().getQueues().put(QueueType.EMAIL, rate);
+        properties.getRateLimit().setLeaseSize(50);
+        properties.getRateLimit().setLeaseTtlMs(60_000);
+        return new RateLimiter(bucket, properties);
+    }
+
+    @Test
+    void neverTakesMoreThanOneLease() {
+        FakeBucket bucket = new FakeBucket(10_000);
+        RateLimiter limiter = limiter(bucket, 1000);
+
+        // A lease is min(lease-size, rate / 10) = 50 tokens
+        assertEquals(50, limiter.acquire(QueueType.EMAIL, 500));
+        assertEquals(List.of(50), bucket.requests);
+        assertEquals(9_950, bucket.tokens);
+
+        // Small claims are served from the lease without another round trip once it is topped up
+        assertEquals(5, limiter.acquire(QueueType.EMAIL, 5));
+        assertEquals(5, limiter.acquire(QueueType.EMAIL, 5));
+        assertEquals(List.of(50, 50), bucket.requests);
+
+        assertTrue(bucket.requests.stream().allMatch(wanted -> wanted <= 50));
+    }
+
+    @Test
+    void slowRatesGetSmallerLeases() {
+        FakeBucket bucket = new FakeBucket(10_000);
+        RateLimiter limiter = limiter(bucket, 20);
+
+        int taken = 0;
+        for (int i = 0; i < 5; i++) {
+            taken += limiter.acquire(QueueType.EMAIL, 30);
+        }
+
+        assertEquals(10, taken);
+        assertTrue(bucket.requests.stream().allMatch(wanted -> wanted <= 2));
+    }
+
+    @Test
+    void releasedTokensNeverGrowTheLease() {
+        FakeBucket bucket = new FakeBucket(10_000);
+        RateLimiter limiter = limiter(bucket, 1000);
+
+        assertEquals(50, limiter.acquire(QueueType.EMAIL, 50));
+        limiter.release(QueueType.EMAIL, 500);
+
+        assertEquals(50, limiter.acquire(QueueType.EMAIL, 500));
+        assertEquals(List.of(50), bucket.requests);
+    }
+
+    @Test
+    void unlimitedQueuesSkipRedis() {
+        FakeBucket bucket = new FakeBucket(0);
+        RateLimiter limiter = limiter(bucket, 1000);
+
+        assertEquals(500, limiter.acquire(QueueType.REPORT, 500));
+        assertEquals(List.of(), bucket.requests);
+    }
+}
@@ -0,0 +1,67 @@
+package com.sde.chronoqueue.services;
+
+import com.sde.chronoqueue.StorageTest;
+import com.sde.chronoqueue.enums.QueueType;
+import com.sde.chronoqueue.queue.ReadyQueue;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Queued jobs are re-added to Redis only when Redis lost its data, and only once.
+ */
+class RedisRecoveryTests extends StorageTest {
+
+    @Autowired
+    private RedisRecoveryService recovery;
+
+    @Autowired
+    private DelayedQueueService delayedQueue;
+
+    // Local workers take recovered jobs off the ready queue right away, so pushes are counted instead
+    @MockitoSpyBean
+    private ReadyQueue readyQueue;
+
+    @Test
+    void rebuildsEmptyRedisOnce() {
+        List<UUID> due = insertJobs(12, "EMAIL", Instant.now().minusSeconds(1), true);
+        insertJobs(5, "EMAIL", Instant.now().plusSeconds(600), true);
+        insertJobs(3, "EMAIL", Instant.now().minusSeconds(1), false);
+
+        recovery.rebuildIfLost();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<QueueType, List<String>>> pushed = ArgumentCaptor.forClass(Map.class);
+        verify(readyQueue).push(pushed.capture());
+        assertEquals(due.stream().map(UUID::toString).sorted().toList(),
+                pushed.getValue().get(QueueType.EMAIL).stream().sorted().toList());
+        assertEquals(5, delayedQueue.size(QueueType.EMAIL));
+        assertEquals(-1L, redis.getExpire("chrono:recovery"));
+
+        // Redis kept its data this time: nothing is pushed or added again
+        recovery.rebuildIfLost();
+
+        verify(readyQueue, times(1)).push(any());
+        assertEquals(5, delayedQueue.size(QueueType.EMAIL));
+    }
+
+    @Test
+    void leavesRedisAloneWhileItHasItsData() {
+        insertJobs(4, "EMAIL", Instant.now().minusSeconds(1), true);
+        redis.opsForValue().set("chrono:recovery", "other-node");
+
+        recovery.rebuildIfLost();
+
+        verify(readyQueue, never()).push(any());
+    }
+}
@@ -0,0 +1,109 @@
+package com.sde.chronoqueue.services;
+
+import com.sde.chronoqueue.StorageTest;
+import com.sde.chronoqueue.config.ChronoQueueProperties;
+import com.sde.chronoqueue.enums.QueueType;
+import com.sde.chronoqueue.queue.QueuedJob;
+import com.sde.chronoqueue.queue.ReadyQueue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The keyset-paged sweep: due jobs that never reached Redis are pushed to the ready queue and
+ * marked queued, page by page, and each node only sweeps the partitions it owns.
+ */
+class SchedulerSweepTests extends StorageTest {
+
+    @Autowired
+    private SchedulerService schedulerService;
+
+    @Autowired
+    private ClusterMembershipService membership;
+
+    @Autowired
+    private ReadyQueue readyQueue;
+
+    @Autowired
+    private ChronoQueueProperties properties;
+
+    private int pageSize;
+
+    @BeforeEach
+    void smallPages() {
+        pageSize = properties.getScheduler().getPageSize();
+        properties.getScheduler().setPageSize(7);
+        membership.heartbeat();
+    }
+
+    @AfterEach
+    void restorePages() {
+        properties.getScheduler().setPageSize(pageSize);
+    }
+
+    private Set<UUID> drain(QueueType queue) {
+        List<QueuedJob> jobs = readyQueue.poll(queue, 1000, Duration.ZERO);
+        return jobs.stream().map(QueuedJob::jobId).collect(Collectors.toSet());
+    }
+
+    private Set<UUID> queuedIds() {
+        return new HashSet<>(jdbcTemplate.queryForList("SELECT id FROM jobs WHERE queued_at IS NOT NULL", UUID.class));
+    }
+
+    @Test
+    void pushesEveryDueUnqueuedJobAcrossPages() {
+        List<UUID> due = insertJobs(30, "EMAIL", Instant.now().minusSeconds(1), false);
+        List<UUID> dueReports = insertJobs(5, "REPORT", Instant.now().minusSeconds(1), false);
+        List<UUID> alreadyQueued = insertJobs(4, "EMAIL", Instant.now().minusSeconds(1), true);
+        insertJobs(4, "EMAIL", Instant.now().plusSeconds(60), false);
+
+        schedulerService.moveDueJobsToRedis();
+
+        assertEquals(Set.copyOf(due), drain(QueueType.EMAIL));
+        assertEquals(Set.copyOf(dueReports), drain(QueueType.REPORT));
+
+        Set<UUID> expectedQueued = new HashSet<>(due);
+        expectedQueued.addAll(dueReports);
+        expectedQueued.addAll(alreadyQueued);
+        assertEquals(expectedQueued, queuedIds());
+
+        // Nothing left to sweep
+        schedulerService.moveDueJobsToRedis();
+        assertEquals(Set.of(), drain(QueueType.EMAIL));
+    }
+
+    @Test
+    void sweepsOnlyOwnedPartitions() {
+        List<UUID> due = insertJobs(60, "EMAIL", Instant.now().minusSeconds(1), false);
+
+        redis.opsForZSet().add("chrono:nodes", "peer-node", System.currentTimeMillis());
+        membership.heartbeat();
+        int[] owned = membership.ownedPartitions();
+        assertNotNull(owned);
+        assertTrue(owned.length > 0 && owned.length < membership.partitionCount());
+
+        schedulerService.moveDueJobsToRedis();
+
+        Set<Integer> ownedSet = Arrays.stream(owned).boxed().collect(Collectors.toSet());
+        Set<UUID> mine = new HashSet<>();
+        jdbcTemplate.query("SELECT id, mod(abs(hashtext(id::text)::bigint), ?) AS partition FROM jobs", rs -> {
+            if (ownedSet.contains(rs.getInt("partition"))) mine.add(rs.getObject("id", UUID.class));
+        }, membership.partitionCount());
+        assertFalse(mine.isEmpty());
+        assertTrue(mine.size() < due.size());
+        assertEquals(mine, drain(QueueType.EMAIL));
+        assertEquals(mine, queuedIds());
+    }
+}
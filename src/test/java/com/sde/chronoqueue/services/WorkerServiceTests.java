@@ -0,0 +1,56 @@
+package com.sde.chronoqueue.services;
+
+import com.sde.chronoqueue.StorageTest;
+import com.sde.chronoqueue.dtos.JobRef;
+import com.sde.chronoqueue.enums.QueueType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Jobs run end to end by the local workers: pushed to the ready queue, claimed, executed and
+ * finished in Postgres.
+ */
+class WorkerServiceTests extends StorageTest {
+
+    @Autowired
+    private DelayedQueueService delayedQueue;
+
+    private UUID dueJob(String taskType) {
+        UUID id = insertJobs(1, "EMAIL", Instant.now(), true).get(0);
+        jdbcTemplate.update("UPDATE jobs SET task_type = ? WHERE id = ?", taskType, id);
+        delayedQueue.schedule(List.of(new JobRef(id, QueueType.EMAIL, Instant.now(), 100)));
+        return id;
+    }
+
+    private void awaitState(UUID id, String expected) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!expected.equals(state(id)) && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(expected, state(id));
+    }
+
+    @Test
+    void runsDueJob() throws InterruptedException {
+        UUID id = dueJob("noop");
+
+        awaitState(id, "SUCCEEDED");
+    }
+
+    @Test
+    void unknownTaskTypeGoesDeadWithoutRetries() throws InterruptedException {
+        UUID id = dueJob("no-such-task");
+
+        awaitState(id, "DEAD");
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT attempts FROM jobs WHERE id = ?", Integer.class, id));
+        assertTrue(jdbcTemplate.queryForObject("SELECT last_error FROM jobs WHERE id = ?", String.class, id)
+                .contains("no-such-task"));
+    }
+}
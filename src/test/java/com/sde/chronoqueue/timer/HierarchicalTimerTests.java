@@ -0,0 +1,47 @@
+package com.sde.chronoqueue.timer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HierarchicalTimerTests {
+
+    @Test
+    void rejectsItemsThatAreAlreadyDue() {
+        HierarchicalTimer<String> timer = new HierarchicalTimer<>(1, 8, System.currentTimeMillis());
+
+        assertFalse(timer.add("past", System.currentTimeMillis() - 1000));
+        assertEquals(0, timer.size());
+    }
+
+    @Test
+    void firesItemsInDueOrderAcrossWheelLevels() throws InterruptedException {
+        long start = System.currentTimeMillis();
+        // 1ms ticks, 8 buckets: 150ms needs the third level (span 512ms)
+        HierarchicalTimer<String> timer = new HierarchicalTimer<>(1, 8, start);
+        timer.add("c", start + 150);
+        timer.add("a", start + 20);
+        timer.add("b", start + 60);
+        assertEquals(3, timer.size());
+
+        List<String> fired = new ArrayList<>();
+        List<Long> lateness = new ArrayList<>();
+        long[] dueAt = {start + 20, start + 60, start + 150};
+        while (fired.size() < 3 && System.currentTimeMillis() < start + 2000) {
+            for (String item : timer.advanceClock(50)) {
+                lateness.add(System.currentTimeMillis() - dueAt[fired.size()]);
+                fired.add(item);
+            }
+        }
+
+        assertEquals(List.of("a", "b", "c"), fired);
+        assertEquals(0, timer.size());
+        for (long late : lateness) {
+            assertTrue(late >= 0, "fired early by " + -late + "ms");
+            assertTrue(late < 100, "fired late by " + late + "ms");
+        }
+    }
+}